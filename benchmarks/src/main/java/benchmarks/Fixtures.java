@@ -0,0 +1,62 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the benchmark fixtures from the classpath. The fixtures have the size
+ * and shape of the live search pages: thousands of product titles, a pager
+ * with hundreds of entries and a complete search result page.
+ */
+final class Fixtures {
+	static final String TITLES = "/fixtures/titles.txt";
+	static final String PAGER_LABELS = "/fixtures/pager-labels.txt";
+	static final String COUNT_TEXTS = "/fixtures/count-texts.txt";
+	static final String SEARCH_PAGE = "/fixtures/search-page.html";
+
+	private Fixtures() {
+	}
+
+	/**
+	 * Reads a fixture as a list of lines.
+	 *
+	 * @param resource The classpath resource of the fixture.
+	 * @return The lines of the fixture.
+	 */
+	static List<String> lines(String resource) {
+		try (BufferedReader reader = open(resource)) {
+			return new ArrayList<>(reader.lines().collect(Collectors.toList()));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads a fixture as one string.
+	 *
+	 * @param resource The classpath resource of the fixture.
+	 * @return The text of the fixture.
+	 */
+	static String text(String resource) {
+		try (BufferedReader reader = open(resource)) {
+			return reader.lines().collect(Collectors.joining("\n"));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static BufferedReader open(String resource) {
+		InputStream input = Fixtures.class.getResourceAsStream(resource);
+		if (input == null) {
+			throw new IllegalStateException("Missing benchmark fixture " + resource);
+		}
+		return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+	}
+}
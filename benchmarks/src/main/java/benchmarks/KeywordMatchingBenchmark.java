@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import webutilities.TextParsingUtilities;
+import webutilities.TitleRuleSet;
+
+/**
+ * Measures the title keyword check used by checkTitlesForMissingKeyword and the
+ * single-pass rule set used by auditTitles.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeywordMatchingBenchmark {
+	@Param({ "table", "stainless steel" })
+	public String keyword;
+
+	private TextParsingUtilities textParsingUtilities = new TextParsingUtilities();
+	private List<String> titles;
+	private TitleRuleSet.Matcher ruleMatcher;
+
+	@Setup
+	public void setUp() {
+		titles = Fixtures.lines(Fixtures.TITLES);
+		// A category rule set of the size the nightly audits use
+		ruleMatcher = TitleRuleSet.builder()
+				.require(keyword)
+				.forbid("sink").forbid("cart").forbid("shelf").forbid("cutting board")
+				.anyOf("stainless", "galvanized", "wood", "poly", "maple", "chrome", "epoxy")
+				.anyOf("regency", "advance tabco", "john boos", "eagle group", "steelton", "vollrath", "winholt", "metro")
+				.build()
+				.matcher();
+	}
+
+	@Benchmark
+	public List<String> titlesMissingKeyword() {
+		List<String> missingItemsList = new ArrayList<>();
+		textParsingUtilities.addTitlesMissingKeyword(titles, keyword, missingItemsList);
+		return missingItemsList;
+	}
+
+	@Benchmark
+	public List<String> titlesViolatingRuleSet() {
+		List<String> violatingTitles = new ArrayList<>();
+		for (String title : titles) {
+			if (!ruleMatcher.passes(title)) {
+				violatingTitles.add(title);
+			}
+		}
+		return violatingTitles;
+	}
+}
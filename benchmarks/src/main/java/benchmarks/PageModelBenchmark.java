@@ -0,0 +1,75 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import pages.PaginationModel;
+import pages.SearchResultsDocument;
+
+/**
+ * Measures building the page model: parsing pager links into the
+ * PaginationModel and the page numbers getPageNumbers returns, and extracting
+ * counts and titles from a full search result page.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageModelBenchmark {
+	private List<String> pagerLabels;
+	private List<String> pagerHrefs;
+	private String searchPageHtml;
+	private SearchResultsDocument parsedSearchPage;
+
+	@Setup
+	public void setUp() {
+		pagerLabels = Fixtures.lines(Fixtures.PAGER_LABELS);
+		pagerHrefs = new ArrayList<>();
+		for (int i = 0; i < pagerLabels.size(); i++) {
+			pagerHrefs.add("https://www.webstaurantstore.com/search/?searchval=table&page=" + (i + 1));
+		}
+		searchPageHtml = Fixtures.text(Fixtures.SEARCH_PAGE);
+		parsedSearchPage = new SearchResultsDocument(searchPageHtml, "https://www.webstaurantstore.com/");
+	}
+
+	@Benchmark
+	public List<Integer> pageNumbersFromLinks() {
+		return PaginationModel.fromLinks("https://www.webstaurantstore.com/search/?searchval=table", pagerLabels, pagerHrefs)
+				.getPageNumbers();
+	}
+
+	@Benchmark
+	public PaginationModel paginationModelFromLinks() {
+		return PaginationModel.fromLinks("https://www.webstaurantstore.com/search/?searchval=table", pagerLabels, pagerHrefs);
+	}
+
+	@Benchmark
+	public void parseAndReadSearchPage(Blackhole blackhole) {
+		SearchResultsDocument document = new SearchResultsDocument(searchPageHtml, "https://www.webstaurantstore.com/");
+		blackhole.consume(document.returnSearchResultCount());
+		blackhole.consume(document.returnSearchPageCount());
+		blackhole.consume(document.getAllProductTitles());
+	}
+
+	@Benchmark
+	public void readParsedSearchPage(Blackhole blackhole) {
+		blackhole.consume(parsedSearchPage.returnSearchResultCount());
+		blackhole.consume(parsedSearchPage.returnSearchPageCount());
+		blackhole.consume(parsedSearchPage.getAllProductTitles());
+	}
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import webutilities.TextParsingUtilities;
+
+/**
+ * Measures extracting counts and page numbers from header and pager texts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextParsingBenchmark {
+	private TextParsingUtilities textParsingUtilities = new TextParsingUtilities();
+	private List<String> countTexts;
+
+	@Setup
+	public void setUp() {
+		countTexts = Fixtures.lines(Fixtures.COUNT_TEXTS);
+	}
+
+	@Benchmark
+	public void getIntegerFromText(Blackhole blackhole) {
+		for (String text : countTexts) {
+			blackhole.consume(textParsingUtilities.getIntegerFromText(text));
+		}
+	}
+
+	@Benchmark
+	public int[] parseIntsBatch() {
+		return textParsingUtilities.parseInts(countTexts, -1, -2);
+	}
+
+	@Benchmark
+	public void legacyRegexParse(Blackhole blackhole) {
+		// The replaceAll based parser this class used before, kept as a baseline
+		for (String text : countTexts) {
+			String numericPart = text.replaceAll("[^0-9]", "");
+			blackhole.consume(numericPart.isEmpty() ? 0 : Integer.parseInt(numericPart));
+		}
+	}
+}
@@ -0,0 +1,318 @@
+package drivers;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+/**
+ * How a Chrome session is launched: headed or headless, with or without images,
+ * which page load strategy it uses and which URLs it never downloads.
+ *
+ * The default profile is a full, headed browser. The lean profile is headless,
+ * skips images, returns from navigation once the DOM is ready and blocks the
+ * analytics, tag and font requests the title and cart checks never read.
+ *
+ * Either profile can keep its browser state in a user data directory that
+ * later runs reuse, or attach to an already running browser instead of
+ * launching one.
+ */
+public final class BrowserProfile {
+	/** A full, headed browser that loads everything, as a user would see the site. */
+	public static final BrowserProfile DEFAULT = builder().build();
+
+	/** URL patterns of third-party tags, analytics and fonts, blocked by the lean profile. */
+	public static final List<String> LEAN_BLOCKED_URLS = Collections.unmodifiableList(Arrays.asList(
+			"*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*", "*googleadservices.com*",
+			"*facebook.net*", "*bing.com/bat*", "*hotjar.com*", "*.woff", "*.woff2", "*.ttf"));
+
+	/** A headless browser without images, blocking LEAN_BLOCKED_URLS, with the EAGER page load strategy. */
+	public static final BrowserProfile LEAN = builder().headless(true).images(false)
+			.pageLoadStrategy(PageLoadStrategy.EAGER).blockUrls(LEAN_BLOCKED_URLS).build();
+
+	// Window size of headless sessions, which cannot be maximized
+	private static final String HEADLESS_WINDOW_SIZE = "--window-size=1920,1080";
+
+	private final boolean headless;
+	private final boolean images;
+	private final PageLoadStrategy pageLoadStrategy;
+	private final List<String> blockedUrls;
+	private final Path userDataDir;
+	private final String debuggerAddress;
+
+// Constructor*************************************************************
+	private BrowserProfile(Builder builder) {
+		this.headless = builder.headless;
+		this.images = builder.images;
+		this.pageLoadStrategy = builder.pageLoadStrategy;
+		this.blockedUrls = Collections.unmodifiableList(new ArrayList<>(builder.blockedUrls));
+		this.userDataDir = builder.userDataDir;
+		this.debuggerAddress = builder.debuggerAddress;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Starts building a profile. Unset options keep the defaults of a full, headed browser.
+	 *
+	 * @return A new builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Reads the profile from properties, usually System.getProperties():
+	 * browser.profile (default or lean) picks the starting point, and
+	 * browser.headless, browser.images, browser.pageLoadStrategy (normal, eager
+	 * or none) and browser.blockedUrls (comma separated patterns, * is a
+	 * wildcard) override single options. browser.userDataDir keeps the
+	 * browser profile in a directory and browser.debuggerAddress (host:port)
+	 * attaches to a running browser.
+	 *
+	 * @param properties The properties to read.
+	 * @return The profile.
+	 * @throws IllegalArgumentException If browser.profile or browser.pageLoadStrategy has an unknown value.
+	 */
+	public static BrowserProfile fromProperties(Properties properties) {
+		String name = properties.getProperty("browser.profile", "default");
+		Builder builder;
+		if (name.equalsIgnoreCase("lean")) {
+			builder = LEAN.toBuilder();
+		} else if (name.equalsIgnoreCase("default")) {
+			builder = DEFAULT.toBuilder();
+		} else {
+			throw new IllegalArgumentException("Unknown browser profile '" + name + "', expected default or lean");
+		}
+		String headless = properties.getProperty("browser.headless");
+		if (headless != null) {
+			builder.headless(Boolean.parseBoolean(headless));
+		}
+		String images = properties.getProperty("browser.images");
+		if (images != null) {
+			builder.images(Boolean.parseBoolean(images));
+		}
+		String strategy = properties.getProperty("browser.pageLoadStrategy");
+		if (strategy != null) {
+			builder.pageLoadStrategy(PageLoadStrategy.fromString(strategy.trim().toLowerCase()));
+			if (builder.pageLoadStrategy == null) {
+				throw new IllegalArgumentException("Unknown page load strategy '" + strategy + "'");
+			}
+		}
+		String blockedUrls = properties.getProperty("browser.blockedUrls");
+		if (blockedUrls != null) {
+			builder.blockedUrls.clear();
+			for (String pattern : blockedUrls.split(",")) {
+				if (!pattern.trim().isEmpty()) {
+					builder.blockedUrls.add(pattern.trim());
+				}
+			}
+		}
+		String userDataDir = properties.getProperty("browser.userDataDir");
+		if (userDataDir != null && !userDataDir.trim().isEmpty()) {
+			builder.userDataDir(Paths.get(userDataDir.trim()));
+		}
+		String debuggerAddress = properties.getProperty("browser.debuggerAddress");
+		if (debuggerAddress != null && !debuggerAddress.trim().isEmpty()) {
+			builder.debuggerAddress(debuggerAddress.trim());
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Creates the Chrome launch options for this profile. The user data
+	 * directory is not set here, because every session needs its own; see
+	 * toChromeOptions(Path).
+	 *
+	 * @return The options to start ChromeDriver with.
+	 */
+	public ChromeOptions toChromeOptions() {
+		ChromeOptions options = new ChromeOptions();
+		options.setPageLoadStrategy(pageLoadStrategy);
+		if (headless) {
+			options.addArguments("--headless=new", HEADLESS_WINDOW_SIZE);
+		}
+		if (!images) {
+			// Block images in the content settings, so they are never requested
+			Map<String, Object> prefs = new HashMap<>();
+			prefs.put("profile.managed_default_content_settings.images", 2);
+			options.setExperimentalOption("prefs", prefs);
+			options.addArguments("--blink-settings=imagesEnabled=false");
+		}
+		return options;
+	}
+
+	/**
+	 * Creates the Chrome launch options for this profile with a user data
+	 * directory, so the browser reuses the profile, caches and first-run state
+	 * left there by earlier runs.
+	 *
+	 * @param sessionDataDir The user data directory of this session.
+	 * @return The options to start ChromeDriver with.
+	 */
+	public ChromeOptions toChromeOptions(Path sessionDataDir) {
+		ChromeOptions options = toChromeOptions();
+		options.addArguments("--user-data-dir=" + sessionDataDir.toAbsolutePath(), "--no-first-run",
+				"--no-default-browser-check");
+		return options;
+	}
+
+	/**
+	 * Creates the options to attach to the running browser at the debugger
+	 * address. The browser was launched with its own options, so only the page
+	 * load strategy applies.
+	 *
+	 * @return The options to start ChromeDriver with.
+	 * @throws IllegalStateException If the profile has no debugger address.
+	 */
+	public ChromeOptions toAttachOptions() {
+		if (debuggerAddress == null) {
+			throw new IllegalStateException("The browser profile has no debugger address");
+		}
+		ChromeOptions options = new ChromeOptions();
+		options.setPageLoadStrategy(pageLoadStrategy);
+		options.setExperimentalOption("debuggerAddress", debuggerAddress);
+		return options;
+	}
+
+	/**
+	 * Returns a builder that starts from this profile.
+	 *
+	 * @return A new builder with this profile's options.
+	 */
+	public Builder toBuilder() {
+		return builder().headless(headless).images(images).pageLoadStrategy(pageLoadStrategy).blockUrls(blockedUrls)
+				.userDataDir(userDataDir).debuggerAddress(debuggerAddress);
+	}
+
+	public boolean isHeadless() {
+		return headless;
+	}
+
+	public boolean isImages() {
+		return images;
+	}
+
+	public PageLoadStrategy getPageLoadStrategy() {
+		return pageLoadStrategy;
+	}
+
+	public List<String> getBlockedUrls() {
+		return blockedUrls;
+	}
+
+	public Path getUserDataDir() {
+		return userDataDir;
+	}
+
+	public String getDebuggerAddress() {
+		return debuggerAddress;
+	}
+
+	@Override
+	public String toString() {
+		return "headless=" + headless + ", images=" + images + ", pageLoadStrategy=" + pageLoadStrategy
+				+ ", blockedUrls=" + blockedUrls + ", userDataDir=" + userDataDir + ", debuggerAddress=" + debuggerAddress;
+	}
+
+	/**
+	 * Collects the options of a BrowserProfile.
+	 */
+	public static final class Builder {
+		private boolean headless = false;
+		private boolean images = true;
+		private PageLoadStrategy pageLoadStrategy = PageLoadStrategy.NORMAL;
+		private final List<String> blockedUrls = new ArrayList<>();
+		private Path userDataDir = null;
+		private String debuggerAddress = null;
+
+		private Builder() {
+		}
+
+		/**
+		 * Runs the browser without a window.
+		 *
+		 * @param headless true for a headless browser.
+		 * @return This builder.
+		 */
+		public Builder headless(boolean headless) {
+			this.headless = headless;
+			return this;
+		}
+
+		/**
+		 * Loads or skips images.
+		 *
+		 * @param images false to never download images.
+		 * @return This builder.
+		 */
+		public Builder images(boolean images) {
+			this.images = images;
+			return this;
+		}
+
+		/**
+		 * Sets when navigation returns: NORMAL waits for the load event, EAGER for
+		 * the DOM to be ready and NONE for nothing.
+		 *
+		 * @param pageLoadStrategy The page load strategy.
+		 * @return This builder.
+		 */
+		public Builder pageLoadStrategy(PageLoadStrategy pageLoadStrategy) {
+			this.pageLoadStrategy = pageLoadStrategy;
+			return this;
+		}
+
+		/**
+		 * Adds URL patterns the browser never requests. * matches any characters.
+		 *
+		 * @param patterns The URL patterns to block.
+		 * @return This builder.
+		 */
+		public Builder blockUrls(List<String> patterns) {
+			blockedUrls.addAll(patterns);
+			return this;
+		}
+
+		/**
+		 * Keeps the browser state in a directory that later runs reuse. Each
+		 * session gets its own subdirectory, because Chrome locks the one it uses.
+		 *
+		 * @param userDataDir The directory, or null for a fresh temporary profile per session.
+		 * @return This builder.
+		 */
+		public Builder userDataDir(Path userDataDir) {
+			this.userDataDir = userDataDir;
+			return this;
+		}
+
+		/**
+		 * Attaches to a browser started with --remote-debugging-port instead of
+		 * launching one. Quitting such a session leaves the browser running.
+		 *
+		 * @param debuggerAddress The host:port of the browser, or null to launch a browser.
+		 * @return This builder.
+		 */
+		public Builder debuggerAddress(String debuggerAddress) {
+			this.debuggerAddress = debuggerAddress;
+			return this;
+		}
+
+		/**
+		 * Creates the profile.
+		 *
+		 * @return The browser profile.
+		 */
+		public BrowserProfile build() {
+			return new BrowserProfile(this);
+		}
+	}
+}
@@ -0,0 +1,280 @@
+package drivers;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+/**
+ * Creates Chrome sessions configured the way the tests expect. The driver
+ * binary is resolved once per JVM, not once per session, and remembered in a
+ * DriverCache between runs. A BrowserProfile selects headless mode, images,
+ * the page load strategy and the URLs that are blocked through the DevTools
+ * protocol, and whether sessions reuse a user data directory or attach to a
+ * warm browser. Only one session at a time attaches to a warm browser, since
+ * attached sessions would all drive its active tab; the others launch their own.
+ * Sessions launched with a user data directory each get a numbered directory
+ * no other live session of the JVM uses, and it is handed out again once the
+ * session quits.
+ */
+public class ChromeSessionFactory implements Supplier<WebDriver> {
+	private static final Logger logger = LogManager.getLogger(ChromeSessionFactory.class);
+	private static volatile boolean driverResolved = false;
+	// Debugger addresses a live session of this JVM is attached to
+	private static final Set<String> attachedAddresses = ConcurrentHashMap.newKeySet();
+	// Numbers of the session directories a live session of this JVM uses, per user data directory
+	private static final Map<Path, BitSet> sessionDirectoriesInUse = new HashMap<>();
+	private final Duration implicitWait;
+	private final BrowserProfile profile;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the ChromeSessionFactory.
+	 *
+	 * @param implicitWait The implicit wait timeout applied to each new session.
+	 */
+	public ChromeSessionFactory(Duration implicitWait) {
+		this(implicitWait, BrowserProfile.DEFAULT);
+	}
+
+	/**
+	 * Initializes a new instance of the ChromeSessionFactory with a browser profile.
+	 *
+	 * @param implicitWait The implicit wait timeout applied to each new session.
+	 * @param profile      How each new browser is launched.
+	 */
+	public ChromeSessionFactory(Duration implicitWait, BrowserProfile profile) {
+		this.implicitWait = implicitWait;
+		this.profile = profile;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Starts a new Chrome session, maximized unless it is headless. With a
+	 * debugger address the session attaches to that browser if it is running
+	 * and no other session is attached to it, and launches its own browser otherwise.
+	 * If the session cannot be set up, its browser is quit before the failure is thrown.
+	 *
+	 * @return The new WebDriver session.
+	 */
+	@Override
+	public WebDriver get() {
+		resolveDriver();
+		String address = profile.getDebuggerAddress();
+		ChromeDriver driver = address == null ? null : attach(address);
+		boolean attached = driver != null;
+		// Frees what the session holds exclusively once it quits
+		Runnable onQuit = null;
+		if (attached) {
+			logger.info("Attached to the browser at {}", address);
+			onQuit = () -> attachedAddresses.remove(address);
+		} else if (profile.getUserDataDir() != null) {
+			// Chrome locks its user data directory, so every live session, also of other forks, needs its own
+			Path userDataDir = profile.getUserDataDir().toAbsolutePath().normalize();
+			int session = claimSessionDirectory(userDataDir);
+			onQuit = () -> releaseSessionDirectory(userDataDir, session);
+			try {
+				driver = new ChromeDriver(profile.toChromeOptions(userDataDir.resolve(sessionDirectoryName(session))));
+			} catch (RuntimeException e) {
+				onQuit.run();
+				throw e;
+			}
+		} else {
+			driver = new ChromeDriver(profile.toChromeOptions());
+		}
+		try {
+			// Block the profile's URLs before the first navigation
+			if (!profile.getBlockedUrls().isEmpty()) {
+				blockUrls(driver);
+			}
+			// Set the implicit wait timeout
+			driver.manage().timeouts().implicitlyWait(implicitWait);
+			// Maximize the browser window; headless windows are sized by the profile and attached ones are left alone
+			if (!profile.isHeadless() && !attached) {
+				driver.manage().window().maximize();
+			}
+		} catch (RuntimeException e) {
+			// Nobody gets the session, so nobody would quit its browser or free what it holds
+			quitQuietly(driver);
+			if (onQuit != null) {
+				onQuit.run();
+			}
+			throw e;
+		}
+		// Free the warm browser or the session directory for the next session when this one quits
+		return onQuit == null ? driver : new ReleaseOnQuit(onQuit).decorate(driver);
+	}
+
+	/**
+	 * Attaches a session to the warm browser at an address, unless it is not
+	 * running or another session is already attached to it.
+	 *
+	 * @param address The debugger address, host:port.
+	 * @return The attached session, or null if the caller should launch a browser instead.
+	 */
+	private ChromeDriver attach(String address) {
+		if (!attachedAddresses.add(address)) {
+			logger.info("The browser at {} already has a session, launching another browser", address);
+			return null;
+		}
+		boolean attached = false;
+		try {
+			if (!WarmBrowser.isReachable(address)) {
+				return null;
+			}
+			ChromeDriver driver = new ChromeDriver(profile.toAttachOptions());
+			attached = true;
+			return driver;
+		} finally {
+			if (!attached) {
+				attachedAddresses.remove(address);
+			}
+		}
+	}
+
+	/**
+	 * Claims the lowest session directory number no live session uses.
+	 *
+	 * @param userDataDir The absolute user data directory the session directories are in.
+	 * @return The claimed number.
+	 */
+	private static int claimSessionDirectory(Path userDataDir) {
+		synchronized (sessionDirectoriesInUse) {
+			BitSet inUse = sessionDirectoriesInUse.computeIfAbsent(userDataDir, directory -> new BitSet());
+			int session = inUse.nextClearBit(0);
+			inUse.set(session);
+			return session;
+		}
+	}
+
+	/**
+	 * Hands a session directory number out again.
+	 *
+	 * @param userDataDir The absolute user data directory the session directories are in.
+	 * @param session     The number claimed for the session that quit.
+	 */
+	private static void releaseSessionDirectory(Path userDataDir, int session) {
+		synchronized (sessionDirectoriesInUse) {
+			sessionDirectoriesInUse.get(userDataDir).clear(session);
+		}
+	}
+
+	/**
+	 * Names the user data directory of a launched session. The surefire fork
+	 * number, passed as tabletest.fork, keeps parallel forks out of each other's
+	 * directories while each fork reuses its own between runs.
+	 *
+	 * @param session The number of the session directory, unique among the JVM's live sessions.
+	 * @return The directory name.
+	 */
+	static String sessionDirectoryName(int session) {
+		String fork = System.getProperty("tabletest.fork", "").trim();
+		// An unset fork number stays an unresolved ${...} placeholder
+		return fork.isEmpty() || fork.startsWith("$") ? "session-" + session : "fork-" + fork + "-session-" + session;
+	}
+
+	/**
+	 * Frees the warm browser or the session directory of a session when it quits.
+	 */
+	private static final class ReleaseOnQuit extends WebDriverDecorator<WebDriver> {
+		private final Runnable release;
+		// A second quit must not free what another session has claimed since
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private ReleaseOnQuit(Runnable release) {
+			this.release = release;
+		}
+
+		@Override
+		public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+			try {
+				return super.call(target, method, args);
+			} finally {
+				if (target.getOriginal() instanceof WebDriver && method.getName().equals("quit")
+						&& released.compareAndSet(false, true)) {
+					release.run();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the profile new sessions are launched with.
+	 *
+	 * @return The browser profile.
+	 */
+	public BrowserProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Prepares a tab opened in one of this factory's browsers the way get()
+	 * prepares the first one. DevTools settings such as the blocked URLs apply
+	 * to one tab only. For use as the tab setup of a TabMultiplexer.
+	 *
+	 * @param driver The browser, switched to the new tab.
+	 */
+	public void setUpTab(WebDriver driver) {
+		if (!profile.getBlockedUrls().isEmpty() && driver instanceof HasCdp) {
+			blockUrls((HasCdp) driver);
+		}
+	}
+
+	/**
+	 * Tells the browser to fail requests to the profile's blocked URLs in the
+	 * current tab. The raw DevTools command is used instead of the versioned
+	 * DevTools API, so it does not depend on the installed Chrome version.
+	 *
+	 * @param driver The new session.
+	 */
+	private void blockUrls(HasCdp driver) {
+		driver.executeCdpCommand("Network.enable", Collections.emptyMap());
+		Map<String, Object> parameters = new HashMap<>();
+		parameters.put("urls", profile.getBlockedUrls());
+		driver.executeCdpCommand("Network.setBlockedURLs", parameters);
+		logger.debug("Blocking {} URL patterns", profile.getBlockedUrls().size());
+	}
+
+	/**
+	 * Quits a session that failed to start, logging rather than throwing so the
+	 * original failure is the one reported.
+	 *
+	 * @param driver The session to quit.
+	 */
+	private static void quitQuietly(WebDriver driver) {
+		try {
+			driver.quit();
+		} catch (WebDriverException e) {
+			logger.warn("An error occurred while quitting a WebDriver session: ", e);
+		}
+	}
+
+	/**
+	 * Sets up the Chrome driver binary the first time it is needed, from the
+	 * driver cache when it matches the installed Chrome and with WebDriverManager otherwise.
+	 */
+	private static synchronized void resolveDriver() {
+		if (!driverResolved) {
+			DriverCache.fromProperties(System.getProperties()).resolve();
+			driverResolved = true;
+		}
+	}
+}
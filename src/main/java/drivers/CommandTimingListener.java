@@ -0,0 +1,97 @@
+package drivers;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import webutilities.LatencyRecorder;
+
+/**
+ * Times every WebDriver command a session sends, such as WebDriver.get or
+ * WebElement.click, and records it under "Interface.method". Each recorded
+ * command is one round trip to the browser driver.
+ */
+public class CommandTimingListener implements WebDriverListener {
+	// Accessors that return a local helper object without sending a command
+	private static final Set<String> LOCAL_CALLS = new HashSet<>(Arrays.asList(
+			"WebDriver.manage", "WebDriver.navigate", "WebDriver.switchTo",
+			"Options.timeouts", "Options.window", "Options.logs",
+			"WrapsDriver.getWrappedDriver", "WrapsElement.getWrappedElement"));
+	private final LatencyRecorder recorder;
+	// Start times of the commands in progress on each thread
+	private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the CommandTimingListener.
+	 *
+	 * @param recorder The recorder the command latencies are recorded into.
+	 */
+	public CommandTimingListener(LatencyRecorder recorder) {
+		this.recorder = recorder;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Wraps a session so every command it sends is timed.
+	 *
+	 * @param driver   The session to instrument.
+	 * @param recorder The recorder the command latencies are recorded into.
+	 * @return The decorated session, to be used in place of driver.
+	 */
+	public static WebDriver instrument(WebDriver driver, LatencyRecorder recorder) {
+		return new EventFiringDecorator<>(new CommandTimingListener(recorder)).decorate(driver);
+	}
+
+	@Override
+	public void beforeAnyCall(Object target, Method method, Object[] args) {
+		if (isCommand(method)) {
+			startTimes.get().push(System.nanoTime());
+		}
+	}
+
+	@Override
+	public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+		finish(method);
+	}
+
+	@Override
+	public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+		finish(method);
+	}
+
+	/**
+	 * Records the latency of the command that just ended.
+	 *
+	 * @param method The method of the command.
+	 */
+	private void finish(Method method) {
+		if (isCommand(method)) {
+			Deque<Long> started = startTimes.get();
+			if (!started.isEmpty()) {
+				recorder.record(method.getDeclaringClass().getSimpleName() + "." + method.getName(), started.pop());
+			}
+		}
+	}
+
+	/**
+	 * Filters out Object methods and local accessors such as manage() or
+	 * switchTo(), which the decorator also reports but which never reach the browser.
+	 *
+	 * @param method The called method.
+	 * @return true if the method is a WebDriver command.
+	 */
+	private static boolean isCommand(Method method) {
+		return method.getDeclaringClass() != Object.class
+				&& !LOCAL_CALLS.contains(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+	}
+}
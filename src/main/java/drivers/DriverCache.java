@@ -0,0 +1,333 @@
+package drivers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+/**
+ * Remembers the Chrome driver binary between runs in a small properties file,
+ * so a run only asks WebDriverManager (and usually the network) when the
+ * installed Chrome no longer matches the cached driver.
+ *
+ * The cached driver is used when its file exists and its major version equals
+ * the major version of the installed Chrome. When the installed version cannot
+ * be read, the cached driver is trusted. When WebDriverManager fails, for
+ * example on an offline build agent, a cached driver of another version is
+ * still tried before giving up.
+ */
+public class DriverCache {
+	private static final Logger logger = LogManager.getLogger(DriverCache.class);
+	/** The system property ChromeDriver reads the driver binary from. */
+	public static final String DRIVER_PROPERTY = "webdriver.chrome.driver";
+	// Finds the version in the output of chrome --version, for example "Google Chrome 122.0.6261.94"
+	private static final Pattern VERSION = Pattern.compile("(\\d+)(\\.\\d+){2,3}");
+	// How long chrome --version may take
+	private static final long VERSION_TIMEOUT_SECONDS = 10;
+
+	private final Path file;
+
+	/**
+	 * The driver recorded in the cache file.
+	 */
+	public static final class Entry {
+		private final Path driverPath;
+		private final String driverVersion;
+		private final String browserVersion;
+
+		/**
+		 * Initializes a new instance of the Entry.
+		 *
+		 * @param driverPath     The driver binary.
+		 * @param driverVersion  The driver version, for example "122.0.6261.94".
+		 * @param browserVersion The Chrome version the driver was resolved for, or null if unknown.
+		 */
+		public Entry(Path driverPath, String driverVersion, String browserVersion) {
+			this.driverPath = driverPath;
+			this.driverVersion = driverVersion;
+			this.browserVersion = browserVersion;
+		}
+
+		public Path getDriverPath() {
+			return driverPath;
+		}
+
+		public String getDriverVersion() {
+			return driverVersion;
+		}
+
+		public String getBrowserVersion() {
+			return browserVersion;
+		}
+
+		/**
+		 * Tells whether the driver can drive a Chrome version: the file exists and
+		 * the major versions are equal. An unknown Chrome version matches.
+		 *
+		 * @param installedVersion The installed Chrome version, or null if unknown.
+		 * @return true if the cached driver can be used.
+		 */
+		public boolean matches(String installedVersion) {
+			if (!Files.isRegularFile(driverPath)) {
+				return false;
+			}
+			return installedVersion == null || majorVersion(installedVersion).equals(majorVersion(driverVersion));
+		}
+
+		@Override
+		public String toString() {
+			return "driver " + driverVersion + " at " + driverPath + " for Chrome " + browserVersion;
+		}
+	}
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the DriverCache.
+	 *
+	 * @param file The cache file; its directory is created on the first write.
+	 */
+	public DriverCache(Path file) {
+		this.file = file;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Creates the cache named by the browser.driverCache property, or the
+	 * default ~/.cache/tabletest/chromedriver.properties.
+	 *
+	 * @param properties The properties to read, usually System.getProperties().
+	 * @return The driver cache.
+	 */
+	public static DriverCache fromProperties(Properties properties) {
+		String file = properties.getProperty("browser.driverCache");
+		if (file != null && !file.trim().isEmpty()) {
+			return new DriverCache(Paths.get(file.trim()));
+		}
+		return new DriverCache(Paths.get(System.getProperty("user.home"), ".cache", "tabletest", "chromedriver.properties"));
+	}
+
+	/**
+	 * Points ChromeDriver at a driver binary: an explicit webdriver.chrome.driver
+	 * property wins, then a cached driver matching the installed Chrome, then
+	 * one resolved by WebDriverManager, which is written to the cache.
+	 *
+	 * @throws RuntimeException If no driver can be found.
+	 */
+	public void resolve() {
+		if (System.getProperty(DRIVER_PROPERTY) != null) {
+			logger.info("Using the Chrome driver at {}", System.getProperty(DRIVER_PROPERTY));
+			return;
+		}
+		Entry cached = read();
+		String installedVersion = detectBrowserVersion();
+		if (cached != null && cached.matches(installedVersion)) {
+			logger.info("Using the cached {}", cached);
+			System.setProperty(DRIVER_PROPERTY, cached.getDriverPath().toString());
+			return;
+		}
+		logger.info("Resolving the Chrome driver for Chrome {}", installedVersion);
+		try {
+			WebDriverManager manager = WebDriverManager.chromedriver();
+			manager.setup();
+			write(new Entry(Paths.get(manager.getDownloadedDriverPath()), manager.getDownloadedDriverVersion(),
+					installedVersion));
+		} catch (RuntimeException e) {
+			// Try the cached driver of another version before giving up
+			if (cached == null || !Files.isRegularFile(cached.getDriverPath())) {
+				throw e;
+			}
+			logger.warn("Could not resolve the Chrome driver, trying the cached {}", cached, e);
+			System.setProperty(DRIVER_PROPERTY, cached.getDriverPath().toString());
+		}
+	}
+
+	/**
+	 * Reads the cache file.
+	 *
+	 * @return The cached driver, or null if the file is missing, unreadable or incomplete.
+	 */
+	public Entry read() {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(file)) {
+			properties.load(in);
+		} catch (IOException e) {
+			logger.warn("Ignoring unreadable driver cache {}", file, e);
+			return null;
+		}
+		String driverPath = properties.getProperty("driver.path");
+		String driverVersion = properties.getProperty("driver.version");
+		if (driverPath == null || driverVersion == null) {
+			return null;
+		}
+		return new Entry(Paths.get(driverPath), driverVersion, properties.getProperty("browser.version"));
+	}
+
+	/**
+	 * Writes the cache file, replacing the previous one in one step so a
+	 * concurrent run never reads a half-written file.
+	 *
+	 * @param entry The driver to remember.
+	 */
+	public void write(Entry entry) {
+		Properties properties = new Properties();
+		properties.setProperty("driver.path", entry.getDriverPath().toAbsolutePath().toString());
+		properties.setProperty("driver.version", entry.getDriverVersion());
+		if (entry.getBrowserVersion() != null) {
+			properties.setProperty("browser.version", entry.getBrowserVersion());
+		}
+		try {
+			Path directory = file.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			try (OutputStream out = Files.newOutputStream(temporary)) {
+				properties.store(out, "Chrome driver resolved by WebDriverManager");
+			}
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			// The driver still works for this run, only the next run resolves it again
+			logger.warn("Could not write the driver cache {}", file, e);
+		}
+	}
+
+	/**
+	 * Returns the cache file.
+	 *
+	 * @return The path of the cache file.
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Reads the version of the installed Chrome by running it with --version,
+	 * which is stopped if it does not finish within 10 seconds. On Windows,
+	 * where chrome.exe --version opens a browser window instead, the version is
+	 * read from the versioned folder next to chrome.exe. Only the local
+	 * installation is asked, never the network.
+	 *
+	 * @return The version, or null if Chrome was not found or did not report a version.
+	 */
+	public static String detectBrowserVersion() {
+		Optional<Path> browser;
+		try {
+			browser = WebDriverManager.chromedriver().getBrowserPath();
+		} catch (RuntimeException e) {
+			logger.debug("Could not locate Chrome", e);
+			return null;
+		}
+		if (!browser.isPresent()) {
+			return null;
+		}
+		try {
+			if (System.getProperty("os.name", "").toLowerCase().startsWith("windows")) {
+				return findInstalledVersion(browser.get().toAbsolutePath().getParent());
+			}
+			// Write the output to a file, so waiting for the process is bounded by the timeout and not by its output
+			Path output = Files.createTempFile("chrome-version", ".txt");
+			try {
+				Process process = new ProcessBuilder(browser.get().toString(), "--version").redirectErrorStream(true)
+						.redirectOutput(output.toFile()).start();
+				if (!process.waitFor(VERSION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+					logger.warn("{} --version did not finish within {} seconds", browser.get(), VERSION_TIMEOUT_SECONDS);
+					process.destroyForcibly();
+				}
+				// Use whatever it printed, even if it had to be stopped
+				return parseVersion(new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+			} finally {
+				Files.deleteIfExists(output);
+			}
+		} catch (IOException e) {
+			logger.debug("Could not run {} --version", browser.get(), e);
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * Finds the newest Chrome version in a Windows installation directory, which
+	 * keeps a folder named after each installed version next to chrome.exe.
+	 *
+	 * @param installDirectory The directory of chrome.exe.
+	 * @return The version, for example "122.0.6261.94", or null if there is no versioned folder.
+	 * @throws IOException If the directory cannot be listed.
+	 */
+	public static String findInstalledVersion(Path installDirectory) throws IOException {
+		if (installDirectory == null || !Files.isDirectory(installDirectory)) {
+			return null;
+		}
+		String newest = null;
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(installDirectory)) {
+			for (Path entry : entries) {
+				String name = entry.getFileName().toString();
+				if (Files.isDirectory(entry) && VERSION.matcher(name).matches()
+						&& (newest == null || compareVersions(name, newest) > 0)) {
+					newest = name;
+				}
+			}
+		}
+		return newest;
+	}
+
+	/**
+	 * Compares two versions part by part as numbers.
+	 *
+	 * @param first  A version such as "122.0.6261.94".
+	 * @param second Another version.
+	 * @return A negative number, zero or a positive number as first is older than, equal to or newer than second.
+	 */
+	private static int compareVersions(String first, String second) {
+		String[] firstParts = first.split("\\.");
+		String[] secondParts = second.split("\\.");
+		for (int i = 0; i < Math.max(firstParts.length, secondParts.length); i++) {
+			long a = i < firstParts.length ? Long.parseLong(firstParts[i]) : 0;
+			long b = i < secondParts.length ? Long.parseLong(secondParts[i]) : 0;
+			if (a != b) {
+				return Long.compare(a, b);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Finds a version number in the output of chrome --version.
+	 *
+	 * @param output The output, for example "Google Chrome 122.0.6261.94".
+	 * @return The version, for example "122.0.6261.94", or null if there is none.
+	 */
+	public static String parseVersion(String output) {
+		Matcher matcher = VERSION.matcher(output);
+		return matcher.find() ? matcher.group() : null;
+	}
+
+	/**
+	 * Returns the major part of a version.
+	 *
+	 * @param version The version, for example "122.0.6261.94".
+	 * @return The major version, for example "122".
+	 */
+	static String majorVersion(String version) {
+		int dot = version.indexOf('.');
+		return dot < 0 ? version.trim() : version.substring(0, dot).trim();
+	}
+}
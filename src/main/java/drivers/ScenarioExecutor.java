@@ -0,0 +1,133 @@
+package drivers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import pages.SearchPageFactory;
+
+/**
+ * Runs SearchPageFactory scenarios concurrently, giving each task its own
+ * pooled WebDriver session for the duration of the scenario.
+ */
+public class ScenarioExecutor implements AutoCloseable {
+	private static final Logger logger = LogManager.getLogger(ScenarioExecutor.class);
+	private final WebDriverPool pool;
+	private final ExecutorService executor;
+	private final long borrowTimeoutSeconds;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the ScenarioExecutor with one worker thread
+	 * per pooled session.
+	 *
+	 * @param pool                 The pool the scenarios borrow sessions from.
+	 * @param borrowTimeoutSeconds The maximum time a scenario waits for a session.
+	 */
+	public ScenarioExecutor(WebDriverPool pool, long borrowTimeoutSeconds) {
+		this.pool = pool;
+		this.executor = Executors.newFixedThreadPool(pool.getSize());
+		this.borrowTimeoutSeconds = borrowTimeoutSeconds;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Submits a scenario to run on the next free pooled session.
+	 *
+	 * @param scenario The scenario to run against a fresh SearchPageFactory.
+	 * @param <T>      The type of the scenario result.
+	 * @return A Future holding the scenario result or the exception it threw.
+	 */
+	public <T> Future<T> submit(Function<SearchPageFactory, T> scenario) {
+		return executor.submit(() -> runOnPooledSession(scenario));
+	}
+
+	/**
+	 * Runs every scenario concurrently and waits for all of them to finish.
+	 *
+	 * @param scenarios The scenarios to run.
+	 * @param <T>       The type of the scenario results.
+	 * @return The scenario results in the order the scenarios were given.
+	 * @throws IllegalStateException If a scenario failed or the wait was interrupted.
+	 */
+	public <T> List<T> runAll(List<Function<SearchPageFactory, T>> scenarios) {
+		List<Future<T>> futures = new ArrayList<>();
+		for (Function<SearchPageFactory, T> scenario : scenarios) {
+			futures.add(submit(scenario));
+		}
+		List<T> results = new ArrayList<>();
+		ExecutionException firstFailure = null;
+		for (Future<T> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Waiting for scenarios was interrupted", e);
+			} catch (ExecutionException e) {
+				// Keep waiting so every scenario finishes before reporting
+				logger.error("A scenario failed: ", e.getCause());
+				results.add(null);
+				if (firstFailure == null) {
+					firstFailure = e;
+				}
+			}
+		}
+		if (firstFailure != null) {
+			throw new IllegalStateException("At least one scenario failed", firstFailure.getCause());
+		}
+		return results;
+	}
+
+	/**
+	 * Stops accepting scenarios and waits for the running ones to finish.
+	 * The pool itself is left open. If the thread is interrupted while waiting,
+	 * the running scenarios are interrupted too and the thread's interrupt
+	 * status is kept.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Borrows a session, runs the scenario on it and gives the session back. A
+	 * session that threw a WebDriverException is discarded instead of reused.
+	 *
+	 * @param scenario The scenario to run.
+	 * @param <T>      The type of the scenario result.
+	 * @return The scenario result.
+	 * @throws InterruptedException If the thread is interrupted while waiting for a session.
+	 */
+	private <T> T runOnPooledSession(Function<SearchPageFactory, T> scenario) throws InterruptedException {
+		WebDriver driver = pool.borrow(borrowTimeoutSeconds, TimeUnit.SECONDS);
+		try {
+			T result = scenario.apply(new SearchPageFactory(driver));
+			pool.release(driver);
+			return result;
+		} catch (WebDriverException e) {
+			pool.invalidate(driver);
+			throw e;
+		} catch (RuntimeException | Error e) {
+			pool.release(driver);
+			throw e;
+		}
+	}
+}
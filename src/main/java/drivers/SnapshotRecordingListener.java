@@ -0,0 +1,177 @@
+package drivers;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import webutilities.SnapshotStore;
+
+/**
+ * Records every page a session lands on into a SnapshotStore, keyed by the
+ * page's path and query. A page that a get, click or submit leads to is
+ * recorded once a new document or URL has finished loading, which is checked
+ * after every later command, or at the latest when the next navigation leaves
+ * it. Under a lean page load strategy these commands return before the next
+ * page is there, so the page is not recorded right after them.
+ *
+ * The recorded body is the rendered DOM with its scripts removed and links to
+ * the recorded site made relative, so a replay is static and stays on the
+ * replay server.
+ */
+public class SnapshotRecordingListener implements WebDriverListener {
+	private static final Logger logger = LogManager.getLogger(SnapshotRecordingListener.class);
+	private static final String CONTENT_TYPE = "text/html; charset=utf-8";
+	// Serializes the rendered page without its scripts
+	private static final String CAPTURE_SCRIPT =
+			"var copy = document.documentElement.cloneNode(true);"
+			+ "var scripts = copy.getElementsByTagName('script');"
+			+ "while (scripts.length > 0) { scripts[0].parentNode.removeChild(scripts[0]); }"
+			+ "return '<!DOCTYPE html>' + copy.outerHTML;";
+	// Returns the time origin of the document, which is new for every document, its URL and its ready state
+	private static final String DOCUMENT_STATE_SCRIPT =
+			"return [String(performance.timeOrigin), window.location.href, document.readyState];";
+
+	private final WebDriver driver;
+	private final SnapshotStore store;
+	private final String origin;
+	// State of the page the last get, click or submit started from, until the page it leads to is recorded
+	private List<?> pendingFrom;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the SnapshotRecordingListener.
+	 *
+	 * @param driver  The undecorated session, used to capture pages without triggering the listener.
+	 * @param store   The store to record into.
+	 * @param baseUrl The base URL of the recorded site; only pages under it are recorded.
+	 */
+	public SnapshotRecordingListener(WebDriver driver, SnapshotStore store, String baseUrl) {
+		this.driver = driver;
+		this.store = store;
+		URI base = URI.create(baseUrl);
+		this.origin = base.getScheme() + "://" + base.getRawAuthority();
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Wraps a session so every page it lands on is recorded.
+	 *
+	 * @param driver  The session to record.
+	 * @param store   The store to record into.
+	 * @param baseUrl The base URL of the recorded site.
+	 * @return The decorated session, to be used in place of driver.
+	 */
+	public static WebDriver record(WebDriver driver, SnapshotStore store, String baseUrl) {
+		return new EventFiringDecorator<>(new SnapshotRecordingListener(driver, store, baseUrl)).decorate(driver);
+	}
+
+	@Override
+	public void beforeGet(WebDriver driver, String url) {
+		expectNewPage();
+	}
+
+	@Override
+	public void beforeClick(WebElement element) {
+		expectNewPage();
+	}
+
+	@Override
+	public void beforeSubmit(WebElement element) {
+		expectNewPage();
+	}
+
+	// Also runs after the get, click or submit itself
+	@Override
+	public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+		recordNewPage(false);
+	}
+
+	@Override
+	public void beforeQuit(WebDriver driver) {
+		recordNewPage(true);
+		pendingFrom = null;
+	}
+
+	/**
+	 * Records the page a previous command led to if it is about to be left, then
+	 * remembers the current page as the one the next page must differ from.
+	 */
+	private void expectNewPage() {
+		recordNewPage(true);
+		try {
+			pendingFrom = documentState();
+		} catch (WebDriverException e) {
+			logger.warn("Could not read the page before a navigation, its target is not recorded: ", e);
+			pendingFrom = null;
+		}
+	}
+
+	/**
+	 * Records the page the last get, click or submit led to, once it is a new
+	 * document or URL that has loaded. A page that is about to be left is
+	 * recorded as soon as it has been parsed.
+	 *
+	 * @param leaving true if the next navigation is about to leave the page.
+	 */
+	private void recordNewPage(boolean leaving) {
+		if (pendingFrom == null) {
+			return;
+		}
+		List<?> state;
+		try {
+			state = documentState();
+		} catch (WebDriverException e) {
+			// The page may be between documents, check again after the next command
+			logger.debug("Could not read the page state: {}", e.getMessage());
+			return;
+		}
+		boolean newPage = !state.get(0).equals(pendingFrom.get(0)) || !state.get(1).equals(pendingFrom.get(1));
+		Object readyState = state.get(2);
+		if (newPage && (leaving ? !"loading".equals(readyState) : "complete".equals(readyState))) {
+			pendingFrom = null;
+			capture();
+		}
+	}
+
+	/**
+	 * Reads the time origin, URL and ready state of the current document.
+	 *
+	 * @return The document state.
+	 */
+	private List<?> documentState() {
+		return (List<?>) ((JavascriptExecutor) driver).executeScript(DOCUMENT_STATE_SCRIPT);
+	}
+
+	/**
+	 * Records the current page if it belongs to the recorded site.
+	 */
+	private void capture() {
+		try {
+			String url = driver.getCurrentUrl();
+			if (!url.startsWith(origin)) {
+				return;
+			}
+			String html = (String) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+			// Make absolute links to the recorded site relative so they resolve against the replay server
+			html = html.replace(origin + "/", "/");
+			store.put(SnapshotStore.keyFor(url), CONTENT_TYPE, html.getBytes(StandardCharsets.UTF_8));
+			logger.debug("Recorded snapshot of {}", url);
+		} catch (IOException | WebDriverException e) {
+			// A failed recording must not fail the run
+			logger.warn("Could not record a snapshot: ", e);
+		}
+	}
+}
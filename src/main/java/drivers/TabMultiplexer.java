@@ -0,0 +1,356 @@
+package drivers;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+/**
+ * Hands out sessions that are tabs of shared browsers instead of browsers of
+ * their own, so several scenarios run in one browser process. Each tab session
+ * is a WebDriver that switches the browser to its tab before every command and
+ * holds the browser for the length of that command only, so a scenario that is
+ * sleeping or polling between commands lets the other tabs work. Commands of
+ * the tabs of one browser still run one at a time.
+ *
+ * A command that waits inside the browser holds it for the whole wait: an
+ * implicit wait in findElement, an async script, and a page load under the
+ * NORMAL or EAGER page load strategy. So page loads of the tabs of one browser
+ * overlap only if the browser runs with PageLoadStrategy.NONE. Then a
+ * navigation command returns as soon as it is sent, and the tab polls
+ * document.readyState in short commands until the new document is interactive,
+ * letting the other tabs work in between.
+ *
+ * Tabs of one browser share cookies, storage and the cart, so they suit
+ * scenarios that do not depend on session state, such as search audits. A tab
+ * session must stay in its own tab: frames and other windows are not tracked.
+ * Quitting a tab session closes its tab; the browser is quit with its last tab.
+ */
+public class TabMultiplexer implements Supplier<WebDriver>, AutoCloseable {
+	private static final Logger logger = LogManager.getLogger(TabMultiplexer.class);
+	// Time between the document readiness checks of a tab that is loading a page
+	private static final long READY_POLL_INTERVAL_MILLIS = 50;
+
+	// Returns what tells a new document from the old one, and how far it has loaded
+	private static final String READY_STATE_SCRIPT =
+			"return [String(performance.timeOrigin), location.href, document.readyState];";
+
+	private final Supplier<WebDriver> browserFactory;
+	private final int tabsPerBrowser;
+	private final Consumer<WebDriver> tabSetup;
+	// Live browsers, guarded by 'this'
+	private final List<Browser> browsers = new ArrayList<>();
+
+	/**
+	 * One browser process and the tabs open in it. The lock is held while a tab
+	 * sends a command; currentHandle is only read and written under it.
+	 */
+	private static final class Browser {
+		private final WebDriver driver;
+		private final ReentrantLock lock = new ReentrantLock();
+		// The window the browser started with, handed to the first tab
+		private String unusedFirstHandle;
+		private String currentHandle;
+		// Number of open tabs, guarded by the TabMultiplexer
+		private int openTabs = 0;
+		// Whether navigation commands return without waiting for the page, and how long a page may take
+		private final boolean loadsWithoutWaiting;
+		private final Duration pageLoadTimeout;
+
+		private Browser(WebDriver driver) {
+			this.driver = driver;
+			this.unusedFirstHandle = driver.getWindowHandle();
+			this.currentHandle = unusedFirstHandle;
+			this.loadsWithoutWaiting = driver instanceof HasCapabilities && driver instanceof JavascriptExecutor
+					&& PageLoadStrategy.NONE.toString().equals(String.valueOf(
+							((HasCapabilities) driver).getCapabilities().getCapability(CapabilityType.PAGE_LOAD_STRATEGY)));
+			this.pageLoadTimeout = loadsWithoutWaiting ? driver.manage().timeouts().getPageLoadTimeout() : null;
+		}
+
+		/**
+		 * Switches the browser to a tab unless it is already there. Call with the lock held.
+		 *
+		 * @param handle The window handle of the tab.
+		 */
+		private void switchTo(String handle) {
+			if (!handle.equals(currentHandle)) {
+				// Forget the current tab first, so a failed switch is retried on the next command
+				currentHandle = null;
+				driver.switchTo().window(handle);
+				currentHandle = handle;
+			}
+		}
+	}
+
+	/**
+	 * Routes the commands of one tab session to its tab.
+	 */
+	private final class TabDecorator extends WebDriverDecorator<WebDriver> {
+		private final Browser browser;
+		private final String handle;
+
+		private TabDecorator(Browser browser, String handle) {
+			this.browser = browser;
+			this.handle = handle;
+		}
+
+		@Override
+		public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+			// Object methods such as equals and hashCode never reach the browser
+			if (method.getDeclaringClass() == Object.class) {
+				return super.call(target, method, args);
+			}
+			// Quitting or closing the session closes only its tab
+			if (target.getOriginal() == browser.driver
+					&& (method.getName().equals("quit") || method.getName().equals("close"))) {
+				closeTab(browser, handle);
+				return null;
+			}
+			if (browser.loadsWithoutWaiting && isNavigation(method)) {
+				return navigate(target, method, args);
+			}
+			browser.lock.lock();
+			try {
+				browser.switchTo(handle);
+				return super.call(target, method, args);
+			} finally {
+				browser.lock.unlock();
+			}
+		}
+
+		/**
+		 * Sends a navigation command, then waits for the new document outside the
+		 * browser lock, checking its readiness in short commands.
+		 *
+		 * @param target The decorated WebDriver or Navigation.
+		 * @param method The navigation method.
+		 * @param args   The arguments of the method.
+		 * @return The result of the navigation command.
+		 * @throws Throwable If the command fails, or TimeoutException if the page does not load in time.
+		 */
+		private Object navigate(Decorated<?> target, Method method, Object[] args) throws Throwable {
+			Object result;
+			List<?> before = null;
+			browser.lock.lock();
+			try {
+				browser.switchTo(handle);
+				try {
+					before = readyState();
+				} catch (NoSuchSessionException | NoSuchWindowException e) {
+					throw e;
+				} catch (WebDriverException e) {
+					// The current document is not scriptable, so any parsed document counts as the new one
+				}
+				result = super.call(target, method, args);
+			} finally {
+				browser.lock.unlock();
+			}
+			long deadline = System.nanoTime() + browser.pageLoadTimeout.toNanos();
+			WebDriverException lastError = null;
+			while (true) {
+				try {
+					Thread.sleep(READY_POLL_INTERVAL_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new WebDriverException("Interrupted while waiting for the page to load", e);
+				}
+				browser.lock.lock();
+				try {
+					browser.switchTo(handle);
+					List<?> now = readyState();
+					// A new document, or a new URL for a navigation within the document, that has been parsed
+					boolean arrived = before == null || !now.get(0).equals(before.get(0)) || !now.get(1).equals(before.get(1));
+					if (arrived && !"loading".equals(now.get(2))) {
+						return result;
+					}
+				} catch (NoSuchSessionException | NoSuchWindowException e) {
+					throw e;
+				} catch (WebDriverException e) {
+					// The document can be between unloading and loading
+					lastError = e;
+				} finally {
+					browser.lock.unlock();
+				}
+				if (System.nanoTime() - deadline >= 0) {
+					throw new TimeoutException("The page did not load within " + browser.pageLoadTimeout, lastError);
+				}
+			}
+		}
+
+		/**
+		 * Reads the time origin, URL and ready state of the tab's document. Call with the lock held.
+		 *
+		 * @return The three values as strings.
+		 */
+		private List<?> readyState() {
+			return (List<?>) ((JavascriptExecutor) browser.driver).executeScript(READY_STATE_SCRIPT);
+		}
+	}
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the TabMultiplexer.
+	 *
+	 * @param browserFactory Starts a new, ready to use browser, such as a ChromeSessionFactory.
+	 * @param tabsPerBrowser The number of tabs opened in a browser before the next browser is started.
+	 * @throws IllegalArgumentException If tabsPerBrowser is less than 1.
+	 */
+	public TabMultiplexer(Supplier<WebDriver> browserFactory, int tabsPerBrowser) {
+		this(browserFactory, tabsPerBrowser, driver -> {
+		});
+	}
+
+	/**
+	 * Initializes a new instance of the TabMultiplexer that prepares each tab it
+	 * opens, for settings the browser applies per tab.
+	 *
+	 * @param browserFactory Starts a new, ready to use browser, such as a ChromeSessionFactory.
+	 * @param tabsPerBrowser The number of tabs opened in a browser before the next browser is started.
+	 * @param tabSetup       Prepares a newly opened tab, which is the browser's current window when it runs.
+	 * @throws IllegalArgumentException If tabsPerBrowser is less than 1.
+	 */
+	public TabMultiplexer(Supplier<WebDriver> browserFactory, int tabsPerBrowser, Consumer<WebDriver> tabSetup) {
+		if (tabsPerBrowser < 1) {
+			throw new IllegalArgumentException("A browser must have room for at least 1 tab");
+		}
+		this.browserFactory = browserFactory;
+		this.tabsPerBrowser = tabsPerBrowser;
+		this.tabSetup = tabSetup;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Opens a tab session in a browser that has room for another tab, starting a
+	 * new browser when every live browser is full.
+	 *
+	 * @return The new tab session.
+	 */
+	@Override
+	public synchronized WebDriver get() {
+		Browser browser = null;
+		for (Browser candidate : browsers) {
+			if (candidate.openTabs < tabsPerBrowser) {
+				browser = candidate;
+				break;
+			}
+		}
+		if (browser == null) {
+			browser = new Browser(browserFactory.get());
+			browsers.add(browser);
+			logger.info("Started browser {} for up to {} tabs", browsers.size(), tabsPerBrowser);
+		}
+		String handle;
+		browser.lock.lock();
+		try {
+			if (browser.unusedFirstHandle != null) {
+				// The first tab uses the window the browser started with
+				handle = browser.unusedFirstHandle;
+				browser.unusedFirstHandle = null;
+			} else {
+				browser.currentHandle = null;
+				handle = browser.driver.switchTo().newWindow(WindowType.TAB).getWindowHandle();
+				browser.currentHandle = handle;
+				// The browser factory prepared the first tab only
+				tabSetup.accept(browser.driver);
+			}
+		} finally {
+			browser.lock.unlock();
+		}
+		browser.openTabs++;
+		return new TabDecorator(browser, handle).decorate(browser.driver);
+	}
+
+	/**
+	 * Tells whether a method loads a page, and so waits for it under the NORMAL
+	 * and EAGER page load strategies.
+	 *
+	 * @param method The called method.
+	 * @return true for WebDriver.get and the Navigation methods.
+	 */
+	private static boolean isNavigation(Method method) {
+		return (method.getDeclaringClass() == WebDriver.class && method.getName().equals("get"))
+				|| method.getDeclaringClass() == WebDriver.Navigation.class;
+	}
+
+	/**
+	 * Returns the number of live browsers.
+	 *
+	 * @return The browser count.
+	 */
+	public synchronized int getBrowserCount() {
+		return browsers.size();
+	}
+
+	/**
+	 * Closes a tab, or quits its browser if it is the last open tab.
+	 *
+	 * @param browser The browser of the tab.
+	 * @param handle  The window handle of the tab.
+	 */
+	private synchronized void closeTab(Browser browser, String handle) {
+		if (!browsers.contains(browser)) {
+			// The browser was already quit, for example by close()
+			return;
+		}
+		browser.openTabs--;
+		if (browser.openTabs == 0) {
+			browsers.remove(browser);
+			quit(browser);
+			return;
+		}
+		browser.lock.lock();
+		try {
+			browser.switchTo(handle);
+			browser.driver.close();
+			browser.currentHandle = null;
+		} catch (WebDriverException e) {
+			logger.warn("Could not close tab {}", handle, e);
+		} finally {
+			browser.lock.unlock();
+		}
+	}
+
+	/**
+	 * Quits a browser, logging instead of throwing if it is already gone.
+	 *
+	 * @param browser The browser to quit.
+	 */
+	private static void quit(Browser browser) {
+		try {
+			browser.driver.quit();
+		} catch (WebDriverException e) {
+			logger.warn("Could not quit browser", e);
+		}
+	}
+
+	/**
+	 * Quits every live browser and the tabs open in them.
+	 */
+	@Override
+	public synchronized void close() {
+		for (Browser browser : browsers) {
+			quit(browser);
+		}
+		browsers.clear();
+	}
+}
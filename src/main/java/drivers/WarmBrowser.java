@@ -0,0 +1,96 @@
+package drivers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+/**
+ * Keeps a Chrome process running with remote debugging enabled, so later test
+ * runs attach to it with -Dbrowser.debuggerAddress instead of paying for a
+ * cold browser start. Run it from its own terminal; it stays up until it is
+ * stopped.
+ */
+public class WarmBrowser {
+	private static final Logger logger = LogManager.getLogger(WarmBrowser.class);
+	// How long a connection attempt to the debugger address may take
+	private static final int CONNECT_TIMEOUT_MS = 500;
+
+// Methods*****************************************************************
+
+	/**
+	 * Starts the warm browser. Reads browser.debuggerPort (default 9222),
+	 * browser.userDataDir (default warm-browser) and browser.headless
+	 * (default true) from the system properties.
+	 *
+	 * @param args Not used.
+	 * @throws Exception If the browser cannot be started.
+	 */
+	public static void main(String[] args) throws Exception {
+		int port = Integer.getInteger("browser.debuggerPort", 9222);
+		Path userDataDir = Paths.get(System.getProperty("browser.userDataDir", "warm-browser"));
+		boolean headless = Boolean.parseBoolean(System.getProperty("browser.headless", "true"));
+		Optional<Path> chrome = WebDriverManager.chromedriver().getBrowserPath();
+		if (!chrome.isPresent()) {
+			throw new IllegalStateException("Chrome is not installed");
+		}
+		Process process = launch(chrome.get(), port, userDataDir, headless);
+		Runtime.getRuntime().addShutdownHook(new Thread(process::destroy));
+		logger.info("Warm browser listening on localhost:{}, attach with -Dbrowser.debuggerAddress=localhost:{}", port, port);
+		int exitCode = process.waitFor();
+		logger.info("Warm browser exited with code {}", exitCode);
+	}
+
+	/**
+	 * Launches Chrome with remote debugging on a port.
+	 *
+	 * @param chrome      The Chrome binary.
+	 * @param port        The remote debugging port.
+	 * @param userDataDir The user data directory, reused between launches.
+	 * @param headless    true to run without a window.
+	 * @return The browser process.
+	 * @throws IOException If the process cannot be started.
+	 */
+	public static Process launch(Path chrome, int port, Path userDataDir, boolean headless) throws IOException {
+		List<String> command = new ArrayList<>();
+		command.add(chrome.toString());
+		command.add("--remote-debugging-port=" + port);
+		command.add("--user-data-dir=" + userDataDir.toAbsolutePath());
+		command.add("--no-first-run");
+		command.add("--no-default-browser-check");
+		if (headless) {
+			command.add("--headless=new");
+			command.add("--window-size=1920,1080");
+		}
+		return new ProcessBuilder(command).inheritIO().start();
+	}
+
+	/**
+	 * Tells whether something listens on a debugger address.
+	 *
+	 * @param debuggerAddress The host:port to try.
+	 * @return true if a connection could be opened.
+	 */
+	public static boolean isReachable(String debuggerAddress) {
+		int colon = debuggerAddress.lastIndexOf(':');
+		if (colon < 0) {
+			return false;
+		}
+		try (Socket socket = new Socket()) {
+			socket.connect(new InetSocketAddress(debuggerAddress.substring(0, colon),
+					Integer.parseInt(debuggerAddress.substring(colon + 1))), CONNECT_TIMEOUT_MS);
+			return true;
+		} catch (IOException | NumberFormatException e) {
+			return false;
+		}
+	}
+}
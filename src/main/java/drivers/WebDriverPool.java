@@ -0,0 +1,324 @@
+package drivers;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * A fixed-size pool of reusable WebDriver sessions. Sessions are created on
+ * demand or up front with warmUp(), health-checked when they are borrowed, and
+ * recycled after a configured number of uses. An optional reset, such as
+ * clearBrowserState, runs on every released session so the next borrower
+ * does not see the previous one's cookies or cart.
+ */
+public class WebDriverPool implements AutoCloseable {
+	private static final Logger logger = LogManager.getLogger(WebDriverPool.class);
+	// How often a waiting borrower looks for a slot freed by a quit session
+	private static final long SLOT_CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+	private final Supplier<WebDriver> sessionFactory;
+	private final int size;
+	private final int maxUsesPerSession;
+	private final Consumer<WebDriver> sessionReset;
+	private final LinkedBlockingDeque<WebDriver> idleSessions = new LinkedBlockingDeque<>();
+	// Number of uses per live session, guarded by 'this'
+	private final Map<WebDriver, Integer> sessionUses = new IdentityHashMap<>();
+	// Number of sessions currently starting, guarded by 'this'
+	private int startingSessions = 0;
+	private boolean closed = false;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the WebDriverPool.
+	 *
+	 * @param sessionFactory    Creates a new, ready to use browser session.
+	 * @param size              The maximum number of live sessions.
+	 * @param maxUsesPerSession The number of borrows after which a session is quit and replaced.
+	 * @throws IllegalArgumentException If size or maxUsesPerSession is less than 1.
+	 */
+	public WebDriverPool(Supplier<WebDriver> sessionFactory, int size, int maxUsesPerSession) {
+		this(sessionFactory, size, maxUsesPerSession, driver -> {
+		});
+	}
+
+	/**
+	 * Initializes a new instance of the WebDriverPool that resets each session
+	 * before it is handed to the next borrower.
+	 *
+	 * @param sessionFactory    Creates a new, ready to use browser session.
+	 * @param size              The maximum number of live sessions.
+	 * @param maxUsesPerSession The number of borrows after which a session is quit and replaced.
+	 * @param sessionReset      Clears the state a borrower left in a released session.
+	 * @throws IllegalArgumentException If size or maxUsesPerSession is less than 1.
+	 */
+	public WebDriverPool(Supplier<WebDriver> sessionFactory, int size, int maxUsesPerSession,
+			Consumer<WebDriver> sessionReset) {
+		if (size < 1 || maxUsesPerSession < 1) {
+			throw new IllegalArgumentException("Pool size and uses per session must be at least 1");
+		}
+		this.sessionFactory = sessionFactory;
+		this.size = size;
+		this.maxUsesPerSession = maxUsesPerSession;
+		this.sessionReset = sessionReset;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Starts sessions in parallel until the pool is full, so the first borrowers
+	 * do not pay the browser startup cost. If any session fails to start, the
+	 * sessions that did start are quit before the failure is thrown.
+	 *
+	 * @throws IllegalStateException If a session cannot be started or warm-up is interrupted.
+	 */
+	public void warmUp() {
+		int missing;
+		synchronized (this) {
+			missing = size - sessionUses.size() - startingSessions;
+		}
+		if (missing <= 0) {
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(missing);
+		try {
+			// Start the missing sessions at the same time
+			List<Future<WebDriver>> starts = new ArrayList<>();
+			for (int i = 0; i < missing; i++) {
+				starts.add(executor.submit(this::createSession));
+			}
+			// Wait for every start, so a failed one does not strand the sessions that did start
+			List<WebDriver> started = new ArrayList<>();
+			Throwable failure = null;
+			for (Future<WebDriver> start : starts) {
+				try {
+					WebDriver driver = start.get();
+					if (driver != null) {
+						started.add(driver);
+					}
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = e.getCause();
+					} else {
+						failure.addSuppressed(e.getCause());
+					}
+				}
+			}
+			if (failure != null) {
+				// Quit the started sessions and free their slots
+				for (WebDriver driver : started) {
+					invalidate(driver);
+				}
+				throw new IllegalStateException("A session failed to start during warm-up", failure);
+			}
+			for (WebDriver driver : started) {
+				idleSessions.offerLast(driver);
+			}
+			logger.info("Warmed up {} WebDriver sessions", missing);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Pool warm-up was interrupted", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Borrows a healthy session, starting one if the pool is not full or waiting
+	 * for a session to be released otherwise.
+	 *
+	 * @param timeout The maximum time to wait for a session.
+	 * @param unit    The unit of the timeout.
+	 * @return A session that must be given back with release() or invalidate().
+	 * @throws InterruptedException  If the thread is interrupted while waiting.
+	 * @throws IllegalStateException If the pool is closed or no session becomes available in time.
+	 */
+	public WebDriver borrow(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (true) {
+			// Prefer the most recently used idle session, its browser is warmest
+			WebDriver driver = idleSessions.pollFirst();
+			if (driver == null) {
+				driver = createSession();
+			}
+			if (driver == null) {
+				// The pool is full, wait for a session to be released
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					throw new IllegalStateException("No WebDriver session became available within " + timeout + " " + unit);
+				}
+				// Wait in short slices, since a quit or invalidated session frees a slot without releasing anything
+				driver = idleSessions.pollFirst(Math.min(remaining, SLOT_CHECK_INTERVAL_NANOS), TimeUnit.NANOSECONDS);
+				if (driver == null) {
+					continue;
+				}
+			}
+			if (isHealthy(driver)) {
+				return driver;
+			}
+			// Replace the broken session and try again
+			logger.warn("Discarding unhealthy WebDriver session");
+			invalidate(driver);
+		}
+	}
+
+	/**
+	 * Deletes the cookies and the web storage of the current origin, which is
+	 * where the site keeps the cart. For use as the session reset.
+	 *
+	 * @param driver The session to clear.
+	 */
+	public static void clearBrowserState(WebDriver driver) {
+		driver.manage().deleteAllCookies();
+		// Storage is only reachable on a web page, not on about:blank or data: URLs
+		((JavascriptExecutor) driver).executeScript(
+				"try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+	}
+
+	/**
+	 * Gives a borrowed session back to the pool. The session is reset, or quit
+	 * instead if it has reached its maximum number of uses or cannot be reset.
+	 *
+	 * @param driver The borrowed session.
+	 */
+	public void release(WebDriver driver) {
+		boolean recycle;
+		synchronized (this) {
+			Integer uses = sessionUses.get(driver);
+			if (uses == null) {
+				// Not one of ours, or already invalidated
+				return;
+			}
+			recycle = closed || uses + 1 >= maxUsesPerSession;
+			if (recycle) {
+				sessionUses.remove(driver);
+			} else {
+				sessionUses.put(driver, uses + 1);
+			}
+		}
+		if (recycle) {
+			quitQuietly(driver);
+			return;
+		}
+		try {
+			sessionReset.accept(driver);
+		} catch (WebDriverException e) {
+			// A session in an unknown state must not reach the next borrower
+			logger.warn("Discarding WebDriver session that could not be reset", e);
+			invalidate(driver);
+			return;
+		}
+		idleSessions.offerFirst(driver);
+	}
+
+	/**
+	 * Removes a borrowed session from the pool and quits it, for example after a
+	 * WebDriverException left it in an unknown state.
+	 *
+	 * @param driver The borrowed session.
+	 */
+	public void invalidate(WebDriver driver) {
+		synchronized (this) {
+			sessionUses.remove(driver);
+		}
+		quitQuietly(driver);
+	}
+
+	/**
+	 * Returns the maximum number of live sessions.
+	 *
+	 * @return The pool size.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Quits every idle session and stops the pool from creating new ones.
+	 * Borrowed sessions are quit when they are released.
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			closed = true;
+		}
+		WebDriver driver;
+		while ((driver = idleSessions.pollFirst()) != null) {
+			invalidate(driver);
+		}
+	}
+
+	/**
+	 * Starts a new session if the pool has room for one.
+	 *
+	 * @return The new session, or null if the pool is full.
+	 * @throws IllegalStateException If the pool is closed.
+	 */
+	private WebDriver createSession() {
+		synchronized (this) {
+			if (closed) {
+				throw new IllegalStateException("The WebDriver pool is closed");
+			}
+			if (sessionUses.size() + startingSessions >= size) {
+				return null;
+			}
+			// Reserve the slot before the slow browser start
+			startingSessions++;
+		}
+		WebDriver driver = null;
+		try {
+			driver = sessionFactory.get();
+			return driver;
+		} finally {
+			synchronized (this) {
+				startingSessions--;
+				if (driver != null) {
+					sessionUses.put(driver, 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks that a session still answers commands.
+	 *
+	 * @param driver The session to check.
+	 * @return true if the browser responded.
+	 */
+	private boolean isHealthy(WebDriver driver) {
+		try {
+			driver.getWindowHandle();
+			return true;
+		} catch (WebDriverException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Quits a session, logging rather than throwing if the browser is already gone.
+	 *
+	 * @param driver The session to quit.
+	 */
+	private void quitQuietly(WebDriver driver) {
+		try {
+			driver.quit();
+		} catch (WebDriverException e) {
+			// Log the exception
+			logger.warn("An error occurred while quitting a WebDriver session: ", e);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package harness;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import drivers.WebDriverPool;
+import pages.AuditIndex;
+import pages.KeywordViolation;
+import pages.SearchPageFactory;
+import webutilities.LatencyRecorder;
+import webutilities.PageMetricsRecorder;
+import webutilities.UrlUtilities;
+
+/**
+ * Checks queries in the browser: each check borrows a pooled session, opens the
+ * query's search results and audits the titles of every result page with
+ * SearchPageFactory. With an AuditIndex, only the pages that changed since
+ * the last run are re-checked.
+ */
+public class BrowserQueryCheck implements QueryCheck {
+	private final WebDriverPool pool;
+	private final String baseUrl;
+	private final int maxViolations;
+	private final LatencyRecorder pageLatency;
+	private final long borrowTimeoutSeconds;
+	private final AuditIndex auditIndex;
+	private final PageMetricsRecorder pageMetrics;
+	private UrlUtilities urlUtilities = new UrlUtilities();
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the BrowserQueryCheck.
+	 *
+	 * @param pool                 The pool the checks borrow sessions from.
+	 * @param baseUrl              The base URL of the site or of a local stand-in, ending with '/'.
+	 * @param maxViolations        The number of violations after which a query stops crawling pages.
+	 * @param pageLatency          The recorder the page-object method latencies are recorded into.
+	 * @param borrowTimeoutSeconds The maximum time a check waits for a session.
+	 */
+	public BrowserQueryCheck(WebDriverPool pool, String baseUrl, int maxViolations, LatencyRecorder pageLatency,
+			long borrowTimeoutSeconds) {
+		this(pool, baseUrl, maxViolations, pageLatency, borrowTimeoutSeconds, null);
+	}
+
+	/**
+	 * Initializes a new instance of the BrowserQueryCheck that audits incrementally.
+	 * Incremental audits check every page, so maxViolations only limits the
+	 * violations returned, not the pages crawled.
+	 *
+	 * @param pool                 The pool the checks borrow sessions from.
+	 * @param baseUrl              The base URL of the site or of a local stand-in, ending with '/'.
+	 * @param maxViolations        The maximum number of violations returned per query.
+	 * @param pageLatency          The recorder the page-object method latencies are recorded into.
+	 * @param borrowTimeoutSeconds The maximum time a check waits for a session.
+	 * @param auditIndex           The index of the previous runs, or null to check every page.
+	 */
+	public BrowserQueryCheck(WebDriverPool pool, String baseUrl, int maxViolations, LatencyRecorder pageLatency,
+			long borrowTimeoutSeconds, AuditIndex auditIndex) {
+		this(pool, baseUrl, maxViolations, pageLatency, borrowTimeoutSeconds, auditIndex, PageMetricsRecorder.DISABLED);
+	}
+
+	/**
+	 * Initializes a new instance of the BrowserQueryCheck that also records the
+	 * browser's page timings of every result page it moves to.
+	 *
+	 * @param pool                 The pool the checks borrow sessions from.
+	 * @param baseUrl              The base URL of the site or of a local stand-in, ending with '/'.
+	 * @param maxViolations        The maximum number of violations returned per query.
+	 * @param pageLatency          The recorder the page-object method latencies are recorded into.
+	 * @param borrowTimeoutSeconds The maximum time a check waits for a session.
+	 * @param auditIndex           The index of the previous runs, or null to check every page.
+	 * @param pageMetrics          The recorder the page timings are recorded into; DISABLED reads none.
+	 */
+	public BrowserQueryCheck(WebDriverPool pool, String baseUrl, int maxViolations, LatencyRecorder pageLatency,
+			long borrowTimeoutSeconds, AuditIndex auditIndex, PageMetricsRecorder pageMetrics) {
+		this.pool = pool;
+		this.baseUrl = baseUrl;
+		this.maxViolations = maxViolations;
+		this.pageLatency = pageLatency;
+		this.borrowTimeoutSeconds = borrowTimeoutSeconds;
+		this.auditIndex = auditIndex;
+		this.pageMetrics = pageMetrics;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Opens the query's first result page directly and audits every result page.
+	 * A session that threw a WebDriverException is discarded instead of reused.
+	 *
+	 * @param query The query to run.
+	 * @return Up to maxViolations titles violating the query's rules.
+	 * @throws InterruptedException If the thread is interrupted while waiting for a session.
+	 * @throws IOException          If the audit index cannot be read or written.
+	 */
+	@Override
+	public List<KeywordViolation> check(SearchQuery query) throws InterruptedException, IOException {
+		WebDriver driver = pool.borrow(borrowTimeoutSeconds, TimeUnit.SECONDS);
+		try {
+			// Open the search results in one navigation instead of typing into the search box
+			driver.get(urlUtilities.getSearchUrl(baseUrl, query.getQuery()));
+			SearchPageFactory searchPage = new SearchPageFactory(driver, pageLatency, false, pageMetrics);
+			searchPage.capturePageTimings("openSearchResults");
+			List<KeywordViolation> violations = new ArrayList<>();
+			if (auditIndex == null) {
+				searchPage.auditTitles(query.getRules(), violations::add, maxViolations);
+			} else {
+				// Crawl every page to keep the index complete, but keep only maxViolations
+				AuditIndex.QueryIndex index = auditIndex.load(query.getQuery(), query.getRules());
+				searchPage.auditTitlesIncrementally(index,
+						violation -> violations.size() >= maxViolations || violations.add(violation));
+				auditIndex.save(index);
+			}
+			pool.release(driver);
+			return violations;
+		} catch (WebDriverException e) {
+			pool.invalidate(driver);
+			throw e;
+		} catch (RuntimeException | Error | IOException e) {
+			pool.release(driver);
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package harness;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+
+import drivers.BrowserProfile;
+import drivers.ChromeSessionFactory;
+import drivers.TabMultiplexer;
+import drivers.WebDriverPool;
+import pages.AuditIndex;
+import pages.KeywordViolation;
+import webutilities.LatencyRecorder;
+import webutilities.PageMetricsRecorder;
+import webutilities.SnapshotReplayServer;
+import webutilities.SnapshotStore;
+
+/**
+ * Runs many search queries at a controlled load and reports throughput,
+ * latency and failures.
+ *
+ * At most 'concurrency' queries run at once, and queries start no faster than
+ * the RateLimiter allows. The "query" histogram records how long each check
+ * took and "scheduleLag" how late it started against the rate schedule, which
+ * grows when the concurrency cannot sustain the target rate.
+ */
+public class LoadHarness implements AutoCloseable {
+	private static final Logger logger = LogManager.getLogger(LoadHarness.class);
+	private final int concurrency;
+	private final RateLimiter rateLimiter;
+	private final ExecutorService executor;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the LoadHarness.
+	 *
+	 * @param concurrency The maximum number of queries running at once.
+	 * @param rateLimiter Paces the start of the queries.
+	 * @throws IllegalArgumentException If concurrency is less than 1.
+	 */
+	public LoadHarness(int concurrency, RateLimiter rateLimiter) {
+		if (concurrency < 1) {
+			throw new IllegalArgumentException("Concurrency must be at least 1");
+		}
+		this.concurrency = concurrency;
+		this.rateLimiter = rateLimiter;
+		this.executor = Executors.newFixedThreadPool(concurrency);
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Runs every query and waits for all of them to finish. A query that throws
+	 * is reported as an error; it does not stop the run.
+	 *
+	 * @param queries The queries to run.
+	 * @param check   Runs one query and checks its titles.
+	 * @return The report of the run.
+	 * @throws InterruptedException If the thread is interrupted while pacing or waiting.
+	 */
+	public LoadReport run(List<SearchQuery> queries, QueryCheck check) throws InterruptedException {
+		LatencyRecorder latency = new LatencyRecorder();
+		// Bounds the queries in flight, so a slow target does not queue up the whole file
+		Semaphore slots = new Semaphore(concurrency);
+		List<Future<QueryResult>> futures = new ArrayList<>();
+		long start = System.nanoTime();
+		for (SearchQuery query : queries) {
+			long scheduled = rateLimiter.acquire();
+			slots.acquire();
+			futures.add(executor.submit(() -> {
+				try {
+					latency.record("scheduleLag", scheduled);
+					return runQuery(query, check, latency);
+				} finally {
+					slots.release();
+				}
+			}));
+		}
+		List<QueryResult> results = new ArrayList<>();
+		for (Future<QueryResult> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (ExecutionException e) {
+				// runQuery catches everything a check throws, so this is a harness bug
+				throw new IllegalStateException("A query could not be run", e.getCause());
+			}
+		}
+		LoadReport report = new LoadReport(results, System.nanoTime() - start, latency);
+		logger.info("Load run -> {}", report);
+		return report;
+	}
+
+	/**
+	 * Stops the worker threads.
+	 */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Runs one query, timing it and turning an exception into an error result.
+	 *
+	 * @param query   The query.
+	 * @param check   Runs the query.
+	 * @param latency The recorder the query latency is recorded into.
+	 * @return The result of the query.
+	 */
+	private static QueryResult runQuery(SearchQuery query, QueryCheck check, LatencyRecorder latency) {
+		long queryStart = System.nanoTime();
+		List<KeywordViolation> violations = null;
+		Throwable error = null;
+		try {
+			violations = check.check(query);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			error = e;
+		} catch (Exception e) {
+			error = e;
+		}
+		long duration = System.nanoTime() - queryStart;
+		latency.record("query", queryStart);
+		if (error != null) {
+			logger.error("Query '{}' failed: ", query, error);
+		} else if (!violations.isEmpty()) {
+			logger.info("Query '{}' -> {} titles violate the rules", query, violations.size());
+		}
+		return new QueryResult(query, duration, violations, error);
+	}
+
+	/**
+	 * Runs the queries of a file in Chrome sessions and writes the report as JSON.
+	 * Settings are read from system properties:
+	 * harness.queries (required, .csv or .jsonl),
+	 * harness.baseUrl (default https://www.webstaurantstore.com/),
+	 * harness.replayDir (a snapshot store to serve from a local stand-in server instead),
+	 * harness.concurrency (default 2), harness.rate (queries per second, default unlimited),
+	 * harness.rampUp (seconds, default 0), harness.maxViolations (per query, default 50),
+	 * harness.indexDir (an AuditIndex directory, to re-check only changed pages),
+	 * harness.tabsPerBrowser (queries sharing one browser as tabs, default 1; more than
+	 * 1 loads pages with PageLoadStrategy.NONE unless browser.pageLoadStrategy is set)
+	 * and harness.report (default logs/harness_&lt;timestamp&gt;.json).
+	 * The browser.* properties select the BrowserProfile, and page.metrics=false
+	 * skips reading the browser's page timings.
+	 *
+	 * @param args Not used.
+	 * @throws Exception If the queries cannot be read or the run fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		String queryFile = System.getProperty("harness.queries");
+		if (queryFile == null) {
+			throw new IllegalArgumentException("Set -Dharness.queries to a .csv or .jsonl query file");
+		}
+		List<SearchQuery> queries = new QueryFileReader().read(Paths.get(queryFile));
+		int concurrency = Integer.getInteger("harness.concurrency", 2);
+		double rate = Double.parseDouble(System.getProperty("harness.rate", "0"));
+		double rampUp = Double.parseDouble(System.getProperty("harness.rampUp", "0"));
+		int maxViolations = Integer.getInteger("harness.maxViolations", 50);
+		String timestamp = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss").format(LocalDateTime.now());
+		Path reportFile = Paths.get(System.getProperty("harness.report", "logs/harness_" + timestamp + ".json"));
+		String baseUrl = System.getProperty("harness.baseUrl", "https://www.webstaurantstore.com/");
+		String indexDir = System.getProperty("harness.indexDir");
+		AuditIndex auditIndex = indexDir == null ? null : new AuditIndex(Paths.get(indexDir));
+
+		SnapshotStore store = null;
+		SnapshotReplayServer replayServer = null;
+		String replayDir = System.getProperty("harness.replayDir");
+		if (replayDir != null) {
+			// Serve the recorded pages from a local stand-in server
+			store = SnapshotStore.open(Paths.get(replayDir));
+			replayServer = SnapshotReplayServer.start(store, 0);
+			baseUrl = replayServer.getBaseUrl();
+		}
+		logger.info("Running {} queries against {} with concurrency {}, rate {}/s, ramp-up {} s", queries.size(),
+				baseUrl, concurrency, rate, rampUp);
+
+		// Several concurrent queries can share one browser as tabs, for more queries per GB of memory
+		int tabsPerBrowser = Integer.getInteger("harness.tabsPerBrowser", 1);
+		BrowserProfile profile = BrowserProfile.fromProperties(System.getProperties());
+		if (tabsPerBrowser > 1 && System.getProperty("browser.pageLoadStrategy") == null) {
+			// A page load that waits in the browser would hold up the other tabs
+			profile = profile.toBuilder().pageLoadStrategy(PageLoadStrategy.NONE).build();
+		}
+		ChromeSessionFactory chromeSessions = new ChromeSessionFactory(Duration.ofSeconds(10), profile);
+		LatencyRecorder pageLatency = new LatencyRecorder();
+		PageMetricsRecorder pageMetrics = Boolean.parseBoolean(System.getProperty("page.metrics", "true"))
+				? new PageMetricsRecorder() : PageMetricsRecorder.DISABLED;
+		// Tabs share cookies and storage, so clearing them for one tab would clear them under the others
+		Consumer<WebDriver> sessionReset = tabsPerBrowser > 1 ? driver -> {
+		} : WebDriverPool::clearBrowserState;
+		try (TabMultiplexer tabs = new TabMultiplexer(chromeSessions, tabsPerBrowser, chromeSessions::setUpTab);
+				WebDriverPool pool = new WebDriverPool(tabs, concurrency, 50, sessionReset);
+				LoadHarness harness = new LoadHarness(concurrency, new RateLimiter(rate, rampUp))) {
+			pool.warmUp();
+			LoadReport report = harness.run(queries, new BrowserQueryCheck(pool, baseUrl, maxViolations, pageLatency,
+					TimeUnit.MINUTES.toSeconds(5), auditIndex, pageMetrics));
+			Map<String, Object> content = report.toMap();
+			content.put("pageObjectMethods", pageLatency.toSummary());
+			content.put("pageMetrics", pageMetrics.toSummary());
+			LatencyRecorder.writeJson(reportFile, content);
+			logger.info("Report -> {}", reportFile);
+		} finally {
+			if (replayServer != null) {
+				replayServer.close();
+			}
+			if (store != null) {
+				store.close();
+			}
+		}
+	}
+}
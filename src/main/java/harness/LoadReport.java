@@ -0,0 +1,108 @@
+package harness;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import webutilities.LatencyRecorder;
+
+/**
+ * The summary of a load run: counts per status, throughput, latency
+ * percentiles and the result of every query.
+ */
+public class LoadReport {
+	private final List<QueryResult> results;
+	private final long elapsedNanos;
+	private final LatencyRecorder latency;
+	private int passed = 0;
+	private int failed = 0;
+	private int errors = 0;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the LoadReport.
+	 *
+	 * @param results      The query results in the order the queries were given.
+	 * @param elapsedNanos The wall-clock time of the run.
+	 * @param latency      The recorder holding the "query" and "scheduleLag" histograms.
+	 */
+	public LoadReport(List<QueryResult> results, long elapsedNanos, LatencyRecorder latency) {
+		this.results = Collections.unmodifiableList(new ArrayList<>(results));
+		this.elapsedNanos = elapsedNanos;
+		this.latency = latency;
+		for (QueryResult result : results) {
+			switch (result.getStatus()) {
+			case PASSES:
+				passed++;
+				break;
+			case FAILS:
+				failed++;
+				break;
+			default:
+				errors++;
+				break;
+			}
+		}
+	}
+
+// Methods*****************************************************************
+
+	public List<QueryResult> getResults() {
+		return results;
+	}
+
+	public int getPassed() {
+		return passed;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public int getErrors() {
+		return errors;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Returns the number of queries completed per second of the run.
+	 *
+	 * @return The throughput, or 0 for an empty run.
+	 */
+	public double getThroughputPerSecond() {
+		return elapsedNanos == 0 ? 0 : results.size() / (elapsedNanos / 1_000_000_000.0);
+	}
+
+	/**
+	 * Returns the report as a map for the JSON report file.
+	 *
+	 * @return The counts, throughput, latency summaries and query results.
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("queries", results.size());
+		map.put("passed", passed);
+		map.put("failed", failed);
+		map.put("errors", errors);
+		map.put("elapsedSeconds", elapsedNanos / 1_000_000_000.0);
+		map.put("throughputPerSecond", getThroughputPerSecond());
+		map.put("latency", latency.toSummary());
+		List<Map<String, Object>> queryResults = new ArrayList<>();
+		for (QueryResult result : results) {
+			queryResults.add(result.toMap());
+		}
+		map.put("results", queryResults);
+		return map;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d queries in %.1f s (%.2f/s): %d passed, %d failed, %d errors", results.size(),
+				elapsedNanos / 1_000_000_000.0, getThroughputPerSecond(), passed, failed, errors);
+	}
+}
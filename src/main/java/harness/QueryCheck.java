@@ -0,0 +1,22 @@
+package harness;
+
+import java.util.List;
+
+import pages.KeywordViolation;
+
+/**
+ * Runs one search query and checks its result titles against the query's rules.
+ * Implementations are called from several harness threads at once.
+ */
+@FunctionalInterface
+public interface QueryCheck {
+
+	/**
+	 * Runs the query and checks its results.
+	 *
+	 * @param query The query to run.
+	 * @return The titles violating the query's rules; empty if the query passes.
+	 * @throws Exception If the query could not be run.
+	 */
+	List<KeywordViolation> check(SearchQuery query) throws Exception;
+}
@@ -0,0 +1,187 @@
+package harness;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+/**
+ * Reads search queries and their title rules from a CSV or JSON Lines file.
+ *
+ * CSV rows are query,require,forbid,anyOf. Keywords within a column are
+ * separated by '|', and the any-of groups in the last column by ';'. Fields
+ * may be quoted with double quotes, a header row starting with "query" is
+ * skipped, and so are blank lines and lines starting with '#'.
+ *
+ * JSON Lines records look like {"query": "work table", "require": ["table"],
+ * "forbid": ["chair"], "anyOf": [["steel", "wood"]]}; only "query" is needed,
+ * and "require" and "forbid" may also be a single string.
+ */
+public class QueryFileReader {
+	private final Json json = new Json();
+
+// Methods*****************************************************************
+
+	/**
+	 * Reads every query of a file, choosing the format by the file extension:
+	 * .jsonl or .json for JSON Lines, anything else for CSV.
+	 *
+	 * @param file The query file.
+	 * @return The queries in file order.
+	 * @throws IOException              If the file cannot be read.
+	 * @throws IllegalArgumentException If a line is malformed, with its line number.
+	 */
+	public List<SearchQuery> read(Path file) throws IOException {
+		String name = file.getFileName().toString().toLowerCase();
+		boolean jsonLines = name.endsWith(".jsonl") || name.endsWith(".json");
+		List<SearchQuery> queries = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				String trimmed = line.trim();
+				if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+					continue;
+				}
+				try {
+					SearchQuery query = jsonLines ? parseJsonLine(trimmed) : parseCsvLine(line);
+					if (query != null) {
+						queries.add(query);
+					}
+				} catch (IllegalArgumentException | JsonException | ClassCastException e) {
+					throw new IllegalArgumentException(file + " line " + lineNumber + ": " + e.getMessage(), e);
+				}
+			}
+		}
+		return queries;
+	}
+
+	/**
+	 * Parses one CSV row.
+	 *
+	 * @param line The row.
+	 * @return The query, or null for the header row.
+	 */
+	public SearchQuery parseCsvLine(String line) {
+		List<String> fields = splitCsv(line);
+		if (fields.get(0).trim().equalsIgnoreCase("query")) {
+			return null;
+		}
+		List<List<String>> anyOf = new ArrayList<>();
+		for (String group : field(fields, 3).split(";")) {
+			List<String> keywords = keywords(group);
+			if (!keywords.isEmpty()) {
+				anyOf.add(keywords);
+			}
+		}
+		return new SearchQuery(fields.get(0), keywords(field(fields, 1)), keywords(field(fields, 2)), anyOf);
+	}
+
+	/**
+	 * Parses one JSON Lines record.
+	 *
+	 * @param line The record.
+	 * @return The query.
+	 */
+	@SuppressWarnings("unchecked")
+	public SearchQuery parseJsonLine(String line) {
+		Map<String, Object> record = json.toType(line, Json.MAP_TYPE);
+		List<List<String>> anyOf = new ArrayList<>();
+		Object groups = record.get("anyOf");
+		if (groups != null) {
+			for (Object group : (List<Object>) groups) {
+				anyOf.add(strings(group));
+			}
+		}
+		return new SearchQuery((String) record.get("query"), strings(record.get("require")),
+				strings(record.get("forbid")), anyOf);
+	}
+
+	/**
+	 * Reads a JSON value that is either missing, a string or a list of strings.
+	 *
+	 * @param value The JSON value.
+	 * @return The strings.
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<String> strings(Object value) {
+		if (value == null) {
+			return Collections.emptyList();
+		}
+		if (value instanceof String) {
+			return Collections.singletonList((String) value);
+		}
+		List<String> strings = new ArrayList<>();
+		for (Object item : (List<Object>) value) {
+			strings.add((String) item);
+		}
+		return strings;
+	}
+
+	/**
+	 * Splits a '|' separated keyword list, dropping blanks.
+	 *
+	 * @param text The keyword list.
+	 * @return The trimmed keywords.
+	 */
+	private static List<String> keywords(String text) {
+		List<String> keywords = new ArrayList<>();
+		for (String keyword : text.split("\\|")) {
+			if (!keyword.trim().isEmpty()) {
+				keywords.add(keyword.trim());
+			}
+		}
+		return keywords;
+	}
+
+	private static String field(List<String> fields, int index) {
+		return index < fields.size() ? fields.get(index) : "";
+	}
+
+	/**
+	 * Splits a CSV row on commas outside double quotes; "" inside quotes is a quote.
+	 *
+	 * @param line The row.
+	 * @return The unquoted fields.
+	 * @throws IllegalArgumentException If a quote is not closed.
+	 */
+	private static List<String> splitCsv(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("Unclosed quote");
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+}
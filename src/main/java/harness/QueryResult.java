@@ -0,0 +1,104 @@
+package harness;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import pages.KeywordViolation;
+
+/**
+ * The outcome of one query of a load run.
+ */
+public class QueryResult {
+	/** How a query ended. */
+	public enum Status {
+		/** Every title passed the rules. */
+		PASSES,
+		/** At least one title violated the rules. */
+		FAILS,
+		/** The query could not be run. */
+		ERROR
+	}
+
+	// Violations kept per result for the report, so a broken query cannot fill the heap
+	private static final int MAX_REPORTED_VIOLATIONS = 5;
+
+	private final String query;
+	private final Status status;
+	private final long durationNanos;
+	private final int violationCount;
+	private final List<String> violations;
+	private final String error;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the QueryResult.
+	 *
+	 * @param query         The query.
+	 * @param durationNanos How long the check took.
+	 * @param violations    The violations found, or null if the query failed with an error.
+	 * @param error         The error, or null if the query ran.
+	 */
+	public QueryResult(SearchQuery query, long durationNanos, List<KeywordViolation> violations, Throwable error) {
+		this.query = query.getQuery();
+		this.durationNanos = durationNanos;
+		this.error = error == null ? null : String.valueOf(error);
+		if (error != null) {
+			this.status = Status.ERROR;
+			this.violationCount = 0;
+			this.violations = Collections.emptyList();
+		} else {
+			this.status = violations.isEmpty() ? Status.PASSES : Status.FAILS;
+			this.violationCount = violations.size();
+			List<String> reported = new ArrayList<>();
+			for (KeywordViolation violation : violations.subList(0, Math.min(violations.size(), MAX_REPORTED_VIOLATIONS))) {
+				reported.add(violation.toString());
+			}
+			this.violations = Collections.unmodifiableList(reported);
+		}
+	}
+
+// Methods*****************************************************************
+
+	public String getQuery() {
+		return query;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	public int getViolationCount() {
+		return violationCount;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Returns the result as a map for the JSON report.
+	 *
+	 * @return The query, status, duration in milliseconds, violation count, first violations and error.
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("query", query);
+		map.put("status", status.name());
+		map.put("durationMs", durationNanos / 1_000_000.0);
+		map.put("violationCount", violationCount);
+		if (!violations.isEmpty()) {
+			map.put("violations", violations);
+		}
+		if (error != null) {
+			map.put("error", error);
+		}
+		return map;
+	}
+}
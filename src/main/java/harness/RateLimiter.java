@@ -0,0 +1,74 @@
+package harness;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces the start of queries to a target rate, ramping up linearly from zero
+ * to the target rate over the ramp-up time. Each permit has a fixed scheduled
+ * start time, so a slow period is not made up by a burst beyond the schedule
+ * and the rate does not drift with timer precision. Thread-safe.
+ */
+public class RateLimiter {
+	private final double permitsPerSecond;
+	private final double rampUpSeconds;
+	private long startNanos = -1;
+	private long nextPermit = 0;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the RateLimiter.
+	 *
+	 * @param permitsPerSecond The target rate; zero or less means no limit.
+	 * @param rampUpSeconds    The time over which the rate climbs to the target; zero starts at full rate.
+	 */
+	public RateLimiter(double permitsPerSecond, double rampUpSeconds) {
+		this.permitsPerSecond = permitsPerSecond;
+		this.rampUpSeconds = Math.max(0, rampUpSeconds);
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Waits until the next permit's scheduled start time. The first call starts the schedule.
+	 *
+	 * @return The scheduled start time of the permit, in System.nanoTime() terms.
+	 * @throws InterruptedException If the thread is interrupted while waiting.
+	 */
+	public long acquire() throws InterruptedException {
+		long scheduled;
+		synchronized (this) {
+			if (startNanos < 0) {
+				startNanos = System.nanoTime();
+			}
+			scheduled = startNanos + getPermitOffsetNanos(nextPermit++);
+		}
+		long wait = scheduled - System.nanoTime();
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+		return scheduled;
+	}
+
+	/**
+	 * Returns when a permit is scheduled, relative to the first one. While ramping
+	 * up, the rate at time t is rate * t / rampUp, so n permits have been issued
+	 * by t = sqrt(2 * n * rampUp / rate); after the ramp-up they follow at the
+	 * full rate.
+	 *
+	 * @param permit The zero-based permit number.
+	 * @return The offset of the permit's start time in nanoseconds.
+	 */
+	public long getPermitOffsetNanos(long permit) {
+		if (permitsPerSecond <= 0) {
+			return 0;
+		}
+		double permitsDuringRampUp = permitsPerSecond * rampUpSeconds / 2;
+		double seconds;
+		if (permit < permitsDuringRampUp) {
+			seconds = Math.sqrt(2 * permit * rampUpSeconds / permitsPerSecond);
+		} else {
+			seconds = rampUpSeconds + (permit - permitsDuringRampUp) / permitsPerSecond;
+		}
+		return (long) (seconds * TimeUnit.SECONDS.toNanos(1));
+	}
+}
@@ -0,0 +1,82 @@
+package harness;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import webutilities.TitleRuleSet;
+
+/**
+ * One search of a load run: the text typed into the search box and the rules
+ * every title in its results must pass.
+ */
+public class SearchQuery {
+	private final String query;
+	private final List<String> required;
+	private final List<String> forbidden;
+	private final List<List<String>> anyOf;
+	private final TitleRuleSet rules;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the SearchQuery.
+	 *
+	 * @param query     The search text.
+	 * @param required  Keywords every title must contain.
+	 * @param forbidden Keywords no title may contain.
+	 * @param anyOf     Groups of keywords of which every title must contain at least one.
+	 * @throws IllegalArgumentException If the query is empty or a keyword is empty.
+	 */
+	public SearchQuery(String query, List<String> required, List<String> forbidden, List<List<String>> anyOf) {
+		if (query == null || query.trim().isEmpty()) {
+			throw new IllegalArgumentException("A search query must not be empty");
+		}
+		this.query = query.trim();
+		this.required = Collections.unmodifiableList(new ArrayList<>(required));
+		this.forbidden = Collections.unmodifiableList(new ArrayList<>(forbidden));
+		this.anyOf = Collections.unmodifiableList(new ArrayList<>(anyOf));
+		TitleRuleSet.Builder builder = TitleRuleSet.builder();
+		for (String keyword : required) {
+			builder.require(keyword);
+		}
+		for (String keyword : forbidden) {
+			builder.forbid(keyword);
+		}
+		for (List<String> group : anyOf) {
+			builder.anyOf(group.toArray(new String[0]));
+		}
+		this.rules = builder.build();
+	}
+
+// Methods*****************************************************************
+
+	public String getQuery() {
+		return query;
+	}
+
+	public List<String> getRequired() {
+		return required;
+	}
+
+	public List<String> getForbidden() {
+		return forbidden;
+	}
+
+	public List<List<String>> getAnyOf() {
+		return anyOf;
+	}
+
+	/**
+	 * Returns the compiled rules of this query.
+	 *
+	 * @return The title rule set.
+	 */
+	public TitleRuleSet getRules() {
+		return rules;
+	}
+
+	@Override
+	public String toString() {
+		return query;
+	}
+}
@@ -0,0 +1,247 @@
+package pages;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import webutilities.TitleFingerprint;
+import webutilities.TitleRuleSet;
+
+/**
+ * A persistent index of title audits, one JSON file per query in a directory.
+ * For every result page it keeps the fingerprint of the page's titles and the
+ * violations found on it, so the next audit only re-checks pages whose
+ * fingerprint changed. An index recorded with different rules is ignored.
+ */
+public class AuditIndex {
+	private static final Logger logger = LogManager.getLogger(AuditIndex.class);
+	// Characters kept from the query in the file name, for people browsing the directory
+	private static final int MAX_NAME_LENGTH = 40;
+
+	private final Path directory;
+	private final Json json = new Json();
+
+	/**
+	 * The audited pages of one query. Not thread-safe.
+	 */
+	public static final class QueryIndex {
+		private final String query;
+		private final TitleRuleSet rules;
+		private final TreeMap<Integer, PageEntry> pages = new TreeMap<>();
+
+		private QueryIndex(String query, TitleRuleSet rules) {
+			this.query = query;
+			this.rules = rules;
+		}
+
+		public String getQuery() {
+			return query;
+		}
+
+		public TitleRuleSet getRules() {
+			return rules;
+		}
+
+		/**
+		 * Returns the fingerprint a page had when it was last checked.
+		 *
+		 * @param pageNumber The page number.
+		 * @return The fingerprint, or null if the page was never checked.
+		 */
+		public String getFingerprint(int pageNumber) {
+			PageEntry entry = pages.get(pageNumber);
+			return entry == null ? null : entry.fingerprint;
+		}
+
+		/**
+		 * Returns the violations found on a page when it was last checked.
+		 *
+		 * @param pageNumber The page number.
+		 * @return The violations in page order; empty if the page was never checked.
+		 */
+		public List<KeywordViolation> getViolations(int pageNumber) {
+			PageEntry entry = pages.get(pageNumber);
+			return entry == null ? Collections.<KeywordViolation>emptyList() : entry.violations;
+		}
+
+		/**
+		 * Records the result of checking a page.
+		 *
+		 * @param pageNumber  The page number.
+		 * @param fingerprint The fingerprint of the page's titles.
+		 * @param violations  The violations found on the page.
+		 */
+		public void putPage(int pageNumber, String fingerprint, List<KeywordViolation> violations) {
+			pages.put(pageNumber, new PageEntry(fingerprint, new ArrayList<>(violations)));
+		}
+
+		/**
+		 * Forgets the pages after the last page, for result sets that got shorter.
+		 *
+		 * @param lastPage The last page of the current result set.
+		 */
+		public void retainPages(int lastPage) {
+			pages.tailMap(lastPage, false).clear();
+		}
+
+		/**
+		 * Returns the number of pages in the index.
+		 *
+		 * @return The page count.
+		 */
+		public int getPageCount() {
+			return pages.size();
+		}
+	}
+
+	// The fingerprint and violations of one page
+	private static final class PageEntry {
+		private final String fingerprint;
+		private final List<KeywordViolation> violations;
+
+		private PageEntry(String fingerprint, List<KeywordViolation> violations) {
+			this.fingerprint = fingerprint;
+			this.violations = Collections.unmodifiableList(violations);
+		}
+	}
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the AuditIndex.
+	 *
+	 * @param directory The directory the query files are kept in; it is created on the first save.
+	 */
+	public AuditIndex(Path directory) {
+		this.directory = directory;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Loads the index of a query. A missing or unreadable file, or one recorded
+	 * with different rules, gives an empty index, so every page is checked.
+	 *
+	 * @param query The search query.
+	 * @param rules The rules of the current audit.
+	 * @return The query's index.
+	 * @throws IOException If the file exists but cannot be read.
+	 */
+	@SuppressWarnings("unchecked")
+	public QueryIndex load(String query, TitleRuleSet rules) throws IOException {
+		QueryIndex index = new QueryIndex(query, rules);
+		Path file = fileFor(query);
+		if (!Files.exists(file)) {
+			return index;
+		}
+		Map<String, Object> content;
+		try {
+			content = json.toType(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Json.MAP_TYPE);
+		} catch (JsonException e) {
+			logger.warn("Ignoring unreadable audit index {}", file, e);
+			return index;
+		}
+		if (!query.equals(content.get("query")) || !ruleNames(rules).equals(content.get("rules"))) {
+			logger.info("Audit index of '{}' was recorded with other rules, checking every page", query);
+			return index;
+		}
+		List<TitleRuleSet.Rule> ruleList = rules.getRules();
+		for (Object pageObject : (List<Object>) content.get("pages")) {
+			Map<String, Object> page = (Map<String, Object>) pageObject;
+			int pageNumber = ((Number) page.get("page")).intValue();
+			List<KeywordViolation> violations = new ArrayList<>();
+			for (Object violationObject : (List<Object>) page.get("violations")) {
+				Map<String, Object> violation = (Map<String, Object>) violationObject;
+				List<TitleRuleSet.Rule> violatedRules = new ArrayList<>();
+				for (Object ruleIndex : (List<Object>) violation.get("rules")) {
+					violatedRules.add(ruleList.get(((Number) ruleIndex).intValue()));
+				}
+				violations.add(new KeywordViolation(pageNumber, ((Number) violation.get("item")).intValue(),
+						(String) violation.get("title"), violatedRules));
+			}
+			index.putPage(pageNumber, (String) page.get("fingerprint"), violations);
+		}
+		return index;
+	}
+
+	/**
+	 * Saves the index of a query, replacing the previous file in one step so a
+	 * crash never leaves a half-written index.
+	 *
+	 * @param index The query's index.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void save(QueryIndex index) throws IOException {
+		List<TitleRuleSet.Rule> ruleList = index.rules.getRules();
+		List<Map<String, Object>> pages = new ArrayList<>();
+		for (Map.Entry<Integer, PageEntry> entry : index.pages.entrySet()) {
+			List<Map<String, Object>> violations = new ArrayList<>();
+			for (KeywordViolation violation : entry.getValue().violations) {
+				List<Integer> ruleIndexes = new ArrayList<>();
+				for (TitleRuleSet.Rule rule : violation.getViolatedRules()) {
+					ruleIndexes.add(ruleList.indexOf(rule));
+				}
+				Map<String, Object> map = new LinkedHashMap<>();
+				map.put("item", violation.getItemIndex());
+				map.put("title", violation.getTitle());
+				map.put("rules", ruleIndexes);
+				violations.add(map);
+			}
+			Map<String, Object> page = new LinkedHashMap<>();
+			page.put("page", entry.getKey());
+			page.put("fingerprint", entry.getValue().fingerprint);
+			page.put("violations", violations);
+			pages.add(page);
+		}
+		Map<String, Object> content = new LinkedHashMap<>();
+		content.put("query", index.query);
+		content.put("rules", ruleNames(index.rules));
+		content.put("pages", pages);
+		Files.createDirectories(directory);
+		Path file = fileFor(index.query);
+		Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		Files.write(temporary, json.toJson(content).getBytes(StandardCharsets.UTF_8));
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Returns the file of a query: a readable prefix of the query and its fingerprint.
+	 *
+	 * @param query The search query.
+	 * @return The path of the query's index file.
+	 */
+	public Path fileFor(String query) {
+		String name = query.toLowerCase().replaceAll("[^a-z0-9]+", "-");
+		if (name.length() > MAX_NAME_LENGTH) {
+			name = name.substring(0, MAX_NAME_LENGTH);
+		}
+		String hash = TitleFingerprint.of(Collections.singletonList(query));
+		return directory.resolve(name + "_" + hash.substring(hash.indexOf(':') + 1) + ".json");
+	}
+
+	/**
+	 * Describes the rules, so an index recorded with other rules is recognized.
+	 *
+	 * @param rules The rules.
+	 * @return One description per rule, in rule order.
+	 */
+	private static List<String> ruleNames(TitleRuleSet rules) {
+		List<String> names = new ArrayList<>();
+		for (TitleRuleSet.Rule rule : rules.getRules()) {
+			names.add(rule.getType() + " " + rule.getKeywords());
+		}
+		return names;
+	}
+}
@@ -0,0 +1,86 @@
+package pages;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Caches resolved elements for the current page generation, so repeated reads
+ * of the same page do not repeat the DOM query. The cache must be invalidated
+ * whenever the page navigates; it also invalidates itself when a cached element
+ * turns out to be stale. Like the WebDriver it wraps, it is not thread-safe.
+ */
+public class ElementCache {
+	private final SearchContext context;
+	private final Map<By, WebElement> elements = new HashMap<>();
+	private int generation = 0;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the ElementCache.
+	 *
+	 * @param context The driver or element the locators are resolved against.
+	 */
+	public ElementCache(SearchContext context) {
+		this.context = context;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Finds an element, resolving it only once per page generation.
+	 *
+	 * @param locator The locator of the element.
+	 * @return The cached or newly resolved element.
+	 * @throws org.openqa.selenium.NoSuchElementException If the element is not found.
+	 */
+	public WebElement find(By locator) {
+		WebElement element = elements.get(locator);
+		if (element == null) {
+			element = context.findElement(locator);
+			elements.put(locator, element);
+		}
+		return element;
+	}
+
+	/**
+	 * Reads a value from an element, re-resolving it once if it has gone stale.
+	 *
+	 * @param locator The locator of the element.
+	 * @param reader  Reads the value from the element.
+	 * @param <T>     The type of the value.
+	 * @return The value read from the element.
+	 */
+	public <T> T read(By locator, Function<WebElement, T> reader) {
+		try {
+			return reader.apply(find(locator));
+		} catch (StaleElementReferenceException e) {
+			// The page changed under us, drop every handle from the old page and retry
+			invalidate();
+			return reader.apply(find(locator));
+		}
+	}
+
+	/**
+	 * Drops every cached element and starts a new page generation. Call this
+	 * after any action that navigates or re-renders the page.
+	 */
+	public void invalidate() {
+		elements.clear();
+		generation++;
+	}
+
+	/**
+	 * Returns the current page generation, which increases on every invalidation.
+	 *
+	 * @return The current page generation.
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+}
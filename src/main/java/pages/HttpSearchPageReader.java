@@ -0,0 +1,269 @@
+package pages;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import webutilities.TextParsingUtilities;
+import webutilities.UrlUtilities;
+
+/**
+ * A browser-less SearchResultsReader that reads search results from the
+ * server-rendered HTML over plain HTTP. Result pages are fetched concurrently.
+ * When the markup is not usable (for example the site serves a challenge page
+ * or the layout changed) the reader falls back to a Selenium backed reader.
+ */
+public class HttpSearchPageReader implements SearchResultsReader {
+	private static final Logger logger = LogManager.getLogger(HttpSearchPageReader.class);
+	private static final int CONNECT_TIMEOUT_MILLIS = 10000;
+	private static final int READ_TIMEOUT_MILLIS = 30000;
+	private static final String USER_AGENT = "Mozilla/5.0 (compatible; tabletest)";
+
+	private final String baseUrl;
+	private final Supplier<SearchResultsReader> fallbackFactory;
+	private final int fetchThreads;
+	private UrlUtilities urlUtilities = new UrlUtilities();
+	private TextParsingUtilities textParsingUtilities = new TextParsingUtilities();
+	private SearchResultsReader fallback;
+	private String productName;
+	private String searchUrl;
+	private SearchResultsDocument firstPage;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the HttpSearchPageReader.
+	 *
+	 * @param baseUrl         The base URL of the web application, ending with '/'.
+	 * @param fallbackFactory Creates the Selenium backed reader used when the markup is not usable.
+	 * @param fetchThreads    The maximum number of result pages fetched at once.
+	 */
+	public HttpSearchPageReader(String baseUrl, Supplier<SearchResultsReader> fallbackFactory, int fetchThreads) {
+		this.baseUrl = baseUrl;
+		this.fallbackFactory = fallbackFactory;
+		this.fetchThreads = Math.max(1, fetchThreads);
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Fetches the first result page for a product search. If the response cannot
+	 * be used, the search is repeated on the fallback reader.
+	 *
+	 * @param productName The name of the product to search for.
+	 */
+	@Override
+	public void searchForProduct(String productName) {
+		this.productName = productName;
+		searchUrl = getSearchUrl(productName);
+		try {
+			// Try to fetch and parse the first result page
+			SearchResultsDocument document = fetch(searchUrl);
+			if (document.isUsable()) {
+				firstPage = document;
+				fallback = null;
+				return;
+			}
+			logger.warn("Search markup from {} is not usable, falling back to the browser", searchUrl);
+		} catch (IOException e) {
+			// Log the exception
+			logger.error("An error occurred: ", e);
+		}
+		// Repeat the search in the browser
+		firstPage = null;
+		fallback = fallbackFactory.get();
+		fallback.searchForProduct(productName);
+	}
+
+	/**
+	 * Returns the count of search results.
+	 *
+	 * @return The count of search results, or 0 if no search has been made.
+	 */
+	@Override
+	public int returnSearchResultCount() {
+		if (fallback != null) {
+			return fallback.returnSearchResultCount();
+		}
+		return firstPage == null ? 0 : firstPage.returnSearchResultCount();
+	}
+
+	/**
+	 * Returns the count of search result pages.
+	 *
+	 * @return The count of search result pages, or 0 if no search has been made.
+	 */
+	@Override
+	public int returnSearchPageCount() {
+		if (fallback != null) {
+			return fallback.returnSearchPageCount();
+		}
+		return firstPage == null ? 0 : firstPage.returnSearchPageCount();
+	}
+
+	/**
+	 * Retrieves the titles of all products on the first search result page.
+	 *
+	 * @return A list of product titles in page order.
+	 */
+	@Override
+	public List<String> getAllProductTitles() {
+		if (fallback != null) {
+			return fallback.getAllProductTitles();
+		}
+		return firstPage == null ? new ArrayList<String>() : firstPage.getAllProductTitles();
+	}
+
+	/**
+	 * Finds all titles in the search results that are missing a specified keyword.
+	 * Every result page after the first is fetched concurrently. If any page
+	 * cannot be used, the whole audit is repeated on the fallback reader.
+	 *
+	 * @param keyword The keyword to search for in titles.
+	 * @return An array of titles that do not contain the specified keyword, in page order.
+	 */
+	@Override
+	public String[] findAllTitlesMissingKeyword(String keyword) {
+		if (fallback != null) {
+			return fallback.findAllTitlesMissingKeyword(keyword);
+		}
+		if (firstPage == null) {
+			return new String[0];
+		}
+		List<SearchResultsDocument> pages = fetchAllPages();
+		if (pages == null) {
+			// The markup of a later page was not usable, audit in the browser instead
+			fallback = fallbackFactory.get();
+			fallback.searchForProduct(productName);
+			return fallback.findAllTitlesMissingKeyword(keyword);
+		}
+		// Check every page's titles in page order
+		List<String> missingItemsList = new ArrayList<>();
+		for (SearchResultsDocument page : pages) {
+			textParsingUtilities.addTitlesMissingKeyword(page.getAllProductTitles(), keyword, missingItemsList);
+		}
+		if (missingItemsList.isEmpty()) {
+			logger.info("No titles missing the keyword '{}'.", keyword);
+		}
+		return missingItemsList.toArray(new String[0]);
+	}
+
+	/**
+	 * Builds the URL of the first result page for a product search.
+	 *
+	 * @param productName The name of the product to search for.
+	 * @return The search URL.
+	 */
+	public String getSearchUrl(String productName) {
+		return urlUtilities.getSearchUrl(baseUrl, productName);
+	}
+
+	/**
+	 * Fetches every result page of the current search, reusing the first page.
+	 *
+	 * @return The parsed pages in page order, or null if any page is not usable.
+	 */
+	private List<SearchResultsDocument> fetchAllPages() {
+		int totalPages = Math.max(1, firstPage.returnSearchPageCount());
+		List<SearchResultsDocument> pages = new ArrayList<>();
+		pages.add(firstPage);
+		if (totalPages == 1) {
+			return pages;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(fetchThreads, totalPages - 1));
+		try {
+			// Request every remaining page at once
+			List<Future<SearchResultsDocument>> futures = new ArrayList<>();
+			for (int page = 2; page <= totalPages; page++) {
+				final String pageUrl = urlUtilities.getResultPageUrl(searchUrl, page);
+				futures.add(executor.submit(() -> fetch(pageUrl)));
+			}
+			// Collect the pages in page order
+			for (Future<SearchResultsDocument> future : futures) {
+				SearchResultsDocument page = future.get();
+				if (!page.isUsable()) {
+					logger.warn("Result page markup is not usable, falling back to the browser");
+					return null;
+				}
+				pages.add(page);
+			}
+			return pages;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Result page fetch was interrupted", e);
+		} catch (ExecutionException e) {
+			// Log the exception
+			logger.error("An error occurred: ", e.getCause());
+			return null;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Fetches and parses one page.
+	 *
+	 * @param url The URL of the page.
+	 * @return The parsed page.
+	 * @throws IOException If the URL is not valid, the request fails or the server does not answer with 200 OK.
+	 */
+	private SearchResultsDocument fetch(String url) throws IOException {
+		URL target;
+		try {
+			target = URI.create(url).toURL();
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Not a valid URL: " + url, e);
+		}
+		HttpURLConnection connection = (HttpURLConnection) target.openConnection();
+		try {
+			connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+			connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+			connection.setRequestProperty("User-Agent", USER_AGENT);
+			connection.setRequestProperty("Accept", "text/html");
+			connection.setRequestProperty("Accept-Encoding", "gzip");
+			int status = connection.getResponseCode();
+			if (status != HttpURLConnection.HTTP_OK) {
+				throw new IOException("GET " + url + " returned HTTP " + status);
+			}
+			// Read the body, unpacking it if the server compressed it
+			try (InputStream body = "gzip".equalsIgnoreCase(connection.getContentEncoding())
+					? new GZIPInputStream(connection.getInputStream())
+					: connection.getInputStream()) {
+				return new SearchResultsDocument(readFully(body), url);
+			}
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	/**
+	 * Reads a stream to the end as UTF-8 text.
+	 *
+	 * @param input The stream to read.
+	 * @return The text of the stream.
+	 * @throws IOException If the stream cannot be read.
+	 */
+	private static String readFully(InputStream input) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[16384];
+		int read;
+		while ((read = input.read(buffer)) != -1) {
+			output.write(buffer, 0, read);
+		}
+		return new String(output.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
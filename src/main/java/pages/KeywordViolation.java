@@ -0,0 +1,66 @@
+package pages;
+
+import java.util.Collections;
+import java.util.List;
+
+import webutilities.TitleRuleSet;
+
+/**
+ * A product title found by a keyword audit, with where it was found.
+ */
+public class KeywordViolation {
+	private final int pageNumber;
+	private final int itemIndex;
+	private final String title;
+	private final List<TitleRuleSet.Rule> violatedRules;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the KeywordViolation.
+	 *
+	 * @param pageNumber The search result page the title was found on (1-based).
+	 * @param itemIndex  The position of the product on that page (1-based).
+	 * @param title      The product title.
+	 */
+	public KeywordViolation(int pageNumber, int itemIndex, String title) {
+		this(pageNumber, itemIndex, title, Collections.<TitleRuleSet.Rule>emptyList());
+	}
+
+	/**
+	 * Initializes a new instance of the KeywordViolation for a rule set audit.
+	 *
+	 * @param pageNumber    The search result page the title was found on (1-based).
+	 * @param itemIndex     The position of the product on that page (1-based).
+	 * @param title         The product title.
+	 * @param violatedRules The rules the title violates.
+	 */
+	public KeywordViolation(int pageNumber, int itemIndex, String title, List<TitleRuleSet.Rule> violatedRules) {
+		this.pageNumber = pageNumber;
+		this.itemIndex = itemIndex;
+		this.title = title;
+		this.violatedRules = Collections.unmodifiableList(violatedRules);
+	}
+
+// Methods*****************************************************************
+
+	public int getPageNumber() {
+		return pageNumber;
+	}
+
+	public int getItemIndex() {
+		return itemIndex;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public List<TitleRuleSet.Rule> getViolatedRules() {
+		return violatedRules;
+	}
+
+	@Override
+	public String toString() {
+		return "page " + pageNumber + " item " + itemIndex + ": " + title + (violatedRules.isEmpty() ? "" : " " + violatedRules);
+	}
+}
@@ -0,0 +1,143 @@
+package pages;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * The browser's own performance figures for the page a navigation step landed
+ * on, read in one round trip from the Navigation Timing, Paint Timing, Largest
+ * Contentful Paint and Resource Timing APIs. Times are in milliseconds since
+ * the navigation started; a figure the browser has not reported yet, such as
+ * the load event under the EAGER page load strategy, is left out.
+ */
+public class PageTimings {
+	/** Time to the first byte of the document response. */
+	public static final String TTFB_MS = "ttfbMs";
+	/** End of the DOMContentLoaded event. */
+	public static final String DOM_CONTENT_LOADED_MS = "domContentLoadedMs";
+	/** End of the load event. */
+	public static final String LOAD_MS = "loadMs";
+	/** First contentful paint. */
+	public static final String FIRST_CONTENTFUL_PAINT_MS = "firstContentfulPaintMs";
+	/** Largest contentful paint so far. */
+	public static final String LARGEST_CONTENTFUL_PAINT_MS = "largestContentfulPaintMs";
+	/** Bytes transferred for the document. */
+	public static final String DOCUMENT_BYTES = "documentBytes";
+	/** Number of resources the page requested. */
+	public static final String RESOURCE_COUNT = "resourceCount";
+	/** Bytes transferred for those resources; cached and cross-origin resources count as 0. */
+	public static final String RESOURCE_BYTES = "resourceBytes";
+
+	// Returns the page URL, the time origin that identifies the document, and its performance figures
+	private static final String CAPTURE_SCRIPT =
+			"var metrics = {};"
+			+ "function put(name, value) { if (value > 0) { metrics[name] = value; } }"
+			+ "var nav = performance.getEntriesByType('navigation')[0];"
+			+ "if (nav) {"
+			+ "  put('ttfbMs', nav.responseStart);"
+			+ "  put('domContentLoadedMs', nav.domContentLoadedEventEnd);"
+			+ "  put('loadMs', nav.loadEventEnd);"
+			+ "  put('documentBytes', nav.transferSize);"
+			+ "}"
+			+ "var fcp = performance.getEntriesByName('first-contentful-paint')[0];"
+			+ "if (fcp) { put('firstContentfulPaintMs', fcp.startTime); }"
+			+ "try {"
+			+ "  var observer = new PerformanceObserver(function () {});"
+			+ "  observer.observe({type: 'largest-contentful-paint', buffered: true});"
+			+ "  var lcp = observer.takeRecords();"
+			+ "  observer.disconnect();"
+			+ "  if (lcp.length) { put('largestContentfulPaintMs', lcp[lcp.length - 1].startTime); }"
+			+ "} catch (e) {}"
+			+ "var resources = performance.getEntriesByType('resource');"
+			+ "var bytes = 0;"
+			+ "for (var i = 0; i < resources.length; i++) { bytes += resources[i].transferSize || 0; }"
+			+ "metrics.resourceCount = resources.length;"
+			+ "metrics.resourceBytes = bytes;"
+			+ "return {url: window.location.href, timeOrigin: String(performance.timeOrigin), metrics: metrics};";
+
+	private final String step;
+	private final String url;
+	private final String documentId;
+	private final Map<String, Double> metrics;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the PageTimings.
+	 *
+	 * @param step    The navigation step, for example "goToNextResultPage".
+	 * @param url     The URL of the page.
+	 * @param metrics The performance figures by name.
+	 */
+	public PageTimings(String step, String url, Map<String, Double> metrics) {
+		this(step, url, null, metrics);
+	}
+
+	/**
+	 * Initializes a new instance of the PageTimings of an identified document.
+	 *
+	 * @param step       The navigation step, for example "goToNextResultPage".
+	 * @param url        The URL of the page.
+	 * @param documentId The time origin of the document, which differs for every document loaded, or null if unknown.
+	 * @param metrics    The performance figures by name.
+	 */
+	public PageTimings(String step, String url, String documentId, Map<String, Double> metrics) {
+		this.step = step;
+		this.url = url;
+		this.documentId = documentId;
+		this.metrics = Collections.unmodifiableMap(new LinkedHashMap<>(metrics));
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Reads the performance figures of the page the driver is on with a single script call.
+	 *
+	 * @param driver The driver, after the navigation step.
+	 * @param step   The navigation step.
+	 * @return The page timings.
+	 */
+	@SuppressWarnings("unchecked")
+	public static PageTimings capture(WebDriver driver, String step) {
+		Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+		Map<String, Double> metrics = new LinkedHashMap<>();
+		for (Map.Entry<String, Object> entry : ((Map<String, Object>) result.get("metrics")).entrySet()) {
+			metrics.put(entry.getKey(), ((Number) entry.getValue()).doubleValue());
+		}
+		Object timeOrigin = result.get("timeOrigin");
+		return new PageTimings(step, String.valueOf(result.get("url")), timeOrigin == null ? null : timeOrigin.toString(),
+				metrics);
+	}
+
+	public String getStep() {
+		return step;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public String getDocumentId() {
+		return documentId;
+	}
+
+	public Map<String, Double> getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Returns the timings as a map for JSON records.
+	 *
+	 * @return The step, the URL and the performance figures.
+	 */
+	public Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("step", step);
+		map.put("url", url);
+		map.putAll(metrics);
+		return map;
+	}
+}
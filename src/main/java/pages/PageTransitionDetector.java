@@ -0,0 +1,160 @@
+package pages;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import static pages.SearchPageLocators.*;
+
+/**
+ * Tells when a click has replaced the search result page, without padded waits.
+ * arm() marks the current product listing and remembers the current page number
+ * before the click; awaitTransition() then waits in the browser, on a
+ * MutationObserver, until the listing is a different one and the current page
+ * indicator has changed. A click that loads a whole new document counts as soon
+ * as the new listing is there, since the new document carries no mark.
+ */
+public class PageTransitionDetector {
+	private static final Logger logger = LogManager.getLogger(PageTransitionDetector.class);
+	// Longest single wait in the browser, so a browser shared by several tabs is not held for the whole timeout
+	private static final long SLICE_MILLIS = 500;
+
+	// Marks the listing and its first product, then returns the current page number text
+	private static final String ARM_SCRIPT =
+			"var listingCss = arguments[0], currentPageCss = arguments[1], token = arguments[2];"
+			+ "var listing = document.querySelector(listingCss);"
+			+ "if (listing) {"
+			+ "  listing.setAttribute('data-transition-mark', token);"
+			+ "  if (listing.firstElementChild) { listing.firstElementChild.setAttribute('data-transition-mark', token); }"
+			+ "}"
+			+ "var current = document.querySelector(currentPageCss);"
+			+ "return current ? (current.innerText || current.textContent || '').trim() : null;";
+
+	// Calls back with true once a listing with products and no mark is shown and the
+	// current page number differs from the armed one, or with false at the timeout
+	private static final String AWAIT_SCRIPT =
+			"var listingCss = arguments[0], currentPageCss = arguments[1], token = arguments[2];"
+			+ "var oldPage = arguments[3], timeoutMs = arguments[4];"
+			+ "var done = arguments[arguments.length - 1];"
+			+ "var finished = false, observer = null, deadline = null;"
+			+ "function changed() {"
+			+ "  var listing = document.querySelector(listingCss);"
+			+ "  if (!listing || !listing.firstElementChild) { return false; }"
+			+ "  if (listing.getAttribute('data-transition-mark') === token"
+			+ "      && listing.firstElementChild.getAttribute('data-transition-mark') === token) { return false; }"
+			+ "  var current = document.querySelector(currentPageCss);"
+			+ "  var page = current ? (current.innerText || current.textContent || '').trim() : null;"
+			+ "  return oldPage === null || page !== oldPage;"
+			+ "}"
+			+ "function finish(result) {"
+			+ "  if (finished) { return; }"
+			+ "  finished = true;"
+			+ "  if (observer) { observer.disconnect(); }"
+			+ "  clearTimeout(deadline);"
+			+ "  done(result);"
+			+ "}"
+			+ "if (changed()) { done(true); return; }"
+			+ "observer = new MutationObserver(function () { if (changed()) { finish(true); } });"
+			+ "observer.observe(document.documentElement, {subtree: true, childList: true, attributes: true, characterData: true});"
+			+ "deadline = setTimeout(function () { finish(changed()); }, timeoutMs);";
+
+	private final WebDriver driver;
+	private final Duration timeout;
+	private String token;
+	private String armedPageText;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the PageTransitionDetector.
+	 *
+	 * @param driver  The WebDriver instance to watch, which must run JavaScript to be armed.
+	 * @param timeout The longest time awaitTransition() waits for the new page.
+	 */
+	public PageTransitionDetector(WebDriver driver, Duration timeout) {
+		this.driver = driver;
+		this.timeout = timeout;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Marks the page that is shown now. Call before the click that leaves it.
+	 *
+	 * @return true if the detector is armed, false if the driver cannot run JavaScript.
+	 */
+	public boolean arm() {
+		if (!(driver instanceof JavascriptExecutor)) {
+			token = null;
+			return false;
+		}
+		token = UUID.randomUUID().toString();
+		Object pageText = ((JavascriptExecutor) driver).executeScript(ARM_SCRIPT, PRODUCT_LISTING_CSS,
+				CURRENT_PAGE_NUMBER_CSS, token);
+		armedPageText = pageText instanceof String ? (String) pageText : null;
+		return true;
+	}
+
+	/**
+	 * Waits until the marked page has been replaced by a new product listing and
+	 * page number, returning as soon as the browser has rendered them. The wait
+	 * is sent in slices of at most half a second.
+	 *
+	 * @return true if the new page is shown, false if it did not appear within the timeout.
+	 * @throws IllegalStateException If the detector was not armed.
+	 * @throws JavascriptException   If the wait fails for another reason than the old document unloading.
+	 */
+	public boolean awaitTransition() {
+		if (token == null) {
+			throw new IllegalStateException("The page transition detector was not armed");
+		}
+		long deadline = System.nanoTime() + timeout.toNanos();
+		while (true) {
+			long remainingMs = Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+			try {
+				Object result = ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_SCRIPT, PRODUCT_LISTING_CSS,
+						CURRENT_PAGE_NUMBER_CSS, token, armedPageText, Math.min(remainingMs, SLICE_MILLIS));
+				if (Boolean.TRUE.equals(result)) {
+					return true;
+				}
+				if (System.nanoTime() - deadline >= 0) {
+					return false;
+				}
+			} catch (JavascriptException e) {
+				if (!isUnload(e)) {
+					throw e;
+				}
+				// The document was unloaded while the script waited; check again in the new one
+				if (System.nanoTime() - deadline >= 0) {
+					logger.warn("Page transition was not detected within {}", timeout, e);
+					return false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tells whether a script failed because its document was unloaded by a navigation.
+	 *
+	 * @param e The script error.
+	 * @return true for the browser driver's unload errors.
+	 */
+	private static boolean isUnload(JavascriptException e) {
+		String message = String.valueOf(e.getRawMessage()).toLowerCase();
+		return message.contains("document unloaded") || message.contains("execution context was destroyed");
+	}
+
+	/**
+	 * Returns the current page number text seen when the detector was armed.
+	 *
+	 * @return The page number text, or null if there was no current page indicator.
+	 */
+	public String getArmedPageText() {
+		return armedPageText;
+	}
+}
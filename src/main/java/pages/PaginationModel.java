@@ -0,0 +1,155 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import webutilities.TextParsingUtilities;
+import webutilities.UrlUtilities;
+
+import static pages.SearchPageLocators.PAGE_LINKS_CSS;
+
+/**
+ * The pager of a search result page, read in one round trip: the current page,
+ * the last page and the URL of every linked page. A page between 1 and the last
+ * page that the pager does not link to gets its URL from the page parameter,
+ * so any page can be reached with a single navigation.
+ */
+public class PaginationModel {
+	// Returns the page URL and the aria-label and resolved href of every pager link
+	private static final String CAPTURE_SCRIPT =
+			"var links = document.querySelectorAll(arguments[0]);"
+			+ "var pages = [];"
+			+ "for (var i = 0; i < links.length; i++) {"
+			+ "  pages.push([links[i].getAttribute('aria-label') || '', links[i].href || '']);"
+			+ "}"
+			+ "return {url: window.location.href, links: pages};";
+
+	private final String pageUrl;
+	private final int currentPage;
+	private final int lastPage;
+	// Linked page numbers in ascending order, mapped to their URLs
+	private final TreeMap<Integer, String> pageLinks;
+	private final UrlUtilities urlUtilities = new UrlUtilities();
+
+// Constructor*************************************************************
+	private PaginationModel(String pageUrl, int currentPage, int lastPage, TreeMap<Integer, String> pageLinks) {
+		this.pageUrl = pageUrl;
+		this.currentPage = currentPage;
+		this.lastPage = lastPage;
+		this.pageLinks = pageLinks;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Reads the pager of the page the driver is on with a single script call.
+	 *
+	 * @param driver The driver on a search result page.
+	 * @return The pagination model. A page without a pager has no page links.
+	 */
+	@SuppressWarnings("unchecked")
+	public static PaginationModel capture(WebDriver driver) {
+		Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver)
+				.executeScript(CAPTURE_SCRIPT, PAGE_LINKS_CSS);
+		List<String> labels = new ArrayList<>();
+		List<String> hrefs = new ArrayList<>();
+		for (Object link : (List<Object>) result.get("links")) {
+			List<Object> pair = (List<Object>) link;
+			labels.add(String.valueOf(pair.get(0)));
+			hrefs.add(String.valueOf(pair.get(1)));
+		}
+		return fromLinks(String.valueOf(result.get("url")), labels, hrefs);
+	}
+
+	/**
+	 * Builds the model from the pager links of a page. Labels look like
+	 * "page 2", "current page, page 3" or "last page, page 12"; the page
+	 * number is the last word.
+	 *
+	 * @param pageUrl The URL of the page the pager is on.
+	 * @param labels  The 'aria-label' of each pager link.
+	 * @param hrefs   The absolute URL of each pager link, in the same order.
+	 * @return The pagination model.
+	 */
+	public static PaginationModel fromLinks(String pageUrl, List<String> labels, List<String> hrefs) {
+		TextParsingUtilities textParsingUtilities = new TextParsingUtilities();
+		TreeMap<Integer, String> pageLinks = new TreeMap<>();
+		int currentPage = 0;
+		int lastPage = 0;
+		for (int i = 0; i < labels.size(); i++) {
+			String label = labels.get(i);
+			// Parse the last word as the page number
+			int pageNumber = textParsingUtilities.parseInt(label.substring(label.lastIndexOf(' ') + 1), -1, -1);
+			if (pageNumber < 0) {
+				// Previous and next arrows have no page number
+				continue;
+			}
+			if (label.contains("current page")) {
+				currentPage = pageNumber;
+			}
+			lastPage = Math.max(lastPage, pageNumber);
+			String href = i < hrefs.size() ? hrefs.get(i) : "";
+			if (!href.isEmpty() || !pageLinks.containsKey(pageNumber)) {
+				pageLinks.put(pageNumber, href.isEmpty() ? null : href);
+			}
+		}
+		return new PaginationModel(pageUrl, currentPage, lastPage, pageLinks);
+	}
+
+	/**
+	 * Returns the URL of the page the pager was read from.
+	 *
+	 * @return The page URL.
+	 */
+	public String getPageUrl() {
+		return pageUrl;
+	}
+
+	/**
+	 * Returns the number of the current page.
+	 *
+	 * @return The current page, or 0 if the pager does not mark one.
+	 */
+	public int getCurrentPage() {
+		return currentPage;
+	}
+
+	/**
+	 * Returns the number of the last page.
+	 *
+	 * @return The last page, or 0 if there is no pager.
+	 */
+	public int getLastPage() {
+		return lastPage;
+	}
+
+	/**
+	 * Returns the page numbers the pager links to.
+	 *
+	 * @return The linked page numbers in ascending order.
+	 */
+	public List<Integer> getPageNumbers() {
+		return Collections.unmodifiableList(new ArrayList<>(pageLinks.keySet()));
+	}
+
+	/**
+	 * Returns the URL of a result page, from its pager link or, for pages the
+	 * pager does not link to, from the page parameter.
+	 *
+	 * @param pageNumber The page number.
+	 * @return The URL of the page, or null if the page is not between 1 and the last page.
+	 */
+	public String getPageUrl(int pageNumber) {
+		if (pageNumber < 1 || pageNumber > lastPage) {
+			return null;
+		}
+		String href = pageLinks.get(pageNumber);
+		return href != null ? href : urlUtilities.getResultPageUrl(pageUrl, pageNumber);
+	}
+}
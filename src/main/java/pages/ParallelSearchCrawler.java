@@ -0,0 +1,117 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.openqa.selenium.WebDriver;
+
+import webutilities.UrlUtilities;
+
+/**
+ * Crawls the pages of a search result set in parallel. The page range is split
+ * into contiguous shards, each shard is crawled by its own browser session that
+ * navigates straight to its pages, and the results are merged in page order.
+ * Each page's titles are read once its product listing has rendered.
+ */
+public class ParallelSearchCrawler {
+	private static final Logger logger = LogManager.getLogger(ParallelSearchCrawler.class);
+	private final Supplier<WebDriver> sessionFactory;
+	private final int sessionCount;
+	private UrlUtilities urlUtilities = new UrlUtilities();
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the ParallelSearchCrawler.
+	 *
+	 * @param sessionFactory Creates a new, ready to use browser session for each shard.
+	 * @param sessionCount   The maximum number of browser sessions to run at once.
+	 * @throws IllegalArgumentException If sessionCount is less than 1.
+	 */
+	public ParallelSearchCrawler(Supplier<WebDriver> sessionFactory, int sessionCount) {
+		if (sessionCount < 1) {
+			throw new IllegalArgumentException("Session count must be at least 1 but was " + sessionCount);
+		}
+		this.sessionFactory = sessionFactory;
+		this.sessionCount = sessionCount;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Finds all titles in the search results that are missing a specified keyword,
+	 * crawling the result pages across several browser sessions.
+	 *
+	 * @param searchUrl  The URL of any page of the search results.
+	 * @param totalPages The number of result pages to crawl; less than 1 crawls the first page only.
+	 * @param keyword    The keyword to search for in titles.
+	 * @return An array of titles that do not contain the specified keyword, in page order.
+	 * @throws IllegalStateException If a shard fails or the crawl is interrupted.
+	 */
+	public String[] findAllTitlesMissingKeyword(String searchUrl, int totalPages, String keyword) {
+		// A result set without a pager still has its first page
+		int pageCount = Math.max(1, totalPages);
+		// Never start more sessions than there are pages
+		int shardCount = Math.min(sessionCount, pageCount);
+		ExecutorService executor = Executors.newFixedThreadPool(shardCount);
+		try {
+			// Submit one task per shard of contiguous pages
+			List<Future<List<String>>> shards = new ArrayList<>();
+			for (int shard = 0; shard < shardCount; shard++) {
+				final int firstPage = 1 + (int) ((long) pageCount * shard / shardCount);
+				final int lastPage = (int) ((long) pageCount * (shard + 1) / shardCount);
+				shards.add(executor.submit(() -> crawlShard(searchUrl, firstPage, lastPage, keyword)));
+			}
+			// Merge the shard results in page order
+			List<String> missingItemsList = new ArrayList<>();
+			for (Future<List<String>> shard : shards) {
+				missingItemsList.addAll(shard.get());
+			}
+			return missingItemsList.toArray(new String[0]);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Parallel crawl was interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("A crawl shard failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Crawls a contiguous range of result pages in a new browser session.
+	 *
+	 * @param searchUrl The URL of any page of the search results.
+	 * @param firstPage The first page of the shard (inclusive).
+	 * @param lastPage  The last page of the shard (inclusive).
+	 * @param keyword   The keyword to search for in titles.
+	 * @return The titles missing the keyword on the shard's pages, in page order.
+	 */
+	private List<String> crawlShard(String searchUrl, int firstPage, int lastPage, String keyword) {
+		List<String> missingItemsList = new ArrayList<>();
+		logger.info("Crawling result pages {}-{}", firstPage, lastPage);
+		WebDriver driver = sessionFactory.get();
+		try {
+			SearchPageFactory searchPage = new SearchPageFactory(driver);
+			for (int page = firstPage; page <= lastPage; page++) {
+				// Jump straight to the page instead of clicking through the pager
+				driver.get(urlUtilities.getResultPageUrl(searchUrl, page));
+				// The page may still be parsing under a lean page load strategy
+				if (!searchPage.awaitProductListing()) {
+					logger.warn("Result page {} did not show its product listing", page);
+				}
+				searchPage.checkTitlesForMissingKeyword(keyword, missingItemsList);
+			}
+		} finally {
+			driver.quit();
+		}
+		return missingItemsList;
+	}
+}
@@ -0,0 +1,57 @@
+package pages;
+
+/**
+ * A product in the search results, by the page it is on and its position on that page.
+ */
+public class ResultItem {
+	private final int pageNumber;
+	private final int itemIndex;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the ResultItem.
+	 *
+	 * @param pageNumber The search result page (1-based).
+	 * @param itemIndex  The position of the product on that page (1-based).
+	 * @throws IllegalArgumentException If either number is less than 1.
+	 */
+	public ResultItem(int pageNumber, int itemIndex) {
+		if (pageNumber < 1 || itemIndex < 1) {
+			throw new IllegalArgumentException("Page " + pageNumber + " item " + itemIndex + " is not a result item");
+		}
+		this.pageNumber = pageNumber;
+		this.itemIndex = itemIndex;
+	}
+
+// Methods*****************************************************************
+
+	public int getPageNumber() {
+		return pageNumber;
+	}
+
+	public int getItemIndex() {
+		return itemIndex;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof ResultItem)) {
+			return false;
+		}
+		ResultItem item = (ResultItem) other;
+		return pageNumber == item.pageNumber && itemIndex == item.itemIndex;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * pageNumber + itemIndex;
+	}
+
+	@Override
+	public String toString() {
+		return "page " + pageNumber + " item " + itemIndex;
+	}
+}
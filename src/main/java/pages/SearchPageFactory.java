@@ -1,477 +1,1299 @@
-package pages;
-
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.Set;
-
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
-import org.openqa.selenium.By;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
-
-import webutilities.TextParsingUtilities;
-
-public class SearchPageFactory {
-	private WebDriver driver;
-	private TextParsingUtilities textParsingUtilities = new TextParsingUtilities();
-	private static final Logger logger = LogManager.getLogger(SearchPageFactory.class);
-
-// WebElements*************************************************************
-	@FindBy(name = "searchval")
-	private WebElement searchBox;
-
-	@FindBy(xpath = "//div[@class='hidden flex-1 ml-0 lt:" + "flex max-w-[900px]']//button[@value='Search']")
-	private WebElement searchButton;
-
-	@FindBy(xpath = "//h1[@class='page-header search--title']")
-	private WebElement headerSearchTitle;
-	
-	@FindBy(xpath = "//div[@id='paging']//li/a[contains(@aria-label, 'current page')]")
-	private WebElement currentPageNumbertext;
-
-	@FindBy(xpath = "//div[@id='paging']//li/a[contains(@aria-label, 'last page')]")
-	private WebElement lastPageNumbertext;
-
-	@FindBy(xpath = "//div[@id='paging']//ul/li[last()]/a")
-	private WebElement nextPage;
-	
-	@FindBy(xpath = "//div[@id='paging']//ul/li")
-	private WebElement toPages;
-	
-	@FindBy(xpath = "//div[@id='paging']//ul/li/a")
-	private List<WebElement> pagesList;
-
-	@FindBy(xpath = "//a[contains(@aria-label, 'Your cart')]")
-	private WebElement openCart;
-
-	@FindBy(id = "add-to-cart-button")
-	private WebElement addToCartButton;
-
-	@FindBy(xpath = "//span[@data-testid = 'itemDescription']")
-	private List<WebElement> productDescription;
-
-	@FindBy(id = "product_listing")
-	private WebElement productListings;
-
-	@FindBy(xpath = "//div[@id='product_listing']/div")
-	private List<WebElement> productsOnPage;
-
-	@FindBy(xpath = "//button[text()='Empty Cart']")
-	private WebElement cartPopup;
-
-	@FindBy(xpath = "//footer/button[following-sibling::button[text()='Cancel'][1]]")
-	private WebElement EmptyCartVerify;
-	
-	@FindBy(xpath = "//button[text()='Empty Cart']")
-	private WebElement emptyCart;
-	
-	@FindBy(xpath = "//div[@class='empty-cart__inner']")
-	private WebElement emptyCartScreen;
-	
-	@FindBy(xpath = "//div[@class='cartItems']//li[@data-cart-item-id]"
-			+ "//span[@class='itemDescription description overflow-visible']/a")
-	private List<WebElement> cartItemDescription;		
-	
-
-// Constructor*************************************************************
-	/**
-	 * Initializes a new instance of the SearchPageFactory.
-	 *
-	 * @param driver The WebDriver instance used for page initialization.
-	 */
-	public SearchPageFactory(WebDriver driver) {
-		this.driver = driver;
-		PageFactory.initElements(driver, this);
-	}
-
-// Methods*****************************************************************
-
-	/**
-	 * Searches for a product using the provided product name.
-	 *
-	 * @param productName The name of the product to search for.
-	 * @throws NoSuchElementException If the searchBox WebElement is not found, this exception is caught and logged.
-	 */
-	public void searchForProduct(String productName) {
-	    try {
-	        // Try to send the product name to the searchBox element and submit the form
-	        searchBox.sendKeys(productName);
-	        searchBox.submit();
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	    }
-	}
-
-	/**
-	 * Clears the search box.
-	 *
-	 * @throws NoSuchElementException If the searchBox WebElement is not found, this exception is caught and logged.
-	 */
-	public void clearSearchBox() {
-	    try {
-	        // Try to clear the searchBox element
-	        searchBox.clear();
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	    }
-	}
-	
-	/**
-	 * Navigates to the next page of search results.
-	 *
-	 * @throws NoSuchElementException If the nextPage WebElement is not found, this exception is caught and logged.
-	 */
-	public void goToNextResultPage() {
-	    try {
-	        // Try to click on the nextPage element
-	        nextPage.click();
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	    }
-	}
-
-	/**
-	 * Navigates to the cart page.
-	 *
-	 * @throws NoSuchElementException If the openCart WebElement is not found, this exception is caught and logged.
-	 */
-	public void goToCartPage() {
-	    try {
-	        // Try to click on the openCart element
-	        openCart.click();
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	    }
-	}
-
-	/**
-	 * Clicks on the 'empty cart' button.
-	 *
-	 * @throws NoSuchElementException If the emptyCart WebElement is not found, this exception is caught and logged.
-	 */
-	public void clickEmptyCart() {
-	    try {
-	        // Try to click on the emptyCart element
-	        emptyCart.click();
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	    }
-	}
-	
-	/**
-	 * Verifies if the cart is empty by clicking on the 'EmptyCartVerify' element.
-	 *
-	 * @throws NoSuchElementException If the 'EmptyCartVerify' WebElement is not found, this exception is caught and logged.
-	 */
-	public void emptyCartVerify() {
-	    try {
-	        // Try to click on the 'EmptyCartVerify' element
-	        EmptyCartVerify.click();
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	    }
-	}
-
-	/**
-	 * Checks if the cart is empty.
-	 *
-	 * @return true if the cart is empty, false if the WebElement is not found or the cart is not empty.
-	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and the method returns false.
-	 */
-	public boolean isEmptyCartPresent() {
-	    try {
-	        // Try to check if the 'emptyCart' element is displayed
-	        return emptyCart.isDisplayed();
-	    } catch (NoSuchElementException e) {
-	        // If the WebElement is not found, return false
-	        return false;
-	    }
-	}
-	
-	/**
-	 * Checks if the cart empty screen is present.
-	 *
-	 * @return true if the cart empty screen is displayed, false if the WebElement is not found or the cart is not empty.
-	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and the method returns false.
-	 */
-	public boolean isCartEmptyScreenPresent() {
-	    try {
-	        // Try to check if the 'emptyCartScreen' element is displayed
-	        return emptyCartScreen.isDisplayed();
-	    } catch (NoSuchElementException e) {
-	        // If the WebElement is not found, return false
-	        return false;
-	    }
-	}
-	
-	/**
-	 * Retrieves the page numbers from the list of pages.
-	 *
-	 * @return A list of integers representing the page numbers. If no pages are found, this method returns an empty list.
-	 */
-	public List<Integer> getPageNumbers() {
-	    // Create a set to store the page numbers (a set is used to avoid duplicates)
-	    Set<Integer> pageNumbersSet = new HashSet<>();    
-	    // Iterate over each page in the list of pages
-	    for (WebElement page : pagesList) {
-	        // Get the 'aria-label' attribute of the page element
-	        String ariaLabel = page.getAttribute("aria-label");   
-	        // Split the 'aria-label' text into parts
-	        String[] parts = ariaLabel.split(" ");
-	        // Parse the last part as an integer (assuming it's the page number)
-	        int pageNumber = Integer.parseInt(parts[parts.length - 1]);
-	        // Add the page number to the set
-	        pageNumbersSet.add(pageNumber);
-	    }
-	    // Convert the set of page numbers to a list and return it
-	    return new ArrayList<>(pageNumbersSet);
-	}
-
-	/**
-	 * Navigates to the specified page number in the search results.
-	 *
-	 * @param pageNumber The page number to navigate to.
-	 * @throws IllegalArgumentException If the specified page number is not in the list of page numbers.
-	 * @throws NoSuchElementException If the WebElement representing the page number link is not found.
-	 */
-	public void goToResultPage(int pageNumber) {
-	    // Get the list of page numbers
-	    List<Integer> pageNumbers = getPageNumbers();
-	    // Check if the requested page number is in the list of page numbers
-	    boolean isPageInList = pageNumbers.contains(pageNumber);
-	    // If the page number is not in the list, throw an exception or log a message
-	    if (!isPageInList) {
-	        try {
-	            throw new IllegalArgumentException("Page number " + pageNumber + " is not in the list of page numbers.");
-	        } catch (IllegalArgumentException e) {
-	            // Log the exception
-	            logger.error("An error occurred: ", e);
-	        }
-	    }
-	    // Define the XPath for the page number link
-	    String xpath = String.format("//div[@id='paging']//ul/li/a[contains(@aria-label, 'page %d')]", pageNumber);
-	    // Locate the WebElement using the formatted XPath
-	    WebElement item = toPages.findElement(By.xpath(xpath));
-	    // Click the requested page's button
-	    item.click();		
-	}
-
-	/**
-	 * Returns the count of search results.
-	 *
-	 * @return The count of search results. If no search results are found or if the WebElement is not found, this method returns 0.
-	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and the method returns 0.
-	 */
-	public int returnSearchResultCount() {
-	    try {
-	        // Try to get the title text from the header element
-	        String titleText = headerSearchTitle.getText();
-	        // Create an instance of TextParsingUtilities and extract the integer count from the title text
-	        return new TextParsingUtilities().getIntegerFromText(titleText);
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	        // If the WebElement is not found, return 0
-	        return 0;
-	    }
-	}
-
-	/**
-	 * Returns the count of search result pages.
-	 *
-	 * @return The count of search result pages. If no search results are found or if the WebElement is not found, this method returns 0.
-	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and the method returns 0.
-	 */
-	public int returnSearchPageCount() {
-	    try {
-	        // Try to get the text from the 'lastPageNumbertext' element
-	        String pagingText = lastPageNumbertext.getText();
-	        // Use a utility method to extract the integer from the text
-	        return textParsingUtilities.getIntegerFromText(pagingText);
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	        // If the WebElement is not found, return 0
-	        return 0;
-	    }
-	}
-
-	/**
-	 * Returns the current page number of search results from the search page
-	 * currentPageNumbertext.
-	 *
-	 * @return The integer pageNumber extracted from the pagingText (or 0 if not
-	 *         parsable or if the WebElement is not found).
-	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and the method returns 0.
-	 */
-	public int returnCurrentSearchPageNumber() {
-	    try {
-	        // Try to get the text from the 'currentPageNumbertext' element
-	        String pagingText = currentPageNumbertext.getText();
-	        // Use a utility method to extract the integer from the text
-	        return textParsingUtilities.getIntegerFromText(pagingText);
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	        // If the WebElement is not found, return 0
-	        return 0;
-	    }
-	}
-
-	/**
-	 * This method is used to find all titles in the search results that are missing
-	 * a specified keyword.
-	 *
-	 * @param keyword The keyword to search for in titles.
-	 * @return An array of titles that do not contain the specified keyword.
-	 */
-	public String[] findAllTitlesMissingKeyword(String keyword) {
-		// Initialize a list to store the titles missing the keyword
-		List<String> missingItemsList = new ArrayList<>();
-		// Set the current page to 1
-		int currentPage = 1;
-		// Get the total number of pages in the search results
-		int totalPages = returnSearchPageCount();
-		// Loop through each page in the search results
-		while (currentPage <= totalPages) {
-			// Check the titles on the current page for the keyword and add any missing
-			// titles to the list
-			checkTitlesForMissingKeyword(keyword, missingItemsList);
-			// Go to the next page of search results
-			goToNextResultPage();
-			// Increment the current page number
-			currentPage++;
-		}
-		// If the list of missing titles is empty, print a message indicating that no
-		// titles are missing the keyword
-		if (missingItemsList.isEmpty()) {
-			logger.info("No titles missing the keyword '" + keyword + "'.");
-		}
-		// Convert the list of missing titles to an array and return it
-		return missingItemsList.toArray(new String[0]);
-	}
-
-	/**
-	 * Checks product titles for a missing keyword and adds them to a list if the
-	 * keyword is not found.
-	 *
-	 * @param keyword          The keyword to search for in the titles.
-	 * @param missingItemsList A list to store titles missing the keyword.
-	 */
-	private void checkTitlesForMissingKeyword(String keyword, List<String> missingItemsList) {
-		// Iterate through each WebElement representing a product title
-		for (WebElement title : productDescription) {
-			// Convert the title text to lowercase for case-insensitive comparison
-			String lowercaseTitle = title.getText().toLowerCase();
-			// If the lowercase title does not contain the specified keyword
-			if (!lowercaseTitle.contains(keyword)) {
-				// Add the title to the missingItemsList
-				missingItemsList.add(title.getText());
-			}
-		}
-	}
-
-	/**
-	 * This method is used to get the count of items on a page.
-	 *
-	 * @return int This returns the total number of items on the page. If the WebElement is not found, this method returns 0.
-	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and the method returns 0.
-	 */
-	public int getPageItemCount() {
-	    try {
-	        // Try to initialize a list of WebElements with the products on the page
-	        List<WebElement> items = productsOnPage;
-	        // Calculate the count of the items on the page
-	        int pageItemCount = items.size();
-	        // Return the count of items on the page
-	        return pageItemCount;
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	        // If the WebElement is not found, return 0
-	        return 0;
-	    }
-	}
-
-	/**
-	 * Retrieves the description of an item from a webpage, given the item's number.
-	 *
-	 * @param itemNumber The number of the item.
-	 * @return The description of the item. If the WebElement is not found, this method returns an empty string.
-	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and logged.
-	 */
-	public String getSearchItemDescription(int itemNumber) {
-	    try {
-	        // Use String.format to insert the itemNumber into the XPath
-	        String xpath = String.format("//div[@id = 'product_listing']//div[%d]//span[@data-testid='itemDescription']", itemNumber);
-	        // Try to locate WebElement using the formatted XPath
-	        WebElement item = productListings.findElement(By.xpath(xpath));
-	        // Get the text of the item (the description)
-	        String itemDescription = item.getText();
-	        // Return the item description
-	        return itemDescription;
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	        // If the WebElement is not found, return an empty string
-	        return "";
-	    }
-	}
-
-	/**
-	 * Retrieves the description of a cart item, given the item's number.
-	 *
-	 * @param itemNumber The number of the item in the cart.
-	 * @return The description of the cart item. If the WebElement is not found, this method returns an empty string.
-	 * @throws IndexOutOfBoundsException If the itemNumber is out of range (itemNumber < 0 || itemNumber >= cartItemDescription.size()), this exception is caught and logged.
-	 */
-	public String getCartItemDescription(int itemNumber) {
-	    try {
-	        // Try to get the cart item WebElement using the item number
-	        WebElement item = cartItemDescription.get(itemNumber);
-	        // Try to get the text of the item (the description)
-	        String description = item.getText();
-	        // Return the item description
-	        return description;
-	    } catch (IndexOutOfBoundsException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	        // If the itemNumber is out of range, return an empty string
-	        return "";
-	    }
-	}
-
-	/**
-	 * Chooses a product from the list of available product links and adds it to the
-	 * cart.
-	 *
-	 * @param productIndex The index of the product to choose (1-based).
-	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and logged.
-	 */
-	public void AddItemToCart(int itemNumber) {
-	    try {
-	        // Use String.format to insert the itemNumber into the XPath
-	        String xpath = String.format("//div[@id = 'product_listing']//div[%d]//input[@type='submit']", itemNumber);
-	        // Try to locate WebElement using the formatted XPath
-	        WebElement item = productListings.findElement(By.xpath(xpath));
-	        // Try to click the "Add to Cart" button
-	        item.click();
-	    } catch (NoSuchElementException e) {
-	        // Log the exception
-	        logger.error("An error occurred: ", e);
-	        // You can add additional actions here, such as notifying the user that the item is out of stock
-	    }
-	}
-}
\ No newline at end of file
+package pages;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import webutilities.LatencyRecorder;
+import webutilities.PageMetricsRecorder;
+import webutilities.TextParsingUtilities;
+import webutilities.TitleFingerprint;
+import webutilities.TitleRuleSet;
+
+import static pages.SearchPageLocators.*;
+
+public class SearchPageFactory implements SearchResultsReader {
+	private WebDriver driver;
+	private TextParsingUtilities textParsingUtilities = new TextParsingUtilities();
+	private static final Logger logger = LogManager.getLogger(SearchPageFactory.class);
+
+// Constants*************************************************************
+	// Default timeout and polling interval for presence and visibility probes
+	private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(2);
+
+	private static final Duration PROBE_POLLING_INTERVAL = Duration.ofMillis(100);
+
+	// Returns the text of every element matching a CSS selector in a single round trip
+	private static final String READ_ALL_TEXTS_SCRIPT = 
+			"var nodes = document.querySelectorAll(arguments[0]);"
+			+ "var texts = [];"
+			+ "for (var i = 0; i < nodes.length; i++) {"
+			+ "  texts.push((nodes[i].innerText || nodes[i].textContent || '').trim());"
+			+ "}"
+			+ "return texts;";
+
+	// Longest a result page may take to render its pager or product listing, as long as the implicit wait
+	private static final Duration PAGE_RENDER_TIMEOUT = Duration.ofSeconds(10);
+
+	// Longest a pagination click may take to show the next page
+	private static final Duration PAGE_TRANSITION_TIMEOUT = Duration.ofSeconds(10);
+
+	// Longest the cart may take to take in one item, and to empty
+	private static final Duration CART_SETTLE_TIMEOUT = Duration.ofSeconds(10);
+
+	// How long the cart link must stay unchanged after a change to count as settled
+	private static final Duration CART_QUIET_PERIOD = Duration.ofMillis(500);
+
+	// Clicks the add to cart button of each item once the cart has changed for the previous
+	// one and settled, so every add request is answered before the next is sent, then calls
+	// back; returns the description of each item, or null for a missing item
+	private static final String ADD_ITEMS_TO_CART_SCRIPT =
+			"var items = arguments[0], cartCss = arguments[1], quietMs = arguments[2], timeoutMs = arguments[3];"
+			+ "var done = arguments[arguments.length - 1];"
+			+ "function first(xpath) {"
+			+ "  return document.evaluate(xpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+			+ "}"
+			+ "var descriptions = [], next = 0, finished = false, quietTimer = null, deadline = null, observer = null;"
+			+ "var cart = document.querySelector(cartCss);"
+			+ "function finish(settled) {"
+			+ "  if (finished) { return; }"
+			+ "  finished = true;"
+			+ "  if (observer) { observer.disconnect(); }"
+			+ "  clearTimeout(quietTimer);"
+			+ "  clearTimeout(deadline);"
+			+ "  done({descriptions: descriptions, settled: settled});"
+			+ "}"
+			+ "function clickNext() {"
+			+ "  if (finished) { return; }"
+			+ "  while (next < items.length) {"
+			+ "    var description = first(items[next][1]);"
+			+ "    var button = first(items[next][0]);"
+			+ "    next++;"
+			+ "    descriptions.push(description && button ? (description.innerText || description.textContent || '').trim() : null);"
+			+ "    if (button) {"
+			+ "      button.click();"
+			+ "      if (!cart) { quietTimer = setTimeout(clickNext, quietMs); }"
+			+ "      return;"
+			+ "    }"
+			+ "  }"
+			+ "  finish(!!cart);"
+			+ "}"
+			+ "if (cart) {"
+			+ "  observer = new MutationObserver(function () {"
+			+ "    clearTimeout(quietTimer);"
+			+ "    quietTimer = setTimeout(clickNext, quietMs);"
+			+ "  });"
+			+ "  observer.observe(cart.parentNode || cart, {subtree: true, childList: true, attributes: true, characterData: true});"
+			+ "}"
+			+ "deadline = setTimeout(function () { finish(false); }, timeoutMs);"
+			+ "clickNext();";
+
+	// Clicks 'Empty Cart', then the confirmation, then calls back with whether the empty cart screen appeared
+	private static final String EMPTY_CART_SCRIPT =
+			"var emptyXpath = arguments[0], confirmXpath = arguments[1], emptyScreenCss = arguments[2], timeoutMs = arguments[3];"
+			+ "var done = arguments[arguments.length - 1];"
+			+ "function first(xpath) {"
+			+ "  return document.evaluate(xpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+			+ "}"
+			+ "var start = Date.now(), stage = 0;"
+			+ "function poll() {"
+			+ "  if (stage === 0) {"
+			+ "    var emptyButton = first(emptyXpath);"
+			+ "    if (emptyButton) { emptyButton.click(); stage = 1; }"
+			+ "  } else if (stage === 1) {"
+			+ "    var confirmButton = first(confirmXpath);"
+			+ "    if (confirmButton) { confirmButton.click(); stage = 2; }"
+			+ "  } else {"
+			+ "    var screen = document.querySelector(emptyScreenCss);"
+			+ "    if (screen && (screen.offsetWidth || screen.offsetHeight)) { done(true); return; }"
+			+ "  }"
+			+ "  if (Date.now() - start > timeoutMs) { done(false); return; }"
+			+ "  setTimeout(poll, 50);"
+			+ "}"
+			+ "poll();";
+
+// WebElements*************************************************************
+	/**
+	 * The page's elements, initialized by PageFactory. They are kept apart from
+	 * the page object so its constructor does not hand out a partly built this.
+	 */
+	private static final class Elements {
+		@FindBy(name = SEARCH_BOX_NAME)
+		private WebElement searchBox;
+
+		@FindBy(xpath = SEARCH_BUTTON_XPATH)
+		private WebElement searchButton;
+
+		@FindBy(css = NEXT_PAGE_CSS)
+		private WebElement nextPage;
+
+		@FindBy(css = OPEN_CART_CSS)
+		private WebElement openCart;
+
+		@FindBy(id = ADD_TO_CART_BUTTON_ID)
+		private WebElement addToCartButton;
+
+		@FindBy(css = PRODUCT_DESCRIPTION_CSS)
+		private List<WebElement> productDescription;
+
+		@FindBy(css = PRODUCT_LISTING_CSS)
+		private WebElement productListings;
+
+		@FindBy(xpath = EMPTY_CART_XPATH)
+		private WebElement cartPopup;
+
+		@FindBy(xpath = EMPTY_CART_VERIFY_XPATH)
+		private WebElement EmptyCartVerify;
+
+		@FindBy(xpath = EMPTY_CART_XPATH)
+		private WebElement emptyCart;
+
+		@FindBy(css = CART_ITEM_DESCRIPTION_CSS)
+		private List<WebElement> cartItemDescription;
+	}
+
+	private final Elements elements = new Elements();
+
+	// Elements read repeatedly from the same page are resolved once per page generation
+	private final ElementCache elementCache;
+
+	// Records the latency of each page-object method
+	private final LatencyRecorder latencyRecorder;
+
+	// Pager of the current page, valid while the element cache generation is unchanged
+	private PaginationModel paginationModel;
+	private int paginationGeneration = -1;
+
+	// Whether reads are answered from a capture of the page instead of live queries
+	private final boolean snapshotReads;
+
+	// Capture of the current page, valid while the element cache generation is unchanged
+	private SearchResultsDocument snapshot;
+	private int snapshotGeneration = -1;
+
+	// Records the browser's performance figures after each navigation step
+	private final PageMetricsRecorder pageMetrics;
+
+	// Timings of the navigation steps taken through this page object, in order
+	private final List<PageTimings> stepTimings = new ArrayList<>();
+	// The document the last recorded timings belong to
+	private String lastTimedDocument;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new instance of the SearchPageFactory.
+	 *
+	 * @param driver The WebDriver instance used for page initialization.
+	 */
+	public SearchPageFactory(WebDriver driver) {
+		this(driver, LatencyRecorder.DISABLED);
+	}
+
+	/**
+	 * Initializes a new instance of the SearchPageFactory that records the latency
+	 * of each page-object method.
+	 *
+	 * @param driver          The WebDriver instance used for page initialization.
+	 * @param latencyRecorder The recorder the method latencies are recorded into.
+	 */
+	public SearchPageFactory(WebDriver driver, LatencyRecorder latencyRecorder) {
+		this(driver, latencyRecorder, false);
+	}
+
+	/**
+	 * Initializes a new instance of the SearchPageFactory that can answer reads
+	 * from a snapshot of the page. In snapshot mode the search header, pager and
+	 * product listing are captured in one round trip after each navigation and
+	 * parsed in the JVM; the result count, page count, current page, page
+	 * numbers, item count, item descriptions and product titles are then read
+	 * from that capture, so the values of one page are consistent with each
+	 * other. Text is read from the markup, with whitespace normalized, rather
+	 * than as the browser renders it.
+	 *
+	 * @param driver          The WebDriver instance used for page initialization.
+	 * @param latencyRecorder The recorder the method latencies are recorded into.
+	 * @param snapshotReads   true to answer reads from a snapshot of the page.
+	 */
+	public SearchPageFactory(WebDriver driver, LatencyRecorder latencyRecorder, boolean snapshotReads) {
+		this(driver, latencyRecorder, snapshotReads, PageMetricsRecorder.DISABLED);
+	}
+
+	/**
+	 * Initializes a new instance of the SearchPageFactory that also reads the
+	 * browser's performance figures after every searchForProduct,
+	 * goToNextResultPage, goToResultPage and goToCartPage, at the cost of one
+	 * script call per step. The figures of each step are kept in getStepTimings()
+	 * and recorded into pageMetrics for the run's percentiles.
+	 *
+	 * @param driver          The WebDriver instance used for page initialization.
+	 * @param latencyRecorder The recorder the method latencies are recorded into.
+	 * @param snapshotReads   true to answer reads from a snapshot of the page.
+	 * @param pageMetrics     The recorder the performance figures are recorded into; DISABLED reads none.
+	 */
+	public SearchPageFactory(WebDriver driver, LatencyRecorder latencyRecorder, boolean snapshotReads,
+			PageMetricsRecorder pageMetrics) {
+		this.driver = driver;
+		this.elementCache = new ElementCache(driver);
+		this.latencyRecorder = latencyRecorder;
+		this.snapshotReads = snapshotReads;
+		this.pageMetrics = pageMetrics;
+		PageFactory.initElements(driver, elements);
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Searches for a product using the provided product name.
+	 *
+	 * @param productName The name of the product to search for.
+	 * @throws NoSuchElementException If the searchBox WebElement is not found, this exception is caught and logged.
+	 */
+	@Override
+	public void searchForProduct(String productName) {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Try to send the product name to the searchBox element and submit the form
+	        elements.searchBox.sendKeys(productName);
+	        elements.searchBox.submit();
+	        // The page changed, drop cached element handles
+	        elementCache.invalidate();
+	        // Read how fast the results page loaded
+	        capturePageTimings("searchForProduct");
+	    } catch (NoSuchElementException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	    } finally {
+	        latencyRecorder.record("searchForProduct", startNanos);
+	    }
+	}
+
+	/**
+	 * Clears the search box.
+	 *
+	 * @throws NoSuchElementException If the searchBox WebElement is not found, this exception is caught and logged.
+	 */
+	public void clearSearchBox() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Try to clear the searchBox element
+	        elements.searchBox.clear();
+	    } catch (NoSuchElementException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	    } finally {
+	        latencyRecorder.record("clearSearchBox", startNanos);
+	    }
+	}
+	
+	/**
+	 * Navigates to the next page of search results and returns once the browser
+	 * shows the new product listing and page number, or after a bounded timeout.
+	 *
+	 * @throws NoSuchElementException If the nextPage WebElement is not found, this exception is caught and logged.
+	 */
+	public void goToNextResultPage() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Mark the current page so its replacement can be told apart from it
+	        PageTransitionDetector transition = new PageTransitionDetector(driver, PAGE_TRANSITION_TIMEOUT);
+	        boolean armed = transition.arm();
+	        // Try to click on the nextPage element
+	        elements.nextPage.click();
+	        // Wait for the next page to render instead of reading the old one
+	        if (armed && !transition.awaitTransition()) {
+	            logger.warn("The next result page did not appear within {}", PAGE_TRANSITION_TIMEOUT);
+	        }
+	        // The page changed, drop cached element handles
+	        elementCache.invalidate();
+	        // Read how fast the next page loaded
+	        capturePageTimings("goToNextResultPage");
+	    } catch (NoSuchElementException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	    } finally {
+	        latencyRecorder.record("goToNextResultPage", startNanos);
+	    }
+	}
+
+	/**
+	 * Navigates to the cart page.
+	 *
+	 * @throws NoSuchElementException If the openCart WebElement is not found, this exception is caught and logged.
+	 */
+	public void goToCartPage() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Try to click on the openCart element
+	        elements.openCart.click();
+	        // The page changed, drop cached element handles
+	        elementCache.invalidate();
+	        // Read how fast the cart page loaded
+	        capturePageTimings("goToCartPage");
+	    } catch (NoSuchElementException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	    } finally {
+	        latencyRecorder.record("goToCartPage", startNanos);
+	    }
+	}
+
+	/**
+	 * Clicks on the 'empty cart' button.
+	 *
+	 * @throws NoSuchElementException If the emptyCart WebElement is not found, this exception is caught and logged.
+	 */
+	public void clickEmptyCart() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Try to click on the emptyCart element
+	        elements.emptyCart.click();
+	        // The page changed, drop cached element handles
+	        elementCache.invalidate();
+	    } catch (NoSuchElementException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	    } finally {
+	        latencyRecorder.record("clickEmptyCart", startNanos);
+	    }
+	}
+	
+	/**
+	 * Verifies if the cart is empty by clicking on the 'EmptyCartVerify' element.
+	 *
+	 * @throws NoSuchElementException If the 'EmptyCartVerify' WebElement is not found, this exception is caught and logged.
+	 */
+	public void emptyCartVerify() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Try to click on the 'EmptyCartVerify' element
+	        elements.EmptyCartVerify.click();
+	        // The page changed, drop cached element handles
+	        elementCache.invalidate();
+	    } catch (NoSuchElementException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	    } finally {
+	        latencyRecorder.record("emptyCartVerify", startNanos);
+	    }
+	}
+
+	/**
+	 * Checks if the 'Empty Cart' button is displayed, waiting at most the default probe timeout.
+	 *
+	 * @return true if the 'Empty Cart' button is displayed, false if it does not appear in time.
+	 */
+	public boolean isEmptyCartPresent() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Probe for the 'emptyCart' element without waiting for the implicit wait
+	        return isElementVisible(By.xpath(EMPTY_CART_XPATH));
+	    } finally {
+	        latencyRecorder.record("isEmptyCartPresent", startNanos);
+	    }
+	}
+	
+	/**
+	 * Checks if the cart empty screen is displayed, waiting at most the default probe timeout.
+	 *
+	 * @return true if the cart empty screen is displayed, false if it does not appear in time.
+	 */
+	public boolean isCartEmptyScreenPresent() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Probe for the 'emptyCartScreen' element without waiting for the implicit wait
+	        return isElementVisible(By.cssSelector(EMPTY_CART_SCREEN_CSS));
+	    } finally {
+	        latencyRecorder.record("isCartEmptyScreenPresent", startNanos);
+	    }
+	}
+
+	/**
+	 * Checks if an element is present, waiting at most the default probe timeout.
+	 *
+	 * @param locator The locator of the element.
+	 * @return true if the element is in the DOM, false if it does not appear in time.
+	 */
+	public boolean isElementPresent(By locator) {
+		return isElementPresent(locator, PROBE_TIMEOUT, PROBE_POLLING_INTERVAL);
+	}
+
+	/**
+	 * Checks if an element is present. The implicit wait is suspended during the
+	 * probe, so an expected absence returns after the given timeout rather than
+	 * after the implicit wait.
+	 *
+	 * @param locator         The locator of the element.
+	 * @param timeout         The maximum time to wait for the element; Duration.ZERO checks once.
+	 * @param pollingInterval The time between checks.
+	 * @return true if the element is in the DOM, false if it does not appear in time.
+	 */
+	public boolean isElementPresent(By locator, Duration timeout, Duration pollingInterval) {
+		return probe(locator, timeout, pollingInterval, false);
+	}
+
+	/**
+	 * Checks if an element is displayed, waiting at most the default probe timeout.
+	 *
+	 * @param locator The locator of the element.
+	 * @return true if the element is displayed, false if it does not become visible in time.
+	 */
+	public boolean isElementVisible(By locator) {
+		return isElementVisible(locator, PROBE_TIMEOUT, PROBE_POLLING_INTERVAL);
+	}
+
+	/**
+	 * Checks if an element is displayed. The implicit wait is suspended during the
+	 * probe, so an expected absence returns after the given timeout rather than
+	 * after the implicit wait.
+	 *
+	 * @param locator         The locator of the element.
+	 * @param timeout         The maximum time to wait for the element; Duration.ZERO checks once.
+	 * @param pollingInterval The time between checks.
+	 * @return true if the element is displayed, false if it does not become visible in time.
+	 */
+	public boolean isElementVisible(By locator, Duration timeout, Duration pollingInterval) {
+		return probe(locator, timeout, pollingInterval, true);
+	}
+
+	/**
+	 * Polls for an element with the implicit wait set to zero, restoring the
+	 * implicit wait afterwards.
+	 *
+	 * @param locator         The locator of the element.
+	 * @param timeout         The maximum time to wait for the element.
+	 * @param pollingInterval The time between checks.
+	 * @param mustBeVisible   Whether the element must also be displayed.
+	 * @return true if a matching element was found in time.
+	 */
+	private boolean probe(By locator, Duration timeout, Duration pollingInterval, boolean mustBeVisible) {
+		Duration implicitWait = driver.manage().timeouts().getImplicitWaitTimeout();
+		driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+		try {
+			return new FluentWait<>(driver)
+					.withTimeout(timeout)
+					.pollingEvery(pollingInterval)
+					.ignoring(StaleElementReferenceException.class)
+					.until(d -> {
+						// findElements returns an empty list instead of throwing when nothing matches
+						for (WebElement element : d.findElements(locator)) {
+							if (!mustBeVisible || element.isDisplayed()) {
+								return true;
+							}
+						}
+						return null;
+					});
+		} catch (TimeoutException e) {
+			return false;
+		} finally {
+			driver.manage().timeouts().implicitlyWait(implicitWait);
+		}
+	}
+	
+	/**
+	 * Retrieves the page numbers from the list of pages.
+	 *
+	 * @return A list of integers representing the page numbers in ascending order. If no pages are found, this method returns an empty list.
+	 */
+	public List<Integer> getPageNumbers() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        return getPaginationModel().getPageNumbers();
+	    } finally {
+	        latencyRecorder.record("getPageNumbers", startNanos);
+	    }
+	}
+
+	/**
+	 * Returns the pager of the current page: the current page, the last page and
+	 * the URL of every page. It is read in one round trip and reused until the
+	 * page navigates.
+	 *
+	 * @return The pagination model of the current page.
+	 */
+	public PaginationModel getPaginationModel() {
+	    if (paginationModel == null || paginationGeneration != elementCache.getGeneration()) {
+	        if (snapshotReads) {
+	            // In snapshot mode the pager is part of the page capture, which is not kept before the page rendered
+	            SearchResultsDocument capture = getSnapshot();
+	            if (!capture.hasProductListing()) {
+	                return capture.getPaginationModel();
+	            }
+	            paginationModel = capture.getPaginationModel();
+	        } else {
+	            paginationModel = PaginationModel.capture(driver);
+	        }
+	        paginationGeneration = elementCache.getGeneration();
+	    }
+	    return paginationModel;
+	}
+
+	/**
+	 * Returns the capture of the current page that snapshot reads are answered
+	 * from. It is taken in one round trip once the product listing has rendered,
+	 * waiting as long as the implicit wait, and reused until the page navigates.
+	 * A capture without the listing is returned but not reused.
+	 *
+	 * @return The search result document of the current page.
+	 */
+	public SearchResultsDocument getSnapshot() {
+	    if (snapshot == null || snapshotGeneration != elementCache.getGeneration()) {
+	        // Wait for the listing like the live reads do through the implicit wait
+	        awaitProductListing();
+	        SearchResultsDocument capture = SearchResultsDocument.capture(driver);
+	        if (!capture.hasProductListing()) {
+	            logger.warn("The product listing did not appear within {}, not keeping the page capture", PAGE_RENDER_TIMEOUT);
+	            return capture;
+	        }
+	        snapshot = capture;
+	        snapshotGeneration = elementCache.getGeneration();
+	    }
+	    return snapshot;
+	}
+
+	/**
+	 * Waits for the product listing of the current page to render, as long as the
+	 * implicit wait. Call after navigating the driver directly, since a lean page
+	 * load strategy returns before the page is parsed.
+	 *
+	 * @return true if the listing appeared, false if it did not within the timeout.
+	 */
+	boolean awaitProductListing() {
+	    return isElementPresent(By.cssSelector(PRODUCT_LISTING_CSS), PAGE_RENDER_TIMEOUT, PROBE_POLLING_INTERVAL);
+	}
+
+	/**
+	 * Returns the browser's performance figures of every navigation step taken
+	 * through this page object, in order. Empty unless page metrics are enabled.
+	 *
+	 * @return The timings of each step.
+	 */
+	public List<PageTimings> getStepTimings() {
+	    return new ArrayList<>(stepTimings);
+	}
+
+	/**
+	 * Reads the browser's performance figures of the page a navigation step
+	 * landed on, if page metrics are enabled. A failed read is logged and does
+	 * not fail the step. A step that did not load a new document, such as a
+	 * pager that updates the page in place, is skipped, since the figures would
+	 * be the previous step's again. The navigation methods call it themselves;
+	 * call it after navigating the driver directly.
+	 *
+	 * @param step The name of the navigation step.
+	 */
+	public void capturePageTimings(String step) {
+	    if (!pageMetrics.isEnabled() || !(driver instanceof JavascriptExecutor)) {
+	        return;
+	    }
+	    try {
+	        PageTimings timings = PageTimings.capture(driver, step);
+	        if (timings.getDocumentId() != null && timings.getDocumentId().equals(lastTimedDocument)) {
+	            logger.debug("Step {} did not load a new document, skipping its page timings", step);
+	            return;
+	        }
+	        lastTimedDocument = timings.getDocumentId();
+	        stepTimings.add(timings);
+	        pageMetrics.record(step, timings.getMetrics());
+	    } catch (WebDriverException | ClassCastException e) {
+	        logger.warn("Could not read the page timings of {}", step, e);
+	    }
+	}
+
+	/**
+	 * Tells whether reads are answered from a snapshot of the page.
+	 *
+	 * @return true in snapshot mode.
+	 */
+	public boolean isSnapshotReads() {
+	    return snapshotReads;
+	}
+
+	/**
+	 * Navigates directly to the specified page number in the search results,
+	 * with a single navigation to the page's URL.
+	 *
+	 * @param pageNumber The page number to navigate to.
+	 * @throws NoSuchElementException If the page number is not between 1 and the last page.
+	 */
+	public void goToResultPage(int pageNumber) {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Look up the page's URL in the pager
+	        String pageUrl = getPaginationModel().getPageUrl(pageNumber);
+	        // If the page number is not in the pager, log it and fail like a missing page link
+	        if (pageUrl == null) {
+	            try {
+	                throw new IllegalArgumentException("Page number " + pageNumber + " is not in the list of page numbers.");
+	            } catch (IllegalArgumentException e) {
+	                // Log the exception
+	                logger.error("An error occurred: ", e);
+	            }
+	            throw new NoSuchElementException("No result page " + pageNumber);
+	        }
+	        // Open the requested page
+	        driver.get(pageUrl);
+	        // The page changed, drop cached element handles
+	        elementCache.invalidate();
+	        // Read how fast the requested page loaded
+	        capturePageTimings("goToResultPage");
+	    } finally {
+	        latencyRecorder.record("goToResultPage", startNanos);
+	    }
+	}
+
+	/**
+	 * Returns the count of search results.
+	 *
+	 * @return The count of search results. If no search results are found or if the WebElement is not found, this method returns 0.
+	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and the method returns 0.
+	 */
+	@Override
+	public int returnSearchResultCount() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Answer from the page snapshot instead of querying the browser
+	        if (snapshotReads) {
+	            return getSnapshot().returnSearchResultCount();
+	        }
+	        // Try to get the title text from the header element
+	        String titleText = elementCache.read(By.cssSelector(HEADER_SEARCH_TITLE_CSS), WebElement::getText);
+	        // Create an instance of TextParsingUtilities and extract the integer count from the title text
+	        return new TextParsingUtilities().getIntegerFromText(titleText);
+	    } catch (NoSuchElementException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	        // If the WebElement is not found, return 0
+	        return 0;
+	    } finally {
+	        latencyRecorder.record("returnSearchResultCount", startNanos);
+	    }
+	}
+
+	/**
+	 * Returns the count of search result pages.
+	 *
+	 * @return The count of search result pages. If no search results are found or if the WebElement is not found, this method returns 0.
+	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and the method returns 0.
+	 */
+	@Override
+	public int returnSearchPageCount() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Answer from the page snapshot instead of querying the browser
+	        if (snapshotReads) {
+	            return getSnapshot().returnSearchPageCount();
+	        }
+	        // Wait for the pager, or the listing of a single-page result set, to render
+	        By pagerOrListing = By.cssSelector(LAST_PAGE_NUMBER_CSS + ", " + PRODUCT_LISTING_CSS);
+	        if (!isElementPresent(pagerOrListing, PAGE_RENDER_TIMEOUT, PROBE_POLLING_INTERVAL)) {
+	            logger.warn("Neither the pager nor the product listing appeared within {}", PAGE_RENDER_TIMEOUT);
+	            return 0;
+	        }
+	        // The page has rendered, so a missing pager means a single page
+	        if (!isElementPresent(By.cssSelector(LAST_PAGE_NUMBER_CSS), Duration.ZERO, PROBE_POLLING_INTERVAL)) {
+	            return 0;
+	        }
+	        try {
+	            // Try to get the text from the 'lastPageNumbertext' element
+	            String pagingText = elementCache.read(By.cssSelector(LAST_PAGE_NUMBER_CSS), WebElement::getText);
+	            // Use a utility method to extract the integer from the text
+	            return textParsingUtilities.getIntegerFromText(pagingText);
+	        } catch (NoSuchElementException e) {
+	            // Log the exception
+	            logger.error("An error occurred: ", e);
+	            // If the WebElement is not found, return 0
+	            return 0;
+	        }
+	    } finally {
+	        latencyRecorder.record("returnSearchPageCount", startNanos);
+	    }
+	}
+
+	/**
+	 * Returns the current page number of search results from the search page
+	 * currentPageNumbertext.
+	 *
+	 * @return The integer pageNumber extracted from the pagingText (or 0 if not
+	 *         parsable or if the WebElement is not found).
+	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and the method returns 0.
+	 */
+	public int returnCurrentSearchPageNumber() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Answer from the page snapshot instead of querying the browser
+	        if (snapshotReads) {
+	            return getSnapshot().returnCurrentSearchPageNumber();
+	        }
+	        // Try to get the text from the 'currentPageNumbertext' element
+	        String pagingText = elementCache.read(By.cssSelector(CURRENT_PAGE_NUMBER_CSS), WebElement::getText);
+	        // Use a utility method to extract the integer from the text
+	        return textParsingUtilities.getIntegerFromText(pagingText);
+	    } catch (NoSuchElementException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	        // If the WebElement is not found, return 0
+	        return 0;
+	    } finally {
+	        latencyRecorder.record("returnCurrentSearchPageNumber", startNanos);
+	    }
+	}
+
+	/**
+	 * This method is used to find all titles in the search results that are missing
+	 * a specified keyword.
+	 *
+	 * @param keyword The keyword to search for in titles.
+	 * @return An array of titles that do not contain the specified keyword.
+	 */
+	@Override
+	public String[] findAllTitlesMissingKeyword(String keyword) {
+		long startNanos = System.nanoTime();
+		try {
+			// Initialize a list to store the titles missing the keyword
+			List<String> missingItemsList = new ArrayList<>();
+			// Collect every violation the audit reports
+			auditTitlesMissingKeyword(keyword, violation -> missingItemsList.add(violation.getTitle()), Integer.MAX_VALUE);
+			// If the list of missing titles is empty, print a message indicating that no
+			// titles are missing the keyword
+			if (missingItemsList.isEmpty()) {
+				logger.info("No titles missing the keyword '{}'.", keyword);
+			}
+			// Convert the list of missing titles to an array and return it
+			return missingItemsList.toArray(new String[0]);
+		} finally {
+			latencyRecorder.record("findAllTitlesMissingKeyword", startNanos);
+		}
+	}
+
+	/**
+	 * Checks whether any title in the search results is missing a specified
+	 * keyword. The crawl stops at the first violation.
+	 *
+	 * @param keyword The keyword to search for in titles.
+	 * @return true if at least one title does not contain the keyword.
+	 */
+	public boolean hasTitlesMissingKeyword(String keyword) {
+		return auditTitlesMissingKeyword(keyword, violation -> true, 1) > 0;
+	}
+
+	/**
+	 * Crawls the search results page by page and reports every title missing a
+	 * specified keyword to the sink as soon as its page has been read. The crawl
+	 * stops after maxViolations violations or when the sink returns false, so no
+	 * further pages are loaded.
+	 *
+	 * @param keyword       The keyword to search for in titles.
+	 * @param sink          Receives each violation with its page number and item index.
+	 * @param maxViolations The number of violations after which the crawl stops.
+	 * @return The number of violations reported to the sink.
+	 */
+	public int auditTitlesMissingKeyword(String keyword, ViolationSink sink, int maxViolations) {
+		return auditTitles(TitleRuleSet.builder().require(keyword).build(), sink, maxViolations);
+	}
+
+	/**
+	 * Finds every title in the search results that violates a rule set. All rules
+	 * are evaluated in one pass per title, so the result pages are crawled once
+	 * however many rules there are.
+	 *
+	 * @param rules The rules every title must pass.
+	 * @return The violations in page order, each with the rules it violates.
+	 */
+	public List<KeywordViolation> findAllTitlesViolatingRules(TitleRuleSet rules) {
+		List<KeywordViolation> violations = new ArrayList<>();
+		auditTitles(rules, violations::add, Integer.MAX_VALUE);
+		return violations;
+	}
+
+	/**
+	 * Crawls the search results page by page and reports every title that violates
+	 * a rule set to the sink as soon as its page has been read. The crawl stops
+	 * after maxViolations violations or when the sink returns false, so no
+	 * further pages are loaded.
+	 *
+	 * @param rules         The rules every title must pass.
+	 * @param sink          Receives each violation with its page number, item index and violated rules.
+	 * @param maxViolations The number of violations after which the crawl stops.
+	 * @return The number of violations reported to the sink.
+	 */
+	public int auditTitles(TitleRuleSet rules, ViolationSink sink, int maxViolations) {
+		long startNanos = System.nanoTime();
+		try {
+			int violations = 0;
+			TitleRuleSet.Matcher matcher = rules.matcher();
+			// Get the total number of pages in the search results; results without a pager have one page
+			int totalPages = Math.max(1, returnSearchPageCount());
+			// Loop through each page in the search results
+			for (int currentPage = 1; currentPage <= totalPages; currentPage++) {
+				// Read every title on the page in a single call
+				List<String> titles = getAllProductTitles();
+				for (int i = 0; i < titles.size(); i++) {
+					String title = titles.get(i);
+					List<TitleRuleSet.Rule> violatedRules = matcher.violations(title);
+					if (violatedRules.isEmpty()) {
+						continue;
+					}
+					violations++;
+					// Stop as soon as the sink or the limit says so
+					boolean keepGoing = sink.accept(new KeywordViolation(currentPage, i + 1, title, violatedRules));
+					if (!keepGoing || violations >= maxViolations) {
+						logger.info("Title audit stopped on page {} after {} violations", currentPage, violations);
+						return violations;
+					}
+				}
+				// Go to the next page of search results, if there is one
+				if (currentPage < totalPages) {
+					goToNextResultPage();
+				}
+			}
+			return violations;
+		} finally {
+			latencyRecorder.record("auditTitles", startNanos);
+		}
+	}
+
+	/**
+	 * Audits the search results against the rules of a query index, re-checking
+	 * only the pages whose titles changed since the index was recorded. Each page
+	 * is fingerprinted in the browser; an unchanged page's violations are taken
+	 * from the index without reading its titles, and a changed page is read,
+	 * checked and recorded in the index. Save the index afterwards to keep the
+	 * new fingerprints.
+	 *
+	 * @param index The index of the query whose results the browser shows.
+	 * @param sink  Receives each violation, from the index or newly found, in page order.
+	 * @return The number of violations reported to the sink.
+	 */
+	public int auditTitlesIncrementally(AuditIndex.QueryIndex index, ViolationSink sink) {
+		long startNanos = System.nanoTime();
+		try {
+			int violations = 0;
+			int checkedPages = 0;
+			TitleRuleSet.Matcher matcher = index.getRules().matcher();
+			// Get the total number of pages in the search results
+			int pageCount = returnSearchPageCount();
+			int totalPages = Math.max(1, pageCount);
+			// Forget the pages past the end only if the results rendered, not on a page that failed to load
+			if (pageCount > 0 || isElementPresent(By.cssSelector(PRODUCT_LISTING_CSS), Duration.ZERO, PROBE_POLLING_INTERVAL)) {
+				index.retainPages(totalPages);
+			}
+			for (int currentPage = 1; currentPage <= totalPages; currentPage++) {
+				List<KeywordViolation> pageViolations;
+				if (getProductTitlesFingerprint().equals(index.getFingerprint(currentPage))) {
+					// Unchanged since the last audit, reuse its violations
+					pageViolations = index.getViolations(currentPage);
+				} else {
+					// Read and check the page, fingerprinting exactly the titles that were checked
+					List<String> titles = getAllProductTitles();
+					pageViolations = new ArrayList<>();
+					for (int i = 0; i < titles.size(); i++) {
+						List<TitleRuleSet.Rule> violatedRules = matcher.violations(titles.get(i));
+						if (!violatedRules.isEmpty()) {
+							pageViolations.add(new KeywordViolation(currentPage, i + 1, titles.get(i), violatedRules));
+						}
+					}
+					index.putPage(currentPage, TitleFingerprint.of(titles), pageViolations);
+					checkedPages++;
+				}
+				for (KeywordViolation violation : pageViolations) {
+					violations++;
+					if (!sink.accept(violation)) {
+						logger.info("Incremental title audit stopped on page {} after {} violations", currentPage, violations);
+						return violations;
+					}
+				}
+				// Go to the next page of search results, if there is one
+				if (currentPage < totalPages) {
+					goToNextResultPage();
+				}
+			}
+			logger.info("Incremental title audit of '{}' re-checked {} of {} pages", index.getQuery(), checkedPages, totalPages);
+			return violations;
+		} finally {
+			latencyRecorder.record("auditTitlesIncrementally", startNanos);
+		}
+	}
+
+	/**
+	 * Fingerprints the product titles of the current page in the browser, so only
+	 * the fingerprint crosses the wire. If the driver cannot execute JavaScript,
+	 * the titles are read and fingerprinted locally. In snapshot mode the titles
+	 * of the snapshot are fingerprinted, so the fingerprint matches the titles
+	 * the audit checks.
+	 *
+	 * @return The TitleFingerprint of the page's titles.
+	 */
+	public String getProductTitlesFingerprint() {
+		if (!snapshotReads && driver instanceof JavascriptExecutor) {
+			Object fingerprint = ((JavascriptExecutor) driver).executeScript(TitleFingerprint.BROWSER_SCRIPT,
+					PRODUCT_DESCRIPTION_CSS);
+			if (fingerprint instanceof String) {
+				return (String) fingerprint;
+			}
+		}
+		return TitleFingerprint.of(getAllProductTitles());
+	}
+
+	/**
+	 * This method is used to find all titles in the search results that are missing
+	 * a specified keyword, splitting the result pages across several browser sessions.
+	 * The current page must be a page of the search results.
+	 *
+	 * @param keyword        The keyword to search for in titles.
+	 * @param sessionFactory Creates a new, ready to use browser session for each shard of pages.
+	 * @param sessionCount   The maximum number of browser sessions to run at once.
+	 * @return An array of titles that do not contain the specified keyword, in page order.
+	 */
+	public String[] findAllTitlesMissingKeyword(String keyword, Supplier<WebDriver> sessionFactory, int sessionCount) {
+		// Get the total number of pages in the search results; results without a pager have one page
+		int totalPages = Math.max(1, returnSearchPageCount());
+		// Crawl the pages in parallel starting from the current search URL
+		ParallelSearchCrawler crawler = new ParallelSearchCrawler(sessionFactory, sessionCount);
+		String[] missingItems = crawler.findAllTitlesMissingKeyword(driver.getCurrentUrl(), totalPages, keyword);
+		if (missingItems.length == 0) {
+			logger.info("No titles missing the keyword '{}'.", keyword);
+		}
+		return missingItems;
+	}
+
+	/**
+	 * Checks product titles for a missing keyword and adds them to a list if the
+	 * keyword is not found.
+	 *
+	 * @param keyword          The keyword to search for in the titles.
+	 * @param missingItemsList A list to store titles missing the keyword.
+	 */
+	void checkTitlesForMissingKeyword(String keyword, List<String> missingItemsList) {
+		// Read every title on the page in a single call instead of one getText() per product
+		textParsingUtilities.addTitlesMissingKeyword(getAllProductTitles(), keyword, missingItemsList);
+	}
+
+	/**
+	 * Retrieves the titles of all products on the current search result page.
+	 *
+	 * @return A list of product titles in page order. If no products are found, this method returns an empty list.
+	 */
+	@Override
+	public List<String> getAllProductTitles() {
+		long startNanos = System.nanoTime();
+		try {
+			// Answer from the page snapshot instead of querying the browser
+			if (snapshotReads) {
+				return getSnapshot().getAllProductTitles();
+			}
+			return readAllTexts(PRODUCT_DESCRIPTION_CSS, elements.productDescription);
+		} finally {
+			latencyRecorder.record("getAllProductTitles", startNanos);
+		}
+	}
+
+	/**
+	 * Retrieves the descriptions of all items in the cart.
+	 *
+	 * @return A list of cart item descriptions in cart order. If the cart is empty, this method returns an empty list.
+	 */
+	public List<String> getAllCartItemDescriptions() {
+		long startNanos = System.nanoTime();
+		try {
+			return readAllTexts(CART_ITEM_DESCRIPTION_CSS, elements.cartItemDescription);
+		} finally {
+			latencyRecorder.record("getAllCartItemDescriptions", startNanos);
+		}
+	}
+
+	/**
+	 * Reads the text of every element matching the CSS selector with one executeScript
+	 * call. If the driver cannot execute JavaScript, the text is read from the
+	 * fallback elements one at a time.
+	 *
+	 * @param cssSelector The CSS selector of the elements to read.
+	 * @param elements    The PageFactory elements for the same selector, used as a fallback.
+	 * @return A list with the text of each matching element in document order.
+	 */
+	private List<String> readAllTexts(String cssSelector, List<WebElement> elements) {
+		List<String> texts = new ArrayList<>();
+		if (driver instanceof JavascriptExecutor) {
+			// Query the elements in the browser and return all texts in one round trip
+			Object result = ((JavascriptExecutor) driver).executeScript(READ_ALL_TEXTS_SCRIPT, cssSelector);
+			if (result instanceof List) {
+				for (Object text : (List<?>) result) {
+					texts.add(String.valueOf(text));
+				}
+				return texts;
+			}
+			logger.warn("Bulk text read returned {}, falling back to per-element reads", result);
+		}
+		// Fall back to reading each element's text individually
+		for (WebElement element : elements) {
+			texts.add(element.getText());
+		}
+		return texts;
+	}
+
+	/**
+	 * This method is used to get the count of items on a page.
+	 *
+	 * @return int This returns the total number of items on the page. If the WebElement is not found, this method returns 0.
+	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and the method returns 0.
+	 */
+	public int getPageItemCount() {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Answer from the page snapshot instead of querying the browser
+	        if (snapshotReads) {
+	            return getSnapshot().getPageItemCount();
+	        }
+	        // Count the products with a fresh query; a cached list is never touched, so it would not notice a navigation
+	        int pageItemCount = driver.findElements(By.cssSelector(PRODUCTS_ON_PAGE_CSS)).size();
+	        // Return the count of items on the page
+	        return pageItemCount;
+	    } catch (NoSuchElementException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	        // If the WebElement is not found, return 0
+	        return 0;
+	    } finally {
+	        latencyRecorder.record("getPageItemCount", startNanos);
+	    }
+	}
+
+	/**
+	 * Retrieves the description of an item from a webpage, given the item's number.
+	 *
+	 * @param itemNumber The number of the item.
+	 * @return The description of the item. If the WebElement is not found, this method returns an empty string.
+	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and logged.
+	 */
+	public String getSearchItemDescription(int itemNumber) {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Answer from the page snapshot instead of querying the browser
+	        if (snapshotReads) {
+	            return getSnapshot().getSearchItemDescription(itemNumber);
+	        }
+	        // Use String.format to insert the itemNumber into the XPath
+	        String xpath = String.format(SEARCH_ITEM_DESCRIPTION_XPATH, itemNumber);
+	        // Try to locate WebElement using the formatted XPath
+	        WebElement item = elements.productListings.findElement(By.xpath(xpath));
+	        // Get the text of the item (the description)
+	        String itemDescription = item.getText();
+	        // Return the item description
+	        return itemDescription;
+	    } catch (NoSuchElementException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	        // If the WebElement is not found, return an empty string
+	        return "";
+	    } finally {
+	        latencyRecorder.record("getSearchItemDescription", startNanos);
+	    }
+	}
+
+	/**
+	 * Retrieves the description of a cart item, given the item's number.
+	 *
+	 * @param itemNumber The number of the item in the cart.
+	 * @return The description of the cart item. If the WebElement is not found, this method returns an empty string.
+	 * @throws IndexOutOfBoundsException If the itemNumber is out of range (itemNumber < 0 || itemNumber >= cartItemDescription.size()), this exception is caught and logged.
+	 */
+	public String getCartItemDescription(int itemNumber) {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Try to get the cart item WebElement using the item number
+	        WebElement item = elements.cartItemDescription.get(itemNumber);
+	        // Try to get the text of the item (the description)
+	        String description = item.getText();
+	        // Return the item description
+	        return description;
+	    } catch (IndexOutOfBoundsException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	        // If the itemNumber is out of range, return an empty string
+	        return "";
+	    } finally {
+	        latencyRecorder.record("getCartItemDescription", startNanos);
+	    }
+	}
+
+	/**
+	 * Chooses a product from the list of available product links and adds it to the
+	 * cart.
+	 *
+	 * @param productIndex The index of the product to choose (1-based).
+	 * @throws NoSuchElementException If the WebElement is not found, this exception is caught and logged.
+	 */
+	public void AddItemToCart(int itemNumber) {
+	    long startNanos = System.nanoTime();
+	    try {
+	        // Use String.format to insert the itemNumber into the XPath
+	        String xpath = String.format(ADD_TO_CART_ITEM_XPATH, itemNumber);
+	        // Try to locate WebElement using the formatted XPath
+	        WebElement item = elements.productListings.findElement(By.xpath(xpath));
+	        // Try to click the "Add to Cart" button
+	        item.click();
+	        // The cart badge re-renders, drop cached element handles
+	        elementCache.invalidate();
+	    } catch (NoSuchElementException e) {
+	        // Log the exception
+	        logger.error("An error occurred: ", e);
+	        // You can add additional actions here, such as notifying the user that the item is out of stock
+	    } finally {
+	        latencyRecorder.record("AddItemToCart", startNanos);
+	    }
+	}
+
+	/**
+	 * Adds several search result items to the cart, possibly from different
+	 * result pages. The items of each page are added by one script that clicks
+	 * each add to cart button once the cart link has changed for the previous
+	 * item and stopped changing, so a page costs one round trip however many
+	 * items it adds. Pages are visited in ascending order, each with one navigation.
+	 *
+	 * @param items The items to add, each at most once; the site merges a repeated item into one cart line.
+	 * @return The descriptions of the items that were added, in page and then list order, for checking the cart.
+	 * @throws IllegalArgumentException If an item is listed more than once.
+	 */
+	public List<String> addItemsToCart(List<ResultItem> items) {
+		if (new HashSet<>(items).size() != items.size()) {
+			throw new IllegalArgumentException("Each item can be added once, the cart merges repeated items: " + items);
+		}
+		long startNanos = System.nanoTime();
+		try {
+			// Group the items by page, keeping the order within each page
+			TreeMap<Integer, List<Integer>> itemsByPage = new TreeMap<>();
+			for (ResultItem item : items) {
+				itemsByPage.computeIfAbsent(item.getPageNumber(), page -> new ArrayList<>()).add(item.getItemIndex());
+			}
+			List<String> descriptions = new ArrayList<>();
+			for (Map.Entry<Integer, List<Integer>> page : itemsByPage.entrySet()) {
+				// Stay on the current page, or go straight to the next page with items; a page without a pager is page 1
+				if (Math.max(1, getPaginationModel().getCurrentPage()) != page.getKey()) {
+					goToResultPage(page.getKey());
+				}
+				descriptions.addAll(addPageItemsToCart(page.getKey(), page.getValue()));
+			}
+			return descriptions;
+		} finally {
+			latencyRecorder.record("addItemsToCart", startNanos);
+		}
+	}
+
+	/**
+	 * Adds items of the current result page to the cart. If the driver cannot
+	 * execute JavaScript, the items are added one at a time.
+	 *
+	 * @param pageNumber  The current page number, for log messages.
+	 * @param itemNumbers The positions of the items on the page (1-based).
+	 * @return The descriptions of the items that were added, in order.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<String> addPageItemsToCart(int pageNumber, List<Integer> itemNumbers) {
+		List<String> descriptions = new ArrayList<>();
+		if (!(driver instanceof JavascriptExecutor)) {
+			// Fall back to adding each item individually
+			for (int itemNumber : itemNumbers) {
+				String description = getSearchItemDescription(itemNumber);
+				AddItemToCart(itemNumber);
+				descriptions.add(description);
+			}
+			return descriptions;
+		}
+		List<List<String>> xpaths = new ArrayList<>();
+		for (int itemNumber : itemNumbers) {
+			xpaths.add(Arrays.asList(String.format(ADD_TO_CART_ITEM_XPATH, itemNumber),
+					String.format(SEARCH_ITEM_DESCRIPTION_XPATH, itemNumber)));
+		}
+		// Each item may take the settle timeout, and the script must be allowed to outlast its own deadline
+		Duration timeout = CART_SETTLE_TIMEOUT.multipliedBy(itemNumbers.size());
+		Duration scriptTimeout = driver.manage().timeouts().getScriptTimeout();
+		if (scriptTimeout.compareTo(timeout.plus(CART_SETTLE_TIMEOUT)) < 0) {
+			driver.manage().timeouts().scriptTimeout(timeout.plus(CART_SETTLE_TIMEOUT));
+		}
+		Map<String, Object> result;
+		try {
+			result = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(ADD_ITEMS_TO_CART_SCRIPT,
+					xpaths, OPEN_CART_CSS, CART_QUIET_PERIOD.toMillis(), timeout.toMillis());
+		} finally {
+			driver.manage().timeouts().scriptTimeout(scriptTimeout);
+			// The cart badge re-renders, drop cached element handles
+			elementCache.invalidate();
+		}
+		List<Object> added = (List<Object>) result.get("descriptions");
+		for (int i = 0; i < added.size(); i++) {
+			if (added.get(i) == null) {
+				// Log the missing item and carry on with the others
+				logger.error("An error occurred: ", new NoSuchElementException(
+						"No item " + itemNumbers.get(i) + " to add to the cart on page " + pageNumber));
+			} else {
+				descriptions.add(String.valueOf(added.get(i)));
+			}
+		}
+		if (!Boolean.TRUE.equals(result.get("settled"))) {
+			logger.warn("The cart did not take every item within {} after adding {} items on page {}", timeout,
+					descriptions.size(), pageNumber);
+		}
+		return descriptions;
+	}
+
+	/**
+	 * Checks the cart against the descriptions of the items that were added,
+	 * reading every cart line in one round trip.
+	 *
+	 * @param expectedDescriptions The descriptions of the added items, as returned by addItemsToCart.
+	 * @return The expected descriptions that are not in the cart; empty if every item is there.
+	 */
+	public List<String> findMissingCartItems(List<String> expectedDescriptions) {
+		long startNanos = System.nanoTime();
+		try {
+			return textParsingUtilities.findMissingTexts(expectedDescriptions, getAllCartItemDescriptions());
+		} finally {
+			latencyRecorder.record("findMissingCartItems", startNanos);
+		}
+	}
+
+	/**
+	 * Empties the cart from the cart page: clicks 'Empty Cart', confirms and waits
+	 * for the empty cart screen, all in one script that polls inside the browser.
+	 * If the driver cannot execute JavaScript, the steps are taken one at a time.
+	 *
+	 * @return true if the empty cart screen is displayed afterwards.
+	 */
+	public boolean emptyCart() {
+		long startNanos = System.nanoTime();
+		try {
+			if (!(driver instanceof JavascriptExecutor)) {
+				// Fall back to the separate steps
+				clickEmptyCart();
+				emptyCartVerify();
+				return isCartEmptyScreenPresent();
+			}
+			Object emptied = ((JavascriptExecutor) driver).executeAsyncScript(EMPTY_CART_SCRIPT, EMPTY_CART_XPATH,
+					EMPTY_CART_VERIFY_XPATH, EMPTY_CART_SCREEN_CSS, CART_SETTLE_TIMEOUT.toMillis());
+			// The page changed, drop cached element handles
+			elementCache.invalidate();
+			return Boolean.TRUE.equals(emptied);
+		} finally {
+			latencyRecorder.record("emptyCart", startNanos);
+		}
+	}
+}
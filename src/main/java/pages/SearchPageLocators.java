@@ -0,0 +1,55 @@
+package pages;
+
+/**
+ * Locators for the search, result and cart pages. CSS selectors are used
+ * wherever an equivalent of the original XPath exists, because browsers
+ * resolve them natively and jsoup can evaluate the same selectors on
+ * server-rendered HTML.
+ */
+public final class SearchPageLocators {
+	public static final String SEARCH_BOX_NAME = "searchval";
+
+	public static final String SEARCH_BUTTON_XPATH = "//div[@class='hidden flex-1 ml-0 lt:flex max-w-[900px]']//button[@value='Search']";
+
+	public static final String HEADER_SEARCH_TITLE_CSS = "h1[class='page-header search--title']";
+
+	public static final String CURRENT_PAGE_NUMBER_CSS = "div#paging li > a[aria-label*='current page']";
+
+	public static final String LAST_PAGE_NUMBER_CSS = "div#paging li > a[aria-label*='last page']";
+
+	public static final String NEXT_PAGE_CSS = "div#paging ul > li:last-of-type > a";
+
+	public static final String PAGING_CSS = "div#paging";
+
+	public static final String PAGES_CSS = "div#paging ul > li";
+
+	public static final String PAGE_LINKS_CSS = "div#paging ul > li > a";
+
+	public static final String OPEN_CART_CSS = "a[aria-label*='Your cart']";
+
+	public static final String ADD_TO_CART_BUTTON_ID = "add-to-cart-button";
+
+	public static final String PRODUCT_LISTING_CSS = "div#product_listing";
+
+	public static final String PRODUCTS_ON_PAGE_CSS = "div#product_listing > div";
+
+	public static final String PRODUCT_DESCRIPTION_CSS = "span[data-testid='itemDescription']";
+
+	// Format with the item number; the same XPath is evaluated by the browser and by jsoup
+	public static final String SEARCH_ITEM_DESCRIPTION_XPATH = "//div[@id = 'product_listing']//div[%d]//span[@data-testid='itemDescription']";
+
+	public static final String ADD_TO_CART_ITEM_XPATH = "//div[@id = 'product_listing']//div[%d]//input[@type='submit']";
+
+	// Matching on button text has no CSS equivalent
+	public static final String EMPTY_CART_XPATH = "//button[text()='Empty Cart']";
+
+	public static final String EMPTY_CART_VERIFY_XPATH = "//footer/button[following-sibling::button[text()='Cancel'][1]]";
+
+	public static final String EMPTY_CART_SCREEN_CSS = "div[class='empty-cart__inner']";
+
+	public static final String CART_ITEM_DESCRIPTION_CSS = "div[class='cartItems'] li[data-cart-item-id] "
+			+ "span[class='itemDescription description overflow-visible'] > a";
+
+	private SearchPageLocators() {
+	}
+}
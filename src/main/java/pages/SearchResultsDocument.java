@@ -0,0 +1,169 @@
+package pages;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import webutilities.TextParsingUtilities;
+
+import static pages.SearchPageLocators.*;
+
+/**
+ * A parsed, in-memory copy of a search result page, either server-rendered
+ * HTML or a capture of the rendered page in the browser. The CSS selectors
+ * match the same elements as the SearchPageFactory locators.
+ */
+public class SearchResultsDocument {
+	// Returns the page URL and the outer HTML of the subtrees matching the selectors in the arguments
+	private static final String CAPTURE_SCRIPT =
+			"var parts = [];"
+			+ "for (var i = 0; i < arguments.length; i++) {"
+			+ "  var node = document.querySelector(arguments[i]);"
+			+ "  if (node) { parts.push(node.outerHTML); }"
+			+ "}"
+			+ "return {url: window.location.href, html: '<html><body>' + parts.join('') + '</body></html>'};";
+
+	private final Document document;
+	private final String baseUrl;
+	private TextParsingUtilities textParsingUtilities = new TextParsingUtilities();
+
+// Constructor*************************************************************
+	/**
+	 * Parses the HTML of a search result page.
+	 *
+	 * @param html    The page HTML.
+	 * @param baseUrl The URL the page was loaded from, used to resolve relative links.
+	 */
+	public SearchResultsDocument(String html, String baseUrl) {
+		this.document = Jsoup.parse(html, baseUrl);
+		this.baseUrl = baseUrl;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Captures the rendered search header, pager and product listing of the page
+	 * the driver is on with a single script call. Only those subtrees are
+	 * serialized, so the capture stays small on long result pages.
+	 *
+	 * @param driver The driver on a search result page.
+	 * @return The parsed capture; a subtree missing from the page is missing from it.
+	 */
+	@SuppressWarnings("unchecked")
+	public static SearchResultsDocument capture(WebDriver driver) {
+		Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver)
+				.executeScript(CAPTURE_SCRIPT, HEADER_SEARCH_TITLE_CSS, PAGING_CSS, PRODUCT_LISTING_CSS);
+		return new SearchResultsDocument(String.valueOf(result.get("html")), String.valueOf(result.get("url")));
+	}
+
+	/**
+	 * Checks whether the markup contains the product listing, which a capture
+	 * taken before the page rendered lacks.
+	 *
+	 * @return true if the product listing is present.
+	 */
+	public boolean hasProductListing() {
+		return document.selectFirst(PRODUCT_LISTING_CSS) != null;
+	}
+
+	/**
+	 * Checks whether the markup contains the elements an audit needs.
+	 *
+	 * @return true if the search header and the product listing are present.
+	 */
+	public boolean isUsable() {
+		return document.selectFirst(HEADER_SEARCH_TITLE_CSS) != null && hasProductListing();
+	}
+
+	/**
+	 * Returns the count of search results from the page header.
+	 *
+	 * @return The count of search results, or 0 if the header is not found.
+	 */
+	public int returnSearchResultCount() {
+		return integerFromFirst(HEADER_SEARCH_TITLE_CSS);
+	}
+
+	/**
+	 * Returns the count of search result pages from the pager.
+	 *
+	 * @return The count of search result pages, or 0 if the pager has no last page link.
+	 */
+	public int returnSearchPageCount() {
+		return integerFromFirst(LAST_PAGE_NUMBER_CSS);
+	}
+
+	/**
+	 * Returns the current page number from the pager.
+	 *
+	 * @return The current page number, or 0 if the pager has no current page link.
+	 */
+	public int returnCurrentSearchPageNumber() {
+		return integerFromFirst(CURRENT_PAGE_NUMBER_CSS);
+	}
+
+	/**
+	 * Retrieves the titles of all products on the page.
+	 *
+	 * @return A list of product titles in page order.
+	 */
+	public List<String> getAllProductTitles() {
+		List<String> titles = new ArrayList<>();
+		for (Element title : document.select(PRODUCT_DESCRIPTION_CSS)) {
+			titles.add(title.text());
+		}
+		return titles;
+	}
+
+	/**
+	 * Returns the number of products on the page.
+	 *
+	 * @return The count of items in the product listing.
+	 */
+	public int getPageItemCount() {
+		return document.select(PRODUCTS_ON_PAGE_CSS).size();
+	}
+
+	/**
+	 * Retrieves the description of an item, given the item's number.
+	 *
+	 * @param itemNumber The number of the item (1-based).
+	 * @return The description of the item, or an empty string if there is no such item.
+	 */
+	public String getSearchItemDescription(int itemNumber) {
+		Element item = document.selectXpath(String.format(SEARCH_ITEM_DESCRIPTION_XPATH, itemNumber)).first();
+		return item == null ? "" : item.text();
+	}
+
+	/**
+	 * Builds the pager of the page from its links.
+	 *
+	 * @return The pagination model. A page without a pager has no page links.
+	 */
+	public PaginationModel getPaginationModel() {
+		List<String> labels = new ArrayList<>();
+		List<String> hrefs = new ArrayList<>();
+		for (Element link : document.select(PAGE_LINKS_CSS)) {
+			labels.add(link.attr("aria-label"));
+			hrefs.add(link.absUrl("href"));
+		}
+		return PaginationModel.fromLinks(baseUrl, labels, hrefs);
+	}
+
+	/**
+	 * Extracts the integer from the text of the first element matching a selector.
+	 *
+	 * @param cssQuery The CSS selector of the element.
+	 * @return The extracted integer, or 0 if no element matches.
+	 */
+	private int integerFromFirst(String cssQuery) {
+		Element element = document.selectFirst(cssQuery);
+		return element == null ? 0 : textParsingUtilities.getIntegerFromText(element.text());
+	}
+}
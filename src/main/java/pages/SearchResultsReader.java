@@ -0,0 +1,47 @@
+package pages;
+
+import java.util.List;
+
+/**
+ * The read-only view of a search result set used by keyword audits. It is
+ * implemented by the Selenium backed SearchPageFactory and by the browser-less
+ * HttpSearchPageReader.
+ */
+public interface SearchResultsReader {
+
+	/**
+	 * Searches for a product using the provided product name.
+	 *
+	 * @param productName The name of the product to search for.
+	 */
+	void searchForProduct(String productName);
+
+	/**
+	 * Returns the count of search results.
+	 *
+	 * @return The count of search results, or 0 if it cannot be read.
+	 */
+	int returnSearchResultCount();
+
+	/**
+	 * Returns the count of search result pages.
+	 *
+	 * @return The count of search result pages, or 0 if it cannot be read.
+	 */
+	int returnSearchPageCount();
+
+	/**
+	 * Retrieves the titles of all products on the current search result page.
+	 *
+	 * @return A list of product titles in page order.
+	 */
+	List<String> getAllProductTitles();
+
+	/**
+	 * Finds all titles in the search results that are missing a specified keyword.
+	 *
+	 * @param keyword The keyword to search for in titles.
+	 * @return An array of titles that do not contain the specified keyword, in page order.
+	 */
+	String[] findAllTitlesMissingKeyword(String keyword);
+}
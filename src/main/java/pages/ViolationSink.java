@@ -0,0 +1,16 @@
+package pages;
+
+/**
+ * Receives audit violations as soon as they are found.
+ */
+@FunctionalInterface
+public interface ViolationSink {
+
+	/**
+	 * Accepts one violation.
+	 *
+	 * @param violation The violation that was found.
+	 * @return true to continue the audit, false to stop crawling.
+	 */
+	boolean accept(KeywordViolation violation);
+}
@@ -0,0 +1,120 @@
+package webutilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe, fixed-size latency histogram. Values are counted in
+ * log-linear buckets with 16 sub-buckets per power of two, so every reported
+ * percentile is within about 6% of the true value, whatever the range of
+ * the recorded latencies. Recording never allocates.
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	// Enough buckets for any non-negative long
+	private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder totalCount = new LongAdder();
+	private final LongAdder totalValue = new LongAdder();
+	private final AtomicLong maxValue = new AtomicLong();
+
+// Methods*****************************************************************
+
+	/**
+	 * Records one value.
+	 *
+	 * @param value The value, for example a latency in nanoseconds. Negative values are recorded as 0.
+	 */
+	public void record(long value) {
+		long clamped = Math.max(0, value);
+		counts.incrementAndGet(bucketIndex(clamped));
+		totalCount.increment();
+		totalValue.add(clamped);
+		maxValue.accumulateAndGet(clamped, Math::max);
+	}
+
+	/**
+	 * Returns the number of recorded values.
+	 *
+	 * @return The count.
+	 */
+	public long getCount() {
+		return totalCount.sum();
+	}
+
+	/**
+	 * Returns the largest recorded value.
+	 *
+	 * @return The maximum, or 0 if nothing was recorded.
+	 */
+	public long getMax() {
+		return maxValue.get();
+	}
+
+	/**
+	 * Returns the mean of the recorded values.
+	 *
+	 * @return The mean, or 0 if nothing was recorded.
+	 */
+	public double getMean() {
+		long count = totalCount.sum();
+		return count == 0 ? 0 : (double) totalValue.sum() / count;
+	}
+
+	/**
+	 * Returns the value below which the given percentage of recorded values fall.
+	 *
+	 * @param percentile The percentile, between 0 and 100.
+	 * @return The approximate value at the percentile, or 0 if nothing was recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = totalCount.sum();
+		if (count == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				// Report the middle of the bucket, but never more than the recorded maximum
+				return Math.min(bucketMiddle(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Finds the bucket of a value. Values below 16 get a bucket each; above that,
+	 * the five most significant bits select the bucket.
+	 *
+	 * @param value The non-negative value.
+	 * @return The bucket index.
+	 */
+	private static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		int top = (int) (value >>> shift);
+		return (shift + 1) * SUB_BUCKETS + (top - SUB_BUCKETS);
+	}
+
+	/**
+	 * Returns the middle value of a bucket.
+	 *
+	 * @param index The bucket index.
+	 * @return The middle of the bucket's value range.
+	 */
+	private static long bucketMiddle(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long low = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+		return low + ((1L << shift) >>> 1);
+	}
+}
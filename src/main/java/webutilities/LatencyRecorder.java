@@ -0,0 +1,109 @@
+package webutilities;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.openqa.selenium.json.Json;
+
+/**
+ * Records named latencies into one LatencyHistogram per name. Thread-safe.
+ */
+public class LatencyRecorder {
+	/** A recorder that records nothing, for callers that do not want instrumentation. */
+	public static final LatencyRecorder DISABLED = new LatencyRecorder(false);
+
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+	private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+	private final boolean enabled;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new, enabled instance of the LatencyRecorder.
+	 */
+	public LatencyRecorder() {
+		this(true);
+	}
+
+	private LatencyRecorder(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Records the time elapsed since a start time. Call it in a finally block
+	 * to time a call whatever way it ends.
+	 *
+	 * @param name       The name to record the latency under.
+	 * @param startNanos The start time from System.nanoTime().
+	 */
+	public void record(String name, long startNanos) {
+		if (enabled) {
+			histogram(name).record(System.nanoTime() - startNanos);
+		}
+	}
+
+	/**
+	 * Returns the histogram for a name, creating it on first use.
+	 *
+	 * @param name The name of the histogram.
+	 * @return The histogram.
+	 */
+	public LatencyHistogram histogram(String name) {
+		return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+	}
+
+	/**
+	 * Returns the total number of recorded calls across all names.
+	 *
+	 * @return The total count.
+	 */
+	public long getTotalCount() {
+		long total = 0;
+		for (LatencyHistogram histogram : histograms.values()) {
+			total += histogram.getCount();
+		}
+		return total;
+	}
+
+	/**
+	 * Summarizes every histogram, sorted by name, with latencies in milliseconds.
+	 *
+	 * @return A map from name to its count, mean, p50, p90, p99 and max.
+	 */
+	public Map<String, Object> toSummary() {
+		Map<String, Object> summary = new TreeMap<>();
+		for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+			LatencyHistogram histogram = entry.getValue();
+			Map<String, Object> stats = new TreeMap<>();
+			stats.put("count", histogram.getCount());
+			stats.put("meanMs", histogram.getMean() / NANOS_PER_MILLI);
+			stats.put("p50Ms", histogram.getValueAtPercentile(50) / NANOS_PER_MILLI);
+			stats.put("p90Ms", histogram.getValueAtPercentile(90) / NANOS_PER_MILLI);
+			stats.put("p99Ms", histogram.getValueAtPercentile(99) / NANOS_PER_MILLI);
+			stats.put("maxMs", histogram.getMax() / NANOS_PER_MILLI);
+			summary.put(entry.getKey(), stats);
+		}
+		return summary;
+	}
+
+	/**
+	 * Writes an object, such as a map of summaries, to a file as JSON.
+	 *
+	 * @param file    The file to write.
+	 * @param content The object to serialize.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static void writeJson(Path file, Object content) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Files.write(file, new Json().toJson(content).getBytes(StandardCharsets.UTF_8));
+	}
+}
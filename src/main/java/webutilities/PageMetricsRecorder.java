@@ -0,0 +1,100 @@
+package webutilities;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records browser performance figures, such as time to first byte or resource
+ * count, into one LatencyHistogram per navigation step and figure, so a run
+ * can report their percentiles. Values are kept in thousandths, which keeps
+ * sub-millisecond resolution for times and exact small counts. Thread-safe.
+ */
+public class PageMetricsRecorder {
+	/** A recorder that records nothing, for callers that do not collect page metrics. */
+	public static final PageMetricsRecorder DISABLED = new PageMetricsRecorder(false);
+
+	private static final double SCALE = 1000.0;
+	// Histograms by step, then by figure
+	private final ConcurrentMap<String, ConcurrentMap<String, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+	private final boolean enabled;
+
+// Constructor*************************************************************
+	/**
+	 * Initializes a new, enabled instance of the PageMetricsRecorder.
+	 */
+	public PageMetricsRecorder() {
+		this(true);
+	}
+
+	private PageMetricsRecorder(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Tells whether figures are recorded, so callers can skip collecting them.
+	 *
+	 * @return false for DISABLED.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Records the figures of one navigation step. Negative values are recorded as 0.
+	 *
+	 * @param step    The navigation step, for example "searchForProduct".
+	 * @param metrics The figures by name.
+	 */
+	public void record(String step, Map<String, Double> metrics) {
+		if (!enabled) {
+			return;
+		}
+		ConcurrentMap<String, LatencyHistogram> stepHistograms = histograms.computeIfAbsent(step,
+				key -> new ConcurrentHashMap<>());
+		for (Map.Entry<String, Double> metric : metrics.entrySet()) {
+			stepHistograms.computeIfAbsent(metric.getKey(), key -> new LatencyHistogram())
+					.record(Math.max(0, Math.round(metric.getValue() * SCALE)));
+		}
+	}
+
+	/**
+	 * Returns the histogram of one figure of a step.
+	 *
+	 * @param step   The navigation step.
+	 * @param metric The figure.
+	 * @return The histogram of the values in thousandths, or null if none were recorded.
+	 */
+	public LatencyHistogram histogram(String step, String metric) {
+		Map<String, LatencyHistogram> stepHistograms = histograms.get(step);
+		return stepHistograms == null ? null : stepHistograms.get(metric);
+	}
+
+	/**
+	 * Summarizes every figure of every step, sorted by name, in the figure's own unit.
+	 *
+	 * @return A map from step to a map from figure to its count, mean, p50, p90, p99 and max.
+	 */
+	public Map<String, Object> toSummary() {
+		Map<String, Object> summary = new TreeMap<>();
+		for (Map.Entry<String, ConcurrentMap<String, LatencyHistogram>> step : histograms.entrySet()) {
+			Map<String, Object> stepSummary = new TreeMap<>();
+			for (Map.Entry<String, LatencyHistogram> metric : step.getValue().entrySet()) {
+				LatencyHistogram histogram = metric.getValue();
+				Map<String, Object> stats = new TreeMap<>();
+				stats.put("count", histogram.getCount());
+				stats.put("mean", histogram.getMean() / SCALE);
+				stats.put("p50", histogram.getValueAtPercentile(50) / SCALE);
+				stats.put("p90", histogram.getValueAtPercentile(90) / SCALE);
+				stats.put("p99", histogram.getValueAtPercentile(99) / SCALE);
+				stats.put("max", histogram.getMax() / SCALE);
+				stepSummary.put(metric.getKey(), stats);
+			}
+			summary.put(step.getKey(), stepSummary);
+		}
+		return summary;
+	}
+}
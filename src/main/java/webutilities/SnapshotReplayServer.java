@@ -0,0 +1,98 @@
+package webutilities;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local HTTP server that answers requests from a SnapshotStore, so page
+ * objects can run against recorded pages at local-disk speed. Requests that
+ * were never recorded get a 404 and are logged.
+ */
+public class SnapshotReplayServer implements AutoCloseable {
+	private static final Logger logger = LogManager.getLogger(SnapshotReplayServer.class);
+	private final SnapshotStore store;
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+// Constructor*************************************************************
+	private SnapshotReplayServer(SnapshotStore store, HttpServer server, ExecutorService executor) {
+		this.store = store;
+		this.server = server;
+		this.executor = executor;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Starts a replay server on the loopback interface.
+	 *
+	 * @param store The store to serve responses from.
+	 * @param port  The port to listen on, or 0 for any free port.
+	 * @return The running server.
+	 * @throws IOException If the server cannot be started.
+	 */
+	public static SnapshotReplayServer start(SnapshotStore store, int port) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		SnapshotReplayServer replayServer = new SnapshotReplayServer(store, server, executor);
+		// Handlers are registered once the instance is fully constructed
+		server.createContext("/", replayServer::handle);
+		server.setExecutor(executor);
+		server.start();
+		logger.info("Replaying {} snapshots at {}", store.size(), replayServer.getBaseUrl());
+		return replayServer;
+	}
+
+	/**
+	 * Returns the base URL of the server, ending with '/'.
+	 *
+	 * @return The base URL.
+	 */
+	public String getBaseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Answers one request with the recorded response for its path and query.
+	 *
+	 * @param exchange The request and response.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		String key = SnapshotStore.keyFor(exchange.getRequestURI().toString());
+		SnapshotStore.Snapshot snapshot = store.get(key);
+		byte[] body;
+		int status;
+		if (snapshot == null) {
+			logger.warn("No snapshot recorded for {}", key);
+			body = ("No snapshot recorded for " + key).getBytes(StandardCharsets.UTF_8);
+			status = 404;
+			exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		} else {
+			body = snapshot.getBody();
+			status = 200;
+			exchange.getResponseHeaders().set("Content-Type", snapshot.getContentType());
+		}
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(body);
+		}
+	}
+}
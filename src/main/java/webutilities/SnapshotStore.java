@@ -0,0 +1,205 @@
+package webutilities;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An on-disk store of recorded page responses, used to replay runs offline.
+ *
+ * The store is a directory with two files: snapshots.dat holds the gzip
+ * compressed bodies back to back, and snapshots.idx holds one tab separated
+ * line per body with its request key, offset, length and content type. The
+ * index is loaded into memory when the store is opened and the data file is
+ * memory-mapped for reads. Recording a key again appends a new body and the
+ * latest one wins.
+ */
+public class SnapshotStore implements AutoCloseable {
+	private static final String DATA_FILE = "snapshots.dat";
+	private static final String INDEX_FILE = "snapshots.idx";
+
+	private final FileChannel data;
+	private final Writer index;
+	private final Map<String, Entry> entries = new HashMap<>();
+	private MappedByteBuffer mapped;
+
+	/**
+	 * A recorded response.
+	 */
+	public static final class Snapshot {
+		private final String contentType;
+		private final byte[] body;
+
+		private Snapshot(String contentType, byte[] body) {
+			this.contentType = contentType;
+			this.body = body;
+		}
+
+		public String getContentType() {
+			return contentType;
+		}
+
+		public byte[] getBody() {
+			return body;
+		}
+	}
+
+	// Where a compressed body is stored in the data file
+	private static final class Entry {
+		private final long offset;
+		private final int length;
+		private final String contentType;
+
+		private Entry(long offset, int length, String contentType) {
+			this.offset = offset;
+			this.length = length;
+			this.contentType = contentType;
+		}
+	}
+
+// Constructor*************************************************************
+	private SnapshotStore(FileChannel data, Writer index) {
+		this.data = data;
+		this.index = index;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Opens the store in a directory, creating it if it does not exist.
+	 *
+	 * @param directory The directory of the store.
+	 * @return The opened store.
+	 * @throws IOException If the store files cannot be opened or the index is corrupt.
+	 */
+	public static SnapshotStore open(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		Path indexPath = directory.resolve(INDEX_FILE);
+		FileChannel data = FileChannel.open(directory.resolve(DATA_FILE),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		Writer index = Files.newBufferedWriter(indexPath, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		SnapshotStore store = new SnapshotStore(data, index);
+		// Load the index, later lines for the same key replace earlier ones
+		for (String line : Files.readAllLines(indexPath, StandardCharsets.UTF_8)) {
+			String[] fields = line.split("\t", 4);
+			if (fields.length != 4) {
+				store.close();
+				throw new IOException("Corrupt snapshot index line: " + line);
+			}
+			store.entries.put(fields[0], new Entry(Long.parseLong(fields[1]), Integer.parseInt(fields[2]), fields[3]));
+		}
+		return store;
+	}
+
+	/**
+	 * Builds the request key of a URL: its path and query, without scheme, host or fragment.
+	 *
+	 * @param url The URL of the request.
+	 * @return The request key.
+	 */
+	public static String keyFor(String url) {
+		URI uri = URI.create(url);
+		String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+		return uri.getRawQuery() == null ? path : path + "?" + uri.getRawQuery();
+	}
+
+	/**
+	 * Records a response.
+	 *
+	 * @param key         The request key, see keyFor().
+	 * @param contentType The content type of the response.
+	 * @param body        The response body.
+	 * @throws IOException If the response cannot be written.
+	 */
+	public synchronized void put(String key, String contentType, byte[] body) throws IOException {
+		byte[] compressed = compress(body);
+		long offset = data.size();
+		data.write(ByteBuffer.wrap(compressed), offset);
+		// Tabs and line breaks would corrupt the index line
+		String safeKey = key.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+		index.write(safeKey + "\t" + offset + "\t" + compressed.length + "\t" + contentType + "\n");
+		index.flush();
+		entries.put(safeKey, new Entry(offset, compressed.length, contentType));
+	}
+
+	/**
+	 * Looks up a recorded response.
+	 *
+	 * @param key The request key, see keyFor().
+	 * @return The recorded response, or null if the key was never recorded.
+	 * @throws UncheckedIOException If the body cannot be read.
+	 */
+	public synchronized Snapshot get(String key) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		try {
+			// Map the data file again if it has grown past the current mapping
+			if (mapped == null || entry.offset + entry.length > mapped.capacity()) {
+				mapped = data.map(FileChannel.MapMode.READ_ONLY, 0, data.size());
+			}
+			byte[] compressed = new byte[entry.length];
+			ByteBuffer view = mapped.duplicate();
+			view.position((int) entry.offset);
+			view.get(compressed);
+			return new Snapshot(entry.contentType, decompress(compressed));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the number of recorded request keys.
+	 *
+	 * @return The number of keys.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			index.close();
+		} finally {
+			data.close();
+		}
+	}
+
+	private static byte[] compress(byte[] body) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+			gzip.write(body);
+		}
+		return output.toByteArray();
+	}
+
+	private static byte[] decompress(byte[] compressed) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream(compressed.length * 4);
+		try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			byte[] buffer = new byte[16384];
+			int read;
+			while ((read = gzip.read(buffer)) != -1) {
+				output.write(buffer, 0, read);
+			}
+		}
+		return output.toByteArray();
+	}
+}
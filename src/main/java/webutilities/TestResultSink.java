@@ -0,0 +1,125 @@
+package webutilities;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+/**
+ * Appends one JSON Lines record per finished test to a results file.
+ *
+ * Each record is written and flushed as soon as the test finishes, so the
+ * results of the tests that did finish survive if the run dies, and nothing
+ * is held in memory between records. Safe to share between tests running in
+ * parallel; records are numbered in the order they are written.
+ */
+public class TestResultSink implements AutoCloseable {
+	/** Status of a test that passed. */
+	public static final String PASSES = "PASSES";
+	/** Status of a test that failed. */
+	public static final String FAILS = "FAILS";
+	/** Status of a test that was skipped by a failed assumption. */
+	public static final String SKIPPED = "SKIPPED";
+
+	private final Json json = new Json();
+	private final Writer writer;
+	private int testNumber = 0;
+
+// Constructor*************************************************************
+	private TestResultSink(Writer writer) {
+		this.writer = writer;
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Opens a results file for appending, creating it and its directory if needed.
+	 *
+	 * @param file The results file.
+	 * @return The opened sink.
+	 * @throws IOException If the file cannot be created or opened.
+	 */
+	public static TestResultSink open(Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		return new TestResultSink(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+	}
+
+	/**
+	 * Writes the record of one finished test and flushes it to the file.
+	 *
+	 * @param test        The test description, for example "test1(com.example.TableTest)".
+	 * @param status      PASSES, FAILS or SKIPPED.
+	 * @param startMillis When the test started, in epoch milliseconds.
+	 * @param durationMs  How long the test ran, in milliseconds.
+	 * @param error       The failure, or null if the test did not fail.
+	 * @return The number of the record, starting at 1.
+	 * @throws IOException If the record cannot be written.
+	 */
+	public int record(String test, String status, long startMillis, long durationMs, Throwable error)
+			throws IOException {
+		return record(test, status, startMillis, durationMs, error, Collections.<String, Object>emptyMap());
+	}
+
+	/**
+	 * Writes the record of one finished test with extra details, such as the
+	 * page timings of its navigation steps, and flushes it to the file.
+	 *
+	 * @param test        The test description, for example "test1(com.example.TableTest)".
+	 * @param status      PASSES, FAILS or SKIPPED.
+	 * @param startMillis When the test started, in epoch milliseconds.
+	 * @param durationMs  How long the test ran, in milliseconds.
+	 * @param error       The failure, or null if the test did not fail.
+	 * @param details     Extra fields added to the record after the standard ones.
+	 * @return The number of the record, starting at 1.
+	 * @throws IOException If the record cannot be written.
+	 */
+	public synchronized int record(String test, String status, long startMillis, long durationMs, Throwable error,
+			Map<String, Object> details) throws IOException {
+		testNumber++;
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("testNumber", testNumber);
+		result.put("test", test);
+		result.put("status", status);
+		result.put("start", Instant.ofEpochMilli(startMillis).toString());
+		result.put("durationMs", durationMs);
+		result.put("thread", Thread.currentThread().getName());
+		if (error != null) {
+			result.put("error", String.valueOf(error));
+		}
+		result.putAll(details);
+		// One record per line, so write the JSON without pretty printing
+		StringBuilder line = new StringBuilder();
+		try (JsonOutput output = json.newOutput(line)) {
+			output.setPrettyPrint(false).write(result);
+		}
+		writer.write(line.append('\n').toString());
+		writer.flush();
+		return testNumber;
+	}
+
+	/**
+	 * Returns the number of records written so far.
+	 *
+	 * @return The record count.
+	 */
+	public synchronized int getCount() {
+		return testNumber;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+}
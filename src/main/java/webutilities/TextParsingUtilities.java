@@ -1,27 +1,216 @@
-package webutilities;
-
-/**
- * Utility class for parsing text
- */
-public class TextParsingUtilities {
-
-    /**
-     * This method extracts an integer from the given text.
-     *
-     * @param stringToParse The input text containing numeric characters.
-     * @return The extracted integer value. If the text does not contain a valid integer, 0 is returned.
-     */
-    public int getIntegerFromText(String stringToParse) {
-        int integer = 0;
-        // Remove non-numeric characters from the input text
-        String numericPart = stringToParse.replaceAll("[^0-9]", "");
-        try {
-            // Parse the numeric part as an integer
-            integer = Integer.parseInt(numericPart);
-        } catch (NumberFormatException e) {
-            // Handle any parsing errors (e.g., if the text doesn't contain valid numbers)
-            e.printStackTrace();
-        }
-        return integer;
-    }
-}
+package webutilities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+/**
+ * Utility class for parsing text
+ */
+public class TextParsingUtilities {
+
+    // Returned by the scanner when the text holds no number
+    private static final long ABSENT = -1L;
+    // Returned by the scanner when the number does not fit in a long
+    private static final long OVERFLOW = -2L;
+
+    /**
+     * This method extracts an integer from the given text.
+     *
+     * @param stringToParse The input text containing numeric characters.
+     * @return The first non-negative integer in the text. If the text does not contain a number, or the
+     *         number does not fit in an int, 0 is returned.
+     */
+    public int getIntegerFromText(String stringToParse) {
+        return parseInt(stringToParse, 0, 0);
+    }
+
+    /**
+     * This method extracts the first non-negative integer from the given text in a
+     * single pass, without allocating. Thousands separators are understood, so
+     * "1,234 results" gives 1234.
+     *
+     * @param text          The input text.
+     * @param absentValue   The value returned when the text contains no number.
+     * @param overflowValue The value returned when the number does not fit in an int.
+     * @return The extracted integer, absentValue or overflowValue.
+     */
+    public int parseInt(CharSequence text, int absentValue, int overflowValue) {
+        long value = scan(text);
+        if (value == ABSENT) {
+            return absentValue;
+        }
+        if (value == OVERFLOW || value > Integer.MAX_VALUE) {
+            return overflowValue;
+        }
+        return (int) value;
+    }
+
+    /**
+     * This method extracts the first non-negative long from the given text in a
+     * single pass, without allocating. Thousands separators are understood.
+     *
+     * @param text          The input text.
+     * @param absentValue   The value returned when the text contains no number.
+     * @param overflowValue The value returned when the number does not fit in a long.
+     * @return The extracted long, absentValue or overflowValue.
+     */
+    public long parseLong(CharSequence text, long absentValue, long overflowValue) {
+        long value = scan(text);
+        if (value == ABSENT) {
+            return absentValue;
+        }
+        return value == OVERFLOW ? overflowValue : value;
+    }
+
+    /**
+     * This method extracts the first non-negative integer from the given text.
+     *
+     * @param text The input text.
+     * @return The extracted integer, or an empty OptionalInt if the text contains no number or it does not fit in an int.
+     */
+    public OptionalInt findInt(CharSequence text) {
+        long value = scan(text);
+        return value < 0 || value > Integer.MAX_VALUE ? OptionalInt.empty() : OptionalInt.of((int) value);
+    }
+
+    /**
+     * This method extracts the first non-negative long from the given text.
+     *
+     * @param text The input text.
+     * @return The extracted long, or an empty OptionalLong if the text contains no number or it does not fit in a long.
+     */
+    public OptionalLong findLong(CharSequence text) {
+        long value = scan(text);
+        return value < 0 ? OptionalLong.empty() : OptionalLong.of(value);
+    }
+
+    /**
+     * This method extracts the first non-negative integer from each of the given texts.
+     *
+     * @param texts         The input texts.
+     * @param absentValue   The value stored for a text that contains no number.
+     * @param overflowValue The value stored for a number that does not fit in an int.
+     * @return An array with one extracted integer per text, in the same order.
+     */
+    public int[] parseInts(List<? extends CharSequence> texts, int absentValue, int overflowValue) {
+        int[] values = new int[texts.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = parseInt(texts.get(i), absentValue, overflowValue);
+        }
+        return values;
+    }
+
+    /**
+     * This method adds every title that does not contain the keyword to a list.
+     * The check is the single rule of a TitleRuleSet, so it ignores the case of
+     * both the keyword and the title, like the browser audit.
+     *
+     * @param titles           The titles to check.
+     * @param keyword          The keyword to look for.
+     * @param missingItemsList The list the titles missing the keyword are added to, in order.
+     */
+    public void addTitlesMissingKeyword(List<String> titles, String keyword, List<String> missingItemsList) {
+        TitleRuleSet.Matcher matcher = TitleRuleSet.builder().require(keyword).build().matcher();
+        for (String title : titles) {
+            if (!matcher.passes(title)) {
+                missingItemsList.add(title);
+            }
+        }
+    }
+
+    /**
+     * This method finds the expected texts that are not among the actual texts.
+     * Each actual text accounts for one expected text, so an item expected twice
+     * must be listed twice.
+     *
+     * @param expected The texts that should be present, for example the descriptions of the items added to a cart.
+     * @param actual   The texts that are present, for example the descriptions of the cart lines.
+     * @return The expected texts without a matching actual text, in expected order.
+     */
+    public List<String> findMissingTexts(List<String> expected, List<String> actual) {
+        // Count each actual text, so duplicates are matched one for one
+        Map<String, Integer> available = new HashMap<>();
+        for (String text : actual) {
+            available.merge(text.trim(), 1, Integer::sum);
+        }
+        List<String> missing = new ArrayList<>();
+        for (String text : expected) {
+            Integer count = available.get(text.trim());
+            if (count == null || count == 0) {
+                missing.add(text);
+            } else {
+                available.put(text.trim(), count - 1);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Scans the text for its first run of digits. A comma followed by exactly three
+     * digits is treated as a thousands separator; any other character ends the number.
+     *
+     * @param text The input text, may be null.
+     * @return The non-negative number, ABSENT if there is none, or OVERFLOW if it does not fit in a long.
+     */
+    private static long scan(CharSequence text) {
+        if (text == null) {
+            return ABSENT;
+        }
+        int length = text.length();
+        int i = 0;
+        // Skip to the first digit
+        while (i < length && !isDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return ABSENT;
+        }
+        long value = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                int digit = c - '0';
+                // Check for overflow before multiplying
+                if (value > (Long.MAX_VALUE - digit) / 10) {
+                    return OVERFLOW;
+                }
+                value = value * 10 + digit;
+                i++;
+            } else if (c == ',' && isThousandsGroup(text, i + 1)) {
+                // Skip the separator, the group's digits are read by the next iterations
+                i++;
+            } else {
+                break;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether exactly three digits start at the given index.
+     *
+     * @param text  The input text.
+     * @param start The index of the first digit of the group.
+     * @return true if the text has exactly three digits at start, not followed by another digit.
+     */
+    private static boolean isThousandsGroup(CharSequence text, int start) {
+        int end = start + 3;
+        if (end > text.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return end == text.length() || !isDigit(text.charAt(end));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,69 @@
+package webutilities;
+
+import java.util.List;
+
+/**
+ * Fingerprints the titles of a result page, so an audit can tell whether a page
+ * changed since it was last checked without comparing every title.
+ *
+ * The fingerprint is the title count and a 53-bit cyrb53 hash of the titles in
+ * order, each followed by a newline. The hash only uses 32-bit integer
+ * multiplication, so a browser script can compute exactly the same value with
+ * Math.imul and return it instead of the titles.
+ */
+public class TitleFingerprint {
+	// cyrb53 seeds and multipliers
+	private static final int SEED_1 = 0xdeadbeef;
+	private static final int SEED_2 = 0x41c6ce57;
+	private static final int MIX_1 = 0x9e3779b1;
+	private static final int MIX_2 = 0x5f356495;
+	private static final int FINAL_1 = 0x85ebca6b;
+	private static final int FINAL_2 = 0xc2b2ae35;
+
+	/**
+	 * A browser script computing the fingerprint of the trimmed text of every
+	 * element matching the CSS selector in arguments[0].
+	 */
+	public static final String BROWSER_SCRIPT =
+			"var nodes = document.querySelectorAll(arguments[0]);"
+			+ "var h1 = 0xdeadbeef, h2 = 0x41c6ce57;"
+			+ "for (var i = 0; i < nodes.length; i++) {"
+			+ "  var text = (nodes[i].innerText || nodes[i].textContent || '').trim() + '\\n';"
+			+ "  for (var j = 0; j < text.length; j++) {"
+			+ "    var ch = text.charCodeAt(j);"
+			+ "    h1 = Math.imul(h1 ^ ch, 0x9e3779b1);"
+			+ "    h2 = Math.imul(h2 ^ ch, 0x5f356495);"
+			+ "  }"
+			+ "}"
+			+ "h1 = Math.imul(h1 ^ (h1 >>> 16), 0x85ebca6b);"
+			+ "h1 ^= Math.imul(h2 ^ (h2 >>> 13), 0xc2b2ae35);"
+			+ "h2 = Math.imul(h2 ^ (h2 >>> 16), 0x85ebca6b);"
+			+ "h2 ^= Math.imul(h1 ^ (h1 >>> 13), 0xc2b2ae35);"
+			+ "return nodes.length + ':' + (4294967296 * (0x1fffff & h2) + (h1 >>> 0)).toString(16);";
+
+// Methods*****************************************************************
+
+	/**
+	 * Computes the fingerprint of a list of titles, matching BROWSER_SCRIPT.
+	 *
+	 * @param titles The titles in page order.
+	 * @return The fingerprint, for example "60:1b2e9a07c4d3f".
+	 */
+	public static String of(List<String> titles) {
+		int h1 = SEED_1;
+		int h2 = SEED_2;
+		for (String title : titles) {
+			for (int i = 0; i <= title.length(); i++) {
+				char ch = i < title.length() ? title.charAt(i) : '\n';
+				h1 = (h1 ^ ch) * MIX_1;
+				h2 = (h2 ^ ch) * MIX_2;
+			}
+		}
+		h1 = (h1 ^ (h1 >>> 16)) * FINAL_1;
+		h1 ^= (h2 ^ (h2 >>> 13)) * FINAL_2;
+		h2 = (h2 ^ (h2 >>> 16)) * FINAL_1;
+		h2 ^= (h1 ^ (h1 >>> 13)) * FINAL_2;
+		long hash = ((long) (h2 & 0x1fffff) << 32) | (h1 & 0xffffffffL);
+		return titles.size() + ":" + Long.toHexString(hash);
+	}
+}
@@ -0,0 +1,398 @@
+package webutilities;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * A set of title rules evaluated in one pass per title. Required keywords must
+ * appear in the title, forbidden keywords must not, and of each any-of group
+ * at least one keyword must appear. Matching is a substring match that ignores
+ * the case of both keyword and title; the single keyword check of every
+ * SearchResultsReader goes through it too.
+ *
+ * All keywords are compiled into one Aho-Corasick automaton, so a title is
+ * scanned once however many rules there are, and no lower-case copy of the
+ * title is made.
+ */
+public class TitleRuleSet {
+	// Characters below this value use a dense transition table
+	private static final int ASCII = 128;
+
+	private final List<Rule> rules;
+	private final int patternCount;
+	// Dense transitions for ASCII characters, with failure links already followed
+	private final int[][] asciiNext;
+	// Sparse goto transitions for other characters, sorted by character
+	private final char[][] otherKeys;
+	private final int[][] otherTargets;
+	private final int[] failure;
+	// Patterns recognized when a state is reached, including those of its failure chain
+	private final int[][] outputs;
+
+	/**
+	 * The kinds of rule a TitleRuleSet can hold.
+	 */
+	public enum RuleType {
+		REQUIRED, FORBIDDEN, ANY_OF
+	}
+
+	/**
+	 * One rule of the set.
+	 */
+	public static final class Rule {
+		private final RuleType type;
+		private final List<String> keywords;
+		private final int[] patternIds;
+
+		private Rule(RuleType type, List<String> keywords, int[] patternIds) {
+			this.type = type;
+			this.keywords = Collections.unmodifiableList(keywords);
+			this.patternIds = patternIds;
+		}
+
+		public RuleType getType() {
+			return type;
+		}
+
+		public List<String> getKeywords() {
+			return keywords;
+		}
+
+		@Override
+		public String toString() {
+			switch (type) {
+			case REQUIRED:
+				return "missing '" + keywords.get(0) + "'";
+			case FORBIDDEN:
+				return "contains '" + keywords.get(0) + "'";
+			default:
+				return "missing any of " + keywords;
+			}
+		}
+	}
+
+// Constructor*************************************************************
+	private TitleRuleSet(List<RuleType> types, List<List<String>> keywordGroups) {
+		// Give every distinct lower-case keyword a pattern id
+		Map<String, Integer> patternIds = new LinkedHashMap<>();
+		List<Rule> compiledRules = new ArrayList<>();
+		for (int r = 0; r < types.size(); r++) {
+			List<String> keywords = new ArrayList<>();
+			int[] ids = new int[keywordGroups.get(r).size()];
+			for (int k = 0; k < ids.length; k++) {
+				String keyword = toLowerCase(keywordGroups.get(r).get(k));
+				Integer id = patternIds.get(keyword);
+				if (id == null) {
+					id = patternIds.size();
+					patternIds.put(keyword, id);
+				}
+				keywords.add(keyword);
+				ids[k] = id;
+			}
+			compiledRules.add(new Rule(types.get(r), keywords, ids));
+		}
+		this.rules = Collections.unmodifiableList(compiledRules);
+		this.patternCount = patternIds.size();
+
+		// Build the keyword trie
+		List<Map<Character, Integer>> trie = new ArrayList<>();
+		List<List<Integer>> trieOutputs = new ArrayList<>();
+		trie.add(new HashMap<Character, Integer>());
+		trieOutputs.add(new ArrayList<Integer>());
+		for (Map.Entry<String, Integer> pattern : patternIds.entrySet()) {
+			int state = 0;
+			for (char c : pattern.getKey().toCharArray()) {
+				Integer next = trie.get(state).get(c);
+				if (next == null) {
+					next = trie.size();
+					trie.add(new HashMap<Character, Integer>());
+					trieOutputs.add(new ArrayList<Integer>());
+					trie.get(state).put(c, next);
+				}
+				state = next;
+			}
+			trieOutputs.get(state).add(pattern.getValue());
+		}
+
+		// Compute failure links breadth first and merge outputs along them
+		int stateCount = trie.size();
+		this.failure = new int[stateCount];
+		this.asciiNext = new int[stateCount][ASCII];
+		this.otherKeys = new char[stateCount][];
+		this.otherTargets = new int[stateCount][];
+		Queue<Integer> queue = new ArrayDeque<>();
+		for (Map.Entry<Character, Integer> edge : trie.get(0).entrySet()) {
+			failure[edge.getValue()] = 0;
+			queue.add(edge.getValue());
+		}
+		while (!queue.isEmpty()) {
+			int state = queue.remove();
+			trieOutputs.get(state).addAll(trieOutputs.get(failure[state]));
+			for (Map.Entry<Character, Integer> edge : trie.get(state).entrySet()) {
+				int child = edge.getValue();
+				int fallback = failure[state];
+				while (fallback != 0 && !trie.get(fallback).containsKey(edge.getKey())) {
+					fallback = failure[fallback];
+				}
+				Integer target = trie.get(fallback).get(edge.getKey());
+				failure[child] = target != null && target != child ? target : 0;
+				queue.add(child);
+			}
+		}
+		this.outputs = new int[stateCount][];
+		for (int state = 0; state < stateCount; state++) {
+			List<Integer> stateOutputs = trieOutputs.get(state);
+			outputs[state] = new int[stateOutputs.size()];
+			for (int i = 0; i < outputs[state].length; i++) {
+				outputs[state][i] = stateOutputs.get(i);
+			}
+			// Keep the non-ASCII goto edges as sorted arrays for binary search
+			List<Character> keys = new ArrayList<>();
+			for (Character c : trie.get(state).keySet()) {
+				if (c >= ASCII) {
+					keys.add(c);
+				}
+			}
+			Collections.sort(keys);
+			otherKeys[state] = new char[keys.size()];
+			otherTargets[state] = new int[keys.size()];
+			for (int i = 0; i < keys.size(); i++) {
+				otherKeys[state][i] = keys.get(i);
+				otherTargets[state][i] = trie.get(state).get(keys.get(i));
+			}
+		}
+
+		// Fill the dense ASCII table in breadth-first order so failure states are complete first
+		List<Integer> order = new ArrayList<>();
+		order.add(0);
+		for (int i = 0; i < order.size(); i++) {
+			for (Integer child : trie.get(order.get(i)).values()) {
+				order.add(child);
+			}
+		}
+		for (int state : order) {
+			for (char c = 0; c < ASCII; c++) {
+				Integer next = trie.get(state).get(c);
+				if (next != null) {
+					asciiNext[state][c] = next;
+				} else {
+					asciiNext[state][c] = state == 0 ? 0 : asciiNext[failure[state]][c];
+				}
+			}
+		}
+	}
+
+// Methods*****************************************************************
+
+	/**
+	 * Starts building a rule set.
+	 *
+	 * @return A new, empty builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Returns the rules of the set in the order they were added.
+	 *
+	 * @return The rules.
+	 */
+	public List<Rule> getRules() {
+		return rules;
+	}
+
+	/**
+	 * Creates a matcher for this rule set. A matcher reuses its scratch space
+	 * between titles, so it must not be shared between threads.
+	 *
+	 * @return A new matcher.
+	 */
+	public Matcher matcher() {
+		return new Matcher();
+	}
+
+	/**
+	 * Evaluates a rule set against titles. Not thread-safe.
+	 */
+	public final class Matcher {
+		private final long[] seen = new long[(patternCount + 63) / 64];
+
+		private Matcher() {
+		}
+
+		/**
+		 * Checks whether a title passes every rule, without allocating.
+		 *
+		 * @param title The title to check.
+		 * @return true if the title passes every rule.
+		 */
+		public boolean passes(CharSequence title) {
+			scan(title);
+			for (Rule rule : rules) {
+				if (!passes(rule)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns the rules a title violates. Only titles that violate a rule allocate a list.
+		 *
+		 * @param title The title to check.
+		 * @return The violated rules in rule order, or an empty list if the title passes.
+		 */
+		public List<Rule> violations(CharSequence title) {
+			scan(title);
+			List<Rule> violated = Collections.emptyList();
+			for (Rule rule : rules) {
+				if (!passes(rule)) {
+					if (violated.isEmpty()) {
+						violated = new ArrayList<>();
+					}
+					violated.add(rule);
+				}
+			}
+			return violated;
+		}
+
+		/**
+		 * Runs the automaton over the title once, recording every keyword seen.
+		 *
+		 * @param title The title to scan.
+		 */
+		private void scan(CharSequence title) {
+			Arrays.fill(seen, 0L);
+			int state = 0;
+			for (int i = 0; i < title.length(); i++) {
+				state = next(state, Character.toLowerCase(title.charAt(i)));
+				for (int pattern : outputs[state]) {
+					seen[pattern >>> 6] |= 1L << pattern;
+				}
+			}
+		}
+
+		private boolean isSeen(int pattern) {
+			return (seen[pattern >>> 6] & (1L << pattern)) != 0;
+		}
+
+		private boolean passes(Rule rule) {
+			switch (rule.type) {
+			case REQUIRED:
+				return isSeen(rule.patternIds[0]);
+			case FORBIDDEN:
+				return !isSeen(rule.patternIds[0]);
+			default:
+				for (int pattern : rule.patternIds) {
+					if (isSeen(pattern)) {
+						return true;
+					}
+				}
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Follows the automaton from a state on a lower-case character.
+	 *
+	 * @param state The current state.
+	 * @param c     The lower-case character.
+	 * @return The next state.
+	 */
+	private int next(int state, char c) {
+		if (c < ASCII) {
+			return asciiNext[state][c];
+		}
+		while (true) {
+			int index = Arrays.binarySearch(otherKeys[state], c);
+			if (index >= 0) {
+				return otherTargets[state][index];
+			}
+			if (state == 0) {
+				return 0;
+			}
+			state = failure[state];
+		}
+	}
+
+	private static String toLowerCase(String keyword) {
+		StringBuilder builder = new StringBuilder(keyword.length());
+		for (int i = 0; i < keyword.length(); i++) {
+			builder.append(Character.toLowerCase(keyword.charAt(i)));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Collects rules for a TitleRuleSet.
+	 */
+	public static final class Builder {
+		private final List<RuleType> types = new ArrayList<>();
+		private final List<List<String>> keywordGroups = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Adds a keyword every title must contain.
+		 *
+		 * @param keyword The required keyword.
+		 * @return This builder.
+		 */
+		public Builder require(String keyword) {
+			return add(RuleType.REQUIRED, keyword);
+		}
+
+		/**
+		 * Adds a keyword no title may contain.
+		 *
+		 * @param keyword The forbidden keyword.
+		 * @return This builder.
+		 */
+		public Builder forbid(String keyword) {
+			return add(RuleType.FORBIDDEN, keyword);
+		}
+
+		/**
+		 * Adds a group of keywords of which every title must contain at least one.
+		 *
+		 * @param keywords The keywords of the group.
+		 * @return This builder.
+		 */
+		public Builder anyOf(String... keywords) {
+			return add(RuleType.ANY_OF, keywords);
+		}
+
+		/**
+		 * Compiles the rules into a rule set.
+		 *
+		 * @return The compiled rule set.
+		 */
+		public TitleRuleSet build() {
+			return new TitleRuleSet(types, keywordGroups);
+		}
+
+		private Builder add(RuleType type, String... keywords) {
+			if (keywords.length == 0) {
+				throw new IllegalArgumentException("A rule needs at least one keyword");
+			}
+			for (String keyword : keywords) {
+				if (keyword == null || keyword.isEmpty()) {
+					throw new IllegalArgumentException("Rule keywords must not be empty");
+				}
+			}
+			types.add(type);
+			keywordGroups.add(Arrays.asList(keywords));
+			return this;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package webutilities;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+/**
+ * Utility class for building page URLs
+ */
+public class UrlUtilities {
+
+    /**
+     * This method sets a query parameter on the given URL, replacing any existing value.
+     *
+     * @param url   The URL to update.
+     * @param name  The name of the query parameter.
+     * @param value The value of the query parameter.
+     * @return The URL with the query parameter set. Any fragment is kept at the end of the URL.
+     */
+    public String setQueryParameter(String url, String name, String value) {
+        // Split off the fragment so it stays at the end of the URL
+        int fragmentStart = url.indexOf('#');
+        String fragment = fragmentStart >= 0 ? url.substring(fragmentStart) : "";
+        String base = fragmentStart >= 0 ? url.substring(0, fragmentStart) : url;
+        // Split the path from the query string
+        int queryStart = base.indexOf('?');
+        String path = queryStart >= 0 ? base.substring(0, queryStart) : base;
+        String query = queryStart >= 0 ? base.substring(queryStart + 1) : "";
+        // Rebuild the query string, dropping any previous value of the parameter
+        StringBuilder builder = new StringBuilder(path).append('?');
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty() || pair.equals(name) || pair.startsWith(name + "=")) {
+                continue;
+            }
+            builder.append(pair).append('&');
+        }
+        builder.append(name).append('=').append(value);
+        return builder.append(fragment).toString();
+    }
+
+    /**
+     * This method builds the URL of a search result page from any URL of the same search.
+     *
+     * @param searchUrl  The URL of a search result page.
+     * @param pageNumber The page number to build the URL for.
+     * @return The URL of the requested search result page.
+     */
+    public String getResultPageUrl(String searchUrl, int pageNumber) {
+        return setQueryParameter(searchUrl, "page", Integer.toString(pageNumber));
+    }
+
+    /**
+     * This method builds the URL of the first result page for a product search.
+     *
+     * @param baseUrl     The base URL of the site, ending with a slash.
+     * @param productName The name of the product to search for.
+     * @return The search URL.
+     */
+    public String getSearchUrl(String baseUrl, String productName) {
+        try {
+            return baseUrl + "search/?searchval=" + URLEncoder.encode(productName, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(e);
+        }
+    }
+}
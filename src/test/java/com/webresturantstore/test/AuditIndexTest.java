@@ -0,0 +1,79 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import pages.AuditIndex;
+import pages.KeywordViolation;
+import webutilities.TitleFingerprint;
+import webutilities.TitleRuleSet;
+
+/**
+ * Unit tests for the incremental audit index and the title fingerprint it stores.
+ */
+public class AuditIndexTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final TitleRuleSet rules = TitleRuleSet.builder().require("table").forbid("chair").build();
+
+	@Test
+	public void fingerprintMatchesTheBrowserScript() {
+		// Expected values computed by TitleFingerprint.BROWSER_SCRIPT in a JavaScript engine
+		assertThat(TitleFingerprint.of(Arrays.asList("Regency 30\" x 60\" 16-Gauge Stainless Steel Work Table",
+				"Caf\u00e9 table \u00fcn\u00efc\u00f6d\u00e9 \u2713", ""))).isEqualTo("3:13aa581b70f964");
+		assertThat(TitleFingerprint.of(Collections.<String>emptyList())).isEqualTo("0:bdcb81aee8d83");
+	}
+
+	@Test
+	public void fingerprintChangesWithTitlesAndOrder() {
+		String fingerprint = TitleFingerprint.of(Arrays.asList("Work Table", "Prep Table"));
+		assertThat(TitleFingerprint.of(Arrays.asList("Prep Table", "Work Table"))).isNotEqualTo(fingerprint);
+		assertThat(TitleFingerprint.of(Arrays.asList("Work Table", "Prep Table "))).isNotEqualTo(fingerprint);
+		assertThat(TitleFingerprint.of(Arrays.asList("Work Table\nPrep Table"))).isNotEqualTo(fingerprint);
+	}
+
+	@Test
+	public void keepsFingerprintsAndViolationsAcrossRuns() throws IOException {
+		Path directory = folder.getRoot().toPath().resolve("index");
+		AuditIndex auditIndex = new AuditIndex(directory);
+		AuditIndex.QueryIndex index = auditIndex.load("stainless steel table", rules);
+		assertThat(index.getFingerprint(1)).isNull();
+		List<String> titles = Arrays.asList("Work Table", "Table and Chair Set");
+		List<TitleRuleSet.Rule> violated = rules.matcher().violations(titles.get(1));
+		index.putPage(1, TitleFingerprint.of(titles), Arrays.asList(new KeywordViolation(1, 2, titles.get(1), violated)));
+		index.putPage(2, "2:abc", Collections.<KeywordViolation>emptyList());
+		index.putPage(3, "2:def", Collections.<KeywordViolation>emptyList());
+		index.retainPages(2);
+		auditIndex.save(index);
+
+		AuditIndex.QueryIndex reloaded = new AuditIndex(directory).load("stainless steel table", rules);
+		assertThat(reloaded.getPageCount()).isEqualTo(2);
+		assertThat(reloaded.getFingerprint(1)).isEqualTo(TitleFingerprint.of(titles));
+		KeywordViolation violation = reloaded.getViolations(1).get(0);
+		assertThat(violation.getItemIndex()).isEqualTo(2);
+		assertThat(violation.getTitle()).isEqualTo("Table and Chair Set");
+		assertThat(violation.getViolatedRules()).containsExactly(rules.getRules().get(1));
+	}
+
+	@Test
+	public void ignoresAnIndexRecordedWithOtherRules() throws IOException {
+		AuditIndex auditIndex = new AuditIndex(folder.getRoot().toPath());
+		AuditIndex.QueryIndex index = auditIndex.load("work table", rules);
+		index.putPage(1, "1:abc", Collections.<KeywordViolation>emptyList());
+		auditIndex.save(index);
+		TitleRuleSet otherRules = TitleRuleSet.builder().require("table").build();
+		assertThat(auditIndex.load("work table", otherRules).getPageCount()).isZero();
+		assertThat(auditIndex.load("work table", rules).getPageCount()).isEqualTo(1);
+		assertThat(auditIndex.fileFor("work table")).isNotEqualTo(auditIndex.fileFor("Work Table"));
+	}
+}
@@ -0,0 +1,87 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import drivers.BrowserProfile;
+
+/**
+ * Unit tests for reading browser profiles and turning them into Chrome options.
+ */
+public class BrowserProfileTest {
+
+	@Test
+	public void defaultProfileIsFullHeadedBrowser() {
+		BrowserProfile profile = BrowserProfile.fromProperties(new Properties());
+		assertThat(profile.isHeadless()).isFalse();
+		assertThat(profile.isImages()).isTrue();
+		assertThat(profile.getPageLoadStrategy()).isEqualTo(PageLoadStrategy.NORMAL);
+		assertThat(profile.getBlockedUrls()).isEmpty();
+		assertThat(chromeArguments(profile.toChromeOptions())).isEmpty();
+	}
+
+	@Test
+	public void leanProfileWithOverrides() {
+		Properties properties = new Properties();
+		properties.setProperty("browser.profile", "lean");
+		properties.setProperty("browser.headless", "false");
+		properties.setProperty("browser.blockedUrls", "*.png, *tracker.example*,");
+		BrowserProfile profile = BrowserProfile.fromProperties(properties);
+		assertThat(profile.isHeadless()).isFalse();
+		assertThat(profile.isImages()).isFalse();
+		assertThat(profile.getPageLoadStrategy()).isEqualTo(PageLoadStrategy.EAGER);
+		assertThat(profile.getBlockedUrls()).containsExactly("*.png", "*tracker.example*");
+	}
+
+	@Test
+	public void leanProfileOptionsAreHeadlessEagerAndWithoutImages() {
+		ChromeOptions options = BrowserProfile.LEAN.toChromeOptions();
+		assertThat(options.asMap()).containsEntry("pageLoadStrategy", PageLoadStrategy.EAGER);
+		assertThat(chromeArguments(options)).contains("--headless=new", "--blink-settings=imagesEnabled=false");
+		assertThat(BrowserProfile.LEAN.getBlockedUrls()).contains("*google-analytics.com*", "*.woff2");
+	}
+
+	@Test
+	public void rejectsUnknownValues() {
+		Properties properties = new Properties();
+		properties.setProperty("browser.pageLoadStrategy", "quick");
+		assertThatThrownBy(() -> BrowserProfile.fromProperties(properties)).isInstanceOf(IllegalArgumentException.class);
+		properties.setProperty("browser.profile", "tiny");
+		assertThatThrownBy(() -> BrowserProfile.fromProperties(properties)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void reusableProfileAndWarmBrowserOptions() {
+		Properties properties = new Properties();
+		properties.setProperty("browser.userDataDir", "chrome-profiles");
+		properties.setProperty("browser.debuggerAddress", "localhost:9222");
+		BrowserProfile profile = BrowserProfile.fromProperties(properties);
+		assertThat(profile.getUserDataDir()).isEqualTo(Paths.get("chrome-profiles"));
+		assertThat(profile.toBuilder().build().getDebuggerAddress()).isEqualTo("localhost:9222");
+		assertThat(chromeArguments(profile.toChromeOptions(Paths.get("chrome-profiles", "session-0"))))
+				.contains("--user-data-dir=" + Paths.get("chrome-profiles", "session-0").toAbsolutePath(), "--no-first-run");
+		Map<String, Object> attach = chromeOptions(profile.toAttachOptions());
+		assertThat(attach).containsEntry("debuggerAddress", "localhost:9222").doesNotContainKey("prefs");
+		assertThatThrownBy(() -> BrowserProfile.DEFAULT.toAttachOptions()).isInstanceOf(IllegalStateException.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> chromeOptions(ChromeOptions options) {
+		return (Map<String, Object>) options.asMap().get(ChromeOptions.CAPABILITY);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> chromeArguments(ChromeOptions options) {
+		Map<String, Object> chromeOptions = (Map<String, Object>) options.asMap().get(ChromeOptions.CAPABILITY);
+		return (List<String>) chromeOptions.get("args");
+	}
+}
@@ -0,0 +1,58 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+
+import drivers.CommandTimingListener;
+import webutilities.LatencyRecorder;
+
+/**
+ * Unit tests for counting WebDriver commands, using a stub session.
+ */
+public class CommandTimingListenerTest {
+
+	@Test
+	public void countsCommandsButNotLocalAccessors() {
+		LatencyRecorder recorder = new LatencyRecorder();
+		WebDriver driver = CommandTimingListener.instrument(newSession(), recorder);
+		driver.getTitle();
+		// manage() and timeouts() only return helpers, implicitlyWait sends the command
+		driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+		driver.navigate().refresh();
+		assertThat(recorder.getTotalCount()).isEqualTo(3);
+		assertThat(recorder.toSummary()).containsOnlyKeys("WebDriver.getTitle", "Timeouts.implicitlyWait",
+				"Navigation.refresh");
+	}
+
+	private WebDriver newSession() {
+		WebDriver.Timeouts timeouts = (WebDriver.Timeouts) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebDriver.Timeouts.class }, (proxy, method, args) -> proxy);
+		WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebDriver.Options.class },
+				(proxy, method, args) -> method.getName().equals("timeouts") ? timeouts : null);
+		WebDriver.Navigation navigation = (WebDriver.Navigation) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebDriver.Navigation.class }, (proxy, method, args) -> null);
+		return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { WebDriver.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "manage":
+						return options;
+					case "navigate":
+						return navigation;
+					case "getTitle":
+						return "stub";
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+					}
+				});
+	}
+}
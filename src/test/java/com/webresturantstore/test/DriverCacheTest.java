@@ -0,0 +1,91 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import drivers.DriverCache;
+
+/**
+ * Unit tests for remembering the Chrome driver between runs.
+ */
+public class DriverCacheTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final String previousDriver = System.getProperty(DriverCache.DRIVER_PROPERTY);
+
+	@After
+	public void restoreDriverProperty() {
+		if (previousDriver == null) {
+			System.clearProperty(DriverCache.DRIVER_PROPERTY);
+		} else {
+			System.setProperty(DriverCache.DRIVER_PROPERTY, previousDriver);
+		}
+	}
+
+	@Test
+	public void writesAndReadsTheCachedDriver() throws IOException {
+		Path driver = folder.newFile("chromedriver").toPath();
+		DriverCache cache = new DriverCache(folder.getRoot().toPath().resolve("cache").resolve("chromedriver.properties"));
+		assertThat(cache.read()).isNull();
+		cache.write(new DriverCache.Entry(driver, "122.0.6261.94", "122.0.6261.128"));
+		DriverCache.Entry entry = cache.read();
+		assertThat(entry.getDriverPath()).isEqualTo(driver.toAbsolutePath());
+		assertThat(entry.getDriverVersion()).isEqualTo("122.0.6261.94");
+		assertThat(entry.getBrowserVersion()).isEqualTo("122.0.6261.128");
+	}
+
+	@Test
+	public void matchesOnlyTheSameMajorVersionOfAnExistingDriver() throws IOException {
+		Path driver = folder.newFile("chromedriver").toPath();
+		DriverCache.Entry entry = new DriverCache.Entry(driver, "122.0.6261.94", null);
+		assertThat(entry.matches("122.0.6261.128")).isTrue();
+		assertThat(entry.matches("123.0.6312.58")).isFalse();
+		// An unknown Chrome version trusts the cache, for agents where Chrome cannot be asked
+		assertThat(entry.matches(null)).isTrue();
+		Files.delete(driver);
+		assertThat(entry.matches("122.0.6261.128")).isFalse();
+	}
+
+	@Test
+	public void parsesChromeVersionOutput() {
+		assertThat(DriverCache.parseVersion("Google Chrome 122.0.6261.94 \n")).isEqualTo("122.0.6261.94");
+		assertThat(DriverCache.parseVersion("Chromium 121.0.6167.160 built on Debian")).isEqualTo("121.0.6167.160");
+		assertThat(DriverCache.parseVersion("command not found")).isNull();
+	}
+
+	@Test
+	public void findsTheNewestVersionFolderOfAWindowsInstall() throws IOException {
+		Path install = folder.newFolder("Application").toPath();
+		Files.createDirectory(install.resolve("121.0.6167.160"));
+		Files.createDirectory(install.resolve("122.0.6261.94"));
+		Files.createDirectory(install.resolve("SetupMetrics"));
+		Files.createFile(install.resolve("chrome.exe"));
+		assertThat(DriverCache.findInstalledVersion(install)).isEqualTo("122.0.6261.94");
+		assertThat(DriverCache.findInstalledVersion(install.resolve("missing"))).isNull();
+	}
+
+	@Test
+	public void explicitDriverPropertyWins() throws IOException {
+		System.setProperty(DriverCache.DRIVER_PROPERTY, "/opt/chromedriver");
+		DriverCache cache = new DriverCache(folder.getRoot().toPath().resolve("chromedriver.properties"));
+		cache.resolve();
+		assertThat(System.getProperty(DriverCache.DRIVER_PROPERTY)).isEqualTo("/opt/chromedriver");
+		assertThat(cache.read()).isNull();
+	}
+
+	@Test
+	public void ignoresIncompleteCacheFiles() throws IOException {
+		Path file = folder.newFile("chromedriver.properties").toPath();
+		Files.write(file, "driver.version=122.0.6261.94\n".getBytes("ISO-8859-1"));
+		assertThat(new DriverCache(file).read()).isNull();
+	}
+}
@@ -0,0 +1,137 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import pages.HttpSearchPageReader;
+import pages.SearchResultsReader;
+import webutilities.SnapshotReplayServer;
+import webutilities.SnapshotStore;
+
+/**
+ * Unit tests for reading search results over HTTP, served by a replay server,
+ * and for falling back to the browser reader.
+ */
+public class HttpSearchPageReaderTest {
+	private static final String SEARCH_KEY = "/search/?searchval=table";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private SnapshotStore store;
+	private SnapshotReplayServer server;
+	private final List<String> fallbackSearches = new ArrayList<>();
+
+	@Before
+	public void startServer() throws IOException {
+		store = SnapshotStore.open(folder.getRoot().toPath());
+		server = SnapshotReplayServer.start(store, 0);
+	}
+
+	@After
+	public void stopServer() throws IOException {
+		server.close();
+		store.close();
+	}
+
+	@Test
+	public void readsEveryPageInPageOrder() throws IOException {
+		putPage(SEARCH_KEY, 1, 3, "Work Table", "Sink");
+		putPage(SEARCH_KEY + "&page=2", 2, 3, "Prep TABLE", "Shelf");
+		putPage(SEARCH_KEY + "&page=3", 3, 3, "Rack");
+		HttpSearchPageReader reader = new HttpSearchPageReader(server.getBaseUrl(), this::newFallback, 2);
+		reader.searchForProduct("table");
+		assertThat(reader.returnSearchResultCount()).isEqualTo(25);
+		assertThat(reader.returnSearchPageCount()).isEqualTo(3);
+		assertThat(reader.getAllProductTitles()).containsExactly("Work Table", "Sink");
+		assertThat(reader.findAllTitlesMissingKeyword("Table")).containsExactly("Sink", "Shelf", "Rack");
+		assertThat(fallbackSearches).isEmpty();
+	}
+
+	@Test
+	public void readsTheOnlyPageOfResultsWithoutPager() throws IOException {
+		putPage(SEARCH_KEY, 1, 0, "Work Table", "Sink");
+		HttpSearchPageReader reader = new HttpSearchPageReader(server.getBaseUrl(), this::newFallback, 2);
+		reader.searchForProduct("table");
+		assertThat(reader.findAllTitlesMissingKeyword("table")).containsExactly("Sink");
+		assertThat(fallbackSearches).isEmpty();
+	}
+
+	@Test
+	public void fallsBackToTheBrowserWhenTheSearchMarkupIsNotUsable() throws IOException {
+		store.put(SEARCH_KEY, "text/html", "<html><body>Access denied</body></html>".getBytes(StandardCharsets.UTF_8));
+		HttpSearchPageReader reader = new HttpSearchPageReader(server.getBaseUrl(), this::newFallback, 2);
+		reader.searchForProduct("table");
+		assertThat(fallbackSearches).containsExactly("table");
+		assertThat(reader.returnSearchResultCount()).isEqualTo(7);
+		assertThat(reader.findAllTitlesMissingKeyword("table")).containsExactly("From the browser");
+	}
+
+	@Test
+	public void fallsBackToTheBrowserWhenALaterPageCannotBeFetched() throws IOException {
+		putPage(SEARCH_KEY, 1, 2, "Work Table", "Sink");
+		HttpSearchPageReader reader = new HttpSearchPageReader(server.getBaseUrl(), this::newFallback, 2);
+		reader.searchForProduct("table");
+		assertThat(fallbackSearches).isEmpty();
+		// Page 2 was never recorded, so the server answers 404
+		assertThat(reader.findAllTitlesMissingKeyword("table")).containsExactly("From the browser");
+		assertThat(fallbackSearches).containsExactly("table");
+	}
+
+	private void putPage(String key, int page, int lastPage, String... titles) throws IOException {
+		StringBuilder html = new StringBuilder("<html><body>")
+				.append("<h1 class='page-header search--title'>table (25 results)</h1>");
+		if (lastPage > 0) {
+			html.append("<div id='paging'><ul>")
+					.append("<li><a aria-label='current page, page ").append(page).append("'>").append(page).append("</a></li>")
+					.append("<li><a aria-label='last page, page ").append(lastPage).append("'>").append(lastPage).append("</a></li>")
+					.append("</ul></div>");
+		}
+		html.append("<div id='product_listing'>");
+		for (String title : titles) {
+			html.append("<div><span data-testid='itemDescription'>").append(title).append("</span></div>");
+		}
+		html.append("</div></body></html>");
+		store.put(key, "text/html; charset=utf-8", html.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private SearchResultsReader newFallback() {
+		return new SearchResultsReader() {
+			@Override
+			public void searchForProduct(String productName) {
+				fallbackSearches.add(productName);
+			}
+
+			@Override
+			public int returnSearchResultCount() {
+				return 7;
+			}
+
+			@Override
+			public int returnSearchPageCount() {
+				return 1;
+			}
+
+			@Override
+			public List<String> getAllProductTitles() {
+				return Arrays.asList("From the browser");
+			}
+
+			@Override
+			public String[] findAllTitlesMissingKeyword(String keyword) {
+				return new String[] { "From the browser" };
+			}
+		};
+	}
+}
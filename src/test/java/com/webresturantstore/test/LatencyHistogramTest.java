@@ -0,0 +1,57 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import webutilities.LatencyHistogram;
+import webutilities.LatencyRecorder;
+
+/**
+ * Unit tests for the LatencyHistogram and LatencyRecorder.
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void reportsPercentilesWithinBucketPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 10_000; value++) {
+			histogram.record(value * 1_000);
+		}
+		assertThat(histogram.getCount()).isEqualTo(10_000);
+		assertThat(histogram.getMax()).isEqualTo(10_000_000);
+		assertThat(histogram.getMean()).isCloseTo(5_000_500, within(1.0));
+		assertThat(histogram.getValueAtPercentile(50)).isCloseTo(5_000_000, within(5_000_000 / 16L));
+		assertThat(histogram.getValueAtPercentile(99)).isCloseTo(9_900_000, within(9_900_000 / 16L));
+		assertThat(histogram.getValueAtPercentile(100)).isEqualTo(10_000_000);
+	}
+
+	@Test
+	public void emptyHistogramReportsZero() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertThat(histogram.getValueAtPercentile(99)).isZero();
+		assertThat(histogram.getMean()).isZero();
+	}
+
+	@Test
+	public void disabledRecorderRecordsNothing() {
+		LatencyRecorder.DISABLED.record("searchForProduct", System.nanoTime());
+		assertThat(LatencyRecorder.DISABLED.getTotalCount()).isZero();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void summarizesEachName() {
+		LatencyRecorder recorder = new LatencyRecorder();
+		recorder.record("searchForProduct", System.nanoTime());
+		recorder.record("WebDriver.get", System.nanoTime());
+		recorder.record("WebDriver.get", System.nanoTime());
+		Map<String, Object> summary = recorder.toSummary();
+		assertThat(recorder.getTotalCount()).isEqualTo(3);
+		assertThat(summary).containsOnlyKeys("WebDriver.get", "searchForProduct");
+		assertThat((Map<String, Object>) summary.get("WebDriver.get")).containsEntry("count", 2L);
+	}
+}
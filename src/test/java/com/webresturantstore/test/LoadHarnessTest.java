@@ -0,0 +1,131 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import harness.LoadHarness;
+import harness.LoadReport;
+import harness.QueryFileReader;
+import harness.QueryResult;
+import harness.RateLimiter;
+import harness.SearchQuery;
+import pages.KeywordViolation;
+
+/**
+ * Unit tests for the load harness: reading query files, pacing and running queries.
+ */
+public class LoadHarnessTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private QueryFileReader reader = new QueryFileReader();
+
+	@Test
+	public void readsCsvQueriesWithQuotedFieldsAndKeywordLists() throws IOException {
+		Path file = write("queries.csv",
+				"query,require,forbid,anyOf",
+				"# comment",
+				"stainless steel table,table,,",
+				"\"work table, 60\"\"\",table|work,chair,steel|wood;60",
+				"");
+		List<SearchQuery> queries = reader.read(file);
+		assertThat(queries).hasSize(2);
+		assertThat(queries.get(0).getRequired()).containsExactly("table");
+		assertThat(queries.get(1).getQuery()).isEqualTo("work table, 60\"");
+		assertThat(queries.get(1).getRequired()).containsExactly("table", "work");
+		assertThat(queries.get(1).getForbidden()).containsExactly("chair");
+		assertThat(queries.get(1).getAnyOf()).containsExactly(Arrays.asList("steel", "wood"), Arrays.asList("60"));
+		assertThat(queries.get(1).getRules().matcher().passes("Steel Work Table, 60 Inch")).isTrue();
+		assertThat(queries.get(1).getRules().matcher().passes("Steel Work Table Chair")).isFalse();
+	}
+
+	@Test
+	public void readsJsonLinesQueries() throws IOException {
+		Path file = write("queries.jsonl",
+				"{\"query\": \"stainless steel table\", \"require\": \"table\"}",
+				"{\"query\": \"prep table\", \"require\": [\"table\"], \"forbid\": [\"chair\"], \"anyOf\": [[\"steel\", \"wood\"]]}");
+		List<SearchQuery> queries = reader.read(file);
+		assertThat(queries).extracting(SearchQuery::getQuery).containsExactly("stainless steel table", "prep table");
+		assertThat(queries.get(1).getAnyOf()).containsExactly(Arrays.asList("steel", "wood"));
+	}
+
+	@Test
+	public void reportsTheLineOfAMalformedQuery() throws IOException {
+		Path file = write("queries.csv", "stainless steel table,table", ",table");
+		assertThatThrownBy(() -> reader.read(file)).isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("line 2");
+	}
+
+	@Test
+	public void rampsUpLinearlyThenHoldsTheRate() {
+		RateLimiter limiter = new RateLimiter(10, 2);
+		// 10 permits are issued while ramping up over 2 seconds, then one every 100 ms
+		assertThat(limiter.getPermitOffsetNanos(0)).isZero();
+		assertThat(limiter.getPermitOffsetNanos(5) / 1e9).isCloseTo(Math.sqrt(2), within(1e-6));
+		assertThat(limiter.getPermitOffsetNanos(10) / 1e9).isCloseTo(2.0, within(1e-6));
+		assertThat(limiter.getPermitOffsetNanos(15) / 1e9).isCloseTo(2.5, within(1e-6));
+		assertThat(new RateLimiter(0, 5).getPermitOffsetNanos(1000)).isZero();
+	}
+
+	@Test
+	public void runsQueriesWithBoundedConcurrencyAndCountsOutcomes() throws Exception {
+		List<SearchQuery> queries = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			String query = i % 10 == 0 ? "error " + i : i % 3 == 0 ? "chair " + i : "table " + i;
+			queries.add(new SearchQuery(query, Collections.singletonList("table"), Collections.<String>emptyList(),
+					Collections.<List<String>>emptyList()));
+		}
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		LoadReport report;
+		try (LoadHarness harness = new LoadHarness(3, new RateLimiter(0, 0))) {
+			report = harness.run(queries, query -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				try {
+					TimeUnit.MILLISECONDS.sleep(5);
+					if (query.getQuery().startsWith("error")) {
+						throw new IllegalStateException("search page did not load");
+					}
+					// Treat the query text as the single result title
+					List<KeywordViolation> violations = new ArrayList<>();
+					if (!query.getRules().matcher().passes(query.getQuery())) {
+						violations.add(new KeywordViolation(1, 1, query.getQuery()));
+					}
+					return violations;
+				} finally {
+					running.decrementAndGet();
+				}
+			});
+		}
+		assertThat(maxRunning.get()).isLessThanOrEqualTo(3);
+		assertThat(report.getErrors()).isEqualTo(3);
+		assertThat(report.getFailed()).isEqualTo(9);
+		assertThat(report.getPassed()).isEqualTo(18);
+		assertThat(report.getResults()).extracting(QueryResult::getQuery).first().isEqualTo("error 0");
+		assertThat(report.getResults().get(0).getStatus()).isEqualTo(QueryResult.Status.ERROR);
+		assertThat(report.getThroughputPerSecond()).isPositive();
+		assertThat(report.toMap()).containsKeys("latency", "results");
+	}
+
+	private Path write(String name, String... lines) throws IOException {
+		Path file = folder.getRoot().toPath().resolve(name);
+		Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+		return file;
+	}
+}
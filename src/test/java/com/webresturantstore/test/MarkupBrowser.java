@@ -0,0 +1,210 @@
+package com.webresturantstore.test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * A stub browser for unit tests that shows fixed markup by URL. Element lookups
+ * by CSS selector and the page objects' capture and bulk text read scripts are
+ * answered from the markup with jsoup; other scripts return null.
+ */
+class MarkupBrowser {
+	private static final String CSS_PREFIX = "By.cssSelector: ";
+
+	private final Map<String, String> pages;
+	private final String lateSelector;
+	private final int lookupsBeforeRender;
+	private String currentUrl = "about:blank";
+	private Document document = Jsoup.parse("");
+	private int lookupsSinceLoad = 0;
+	private final List<String> visitedUrls = new ArrayList<>();
+	private boolean quit = false;
+
+	/**
+	 * Creates a browser whose pages are complete as soon as they are loaded.
+	 *
+	 * @param pages The markup of each page by URL.
+	 */
+	MarkupBrowser(Map<String, String> pages) {
+		this(pages, null, 0);
+	}
+
+	/**
+	 * Creates a browser whose pages lack the elements matching a selector until
+	 * some element lookups after each load, like a page that is still parsing.
+	 *
+	 * @param pages               The markup of each page by URL.
+	 * @param lateSelector        The CSS selector of the elements that render late.
+	 * @param lookupsBeforeRender The number of element lookups after a load before they render.
+	 */
+	MarkupBrowser(Map<String, String> pages, String lateSelector, int lookupsBeforeRender) {
+		this.pages = new HashMap<>(pages);
+		this.lateSelector = lateSelector;
+		this.lookupsBeforeRender = lookupsBeforeRender;
+	}
+
+	/**
+	 * Returns a new driver on this browser.
+	 *
+	 * @return A driver that also runs the page objects' read scripts.
+	 */
+	WebDriver driver() {
+		WebDriver.Timeouts timeouts = (WebDriver.Timeouts) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebDriver.Timeouts.class },
+				(proxy, method, args) -> method.getName().startsWith("get") ? Duration.ZERO : proxy);
+		WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebDriver.Options.class }, (proxy, method, args) -> timeouts);
+		return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebDriver.class, JavascriptExecutor.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "get":
+						load((String) args[0]);
+						return null;
+					case "getCurrentUrl":
+						return currentUrl;
+					case "getPageSource":
+						return document.outerHtml();
+					case "findElements":
+						return findElements((By) args[0]);
+					case "findElement":
+						List<WebElement> elements = findElements((By) args[0]);
+						if (elements.isEmpty()) {
+							throw new NoSuchElementException("No element matches " + args[0]);
+						}
+						return elements.get(0);
+					case "executeScript":
+						return executeScript((String) args[0], (Object[]) args[1]);
+					case "manage":
+						return options;
+					case "quit":
+						quit();
+						return null;
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+					}
+				});
+	}
+
+	/**
+	 * Returns the URLs loaded in this browser, in order.
+	 *
+	 * @return The loaded URLs.
+	 */
+	synchronized List<String> getVisitedUrls() {
+		return new ArrayList<>(visitedUrls);
+	}
+
+	/**
+	 * Tells whether a driver on this browser has quit.
+	 *
+	 * @return true once quit.
+	 */
+	synchronized boolean hasQuit() {
+		return quit;
+	}
+
+	private synchronized void load(String url) {
+		visitedUrls.add(url);
+		currentUrl = url;
+		String html = pages.get(url);
+		if (html == null) {
+			throw new IllegalArgumentException("No markup for " + url);
+		}
+		document = Jsoup.parse(html, url);
+		lookupsSinceLoad = 0;
+	}
+
+	private synchronized void quit() {
+		quit = true;
+	}
+
+	private synchronized List<WebElement> findElements(By locator) {
+		String description = locator.toString();
+		if (!description.startsWith(CSS_PREFIX)) {
+			throw new UnsupportedOperationException("Only CSS selectors are supported, not " + locator);
+		}
+		lookupsSinceLoad++;
+		List<WebElement> elements = new ArrayList<>();
+		for (Element element : rendered().select(description.substring(CSS_PREFIX.length()))) {
+			elements.add(toWebElement(element));
+		}
+		return elements;
+	}
+
+	private synchronized Object executeScript(String script, Object[] args) {
+		Document page = rendered();
+		if (script.contains("outerHTML")) {
+			// The capture of the subtrees matching the selectors
+			StringBuilder html = new StringBuilder("<html><body>");
+			for (Object selector : args) {
+				Element element = page.selectFirst((String) selector);
+				if (element != null) {
+					html.append(element.outerHtml());
+				}
+			}
+			Map<String, Object> capture = new HashMap<>();
+			capture.put("url", currentUrl);
+			capture.put("html", html.append("</body></html>").toString());
+			return capture;
+		}
+		if (script.contains("texts.push")) {
+			// The text of every element matching the selector
+			List<String> texts = new ArrayList<>();
+			for (Element element : page.select((String) args[0])) {
+				texts.add(element.text());
+			}
+			return texts;
+		}
+		return null;
+	}
+
+	private Document rendered() {
+		if (lateSelector == null || lookupsSinceLoad >= lookupsBeforeRender) {
+			return document;
+		}
+		Document partial = document.clone();
+		partial.select(lateSelector).remove();
+		return partial;
+	}
+
+	private WebElement toWebElement(Element element) {
+		return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { WebElement.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getText":
+						return element.text();
+					case "getAttribute":
+					case "getDomAttribute":
+						return element.hasAttr((String) args[0]) ? element.attr((String) args[0]) : null;
+					case "isDisplayed":
+						return Boolean.TRUE;
+					case "findElements":
+						return Collections.emptyList();
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+					}
+				});
+	}
+}
@@ -0,0 +1,62 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import pages.PageTimings;
+import webutilities.PageMetricsRecorder;
+
+/**
+ * Unit tests for the run-level summary of browser page timings.
+ */
+public class PageMetricsRecorderTest {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void summarizesEachFigureOfEachStepInItsOwnUnit() {
+		PageMetricsRecorder recorder = new PageMetricsRecorder();
+		for (int i = 1; i <= 100; i++) {
+			Map<String, Double> metrics = new LinkedHashMap<>();
+			metrics.put(PageTimings.TTFB_MS, i + 0.5);
+			metrics.put(PageTimings.RESOURCE_COUNT, 12.0);
+			recorder.record("goToNextResultPage", metrics);
+		}
+		Map<String, Object> summary = recorder.toSummary();
+		Map<String, Object> step = (Map<String, Object>) summary.get("goToNextResultPage");
+		Map<String, Object> ttfb = (Map<String, Object>) step.get(PageTimings.TTFB_MS);
+		assertThat(ttfb).containsEntry("count", 100L);
+		// Histogram buckets keep percentiles within about 6%
+		assertThat((Double) ttfb.get("p50")).isBetween(47.0, 54.0);
+		assertThat((Double) ttfb.get("p99")).isBetween(94.0, 101.0);
+		assertThat((Double) ttfb.get("max")).isEqualTo(100.5);
+		Map<String, Object> resources = (Map<String, Object>) step.get(PageTimings.RESOURCE_COUNT);
+		assertThat((Double) resources.get("p90")).isBetween(11.5, 12.0);
+	}
+
+	@Test
+	public void disabledRecorderRecordsNothing() {
+		Map<String, Double> metrics = new LinkedHashMap<>();
+		metrics.put(PageTimings.LOAD_MS, 900.0);
+		PageMetricsRecorder.DISABLED.record("searchForProduct", metrics);
+		assertThat(PageMetricsRecorder.DISABLED.isEnabled()).isFalse();
+		assertThat(PageMetricsRecorder.DISABLED.toSummary()).isEmpty();
+	}
+
+	@Test
+	public void timingsMapListsStepUrlAndFigures() {
+		Map<String, Double> metrics = new LinkedHashMap<>();
+		metrics.put(PageTimings.TTFB_MS, 120.0);
+		metrics.put(PageTimings.RESOURCE_COUNT, 30.0);
+		PageTimings timings = new PageTimings("searchForProduct", "https://example.test/search/?searchval=table", metrics);
+		assertThat(timings.toMap()).containsExactly(
+				entry("step", "searchForProduct"),
+				entry("url", "https://example.test/search/?searchval=table"),
+				entry(PageTimings.TTFB_MS, 120.0),
+				entry(PageTimings.RESOURCE_COUNT, 30.0));
+	}
+}
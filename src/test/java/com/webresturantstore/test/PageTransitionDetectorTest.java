@@ -0,0 +1,106 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import pages.PageTransitionDetector;
+
+/**
+ * Unit tests for arming and awaiting page transitions, using a stub driver.
+ */
+public class PageTransitionDetectorTest {
+	private final List<Object[]> asyncCalls = new ArrayList<>();
+	private int unloadsBeforeResult = 0;
+	private int slicesBeforeResult = 0;
+	private boolean scriptError = false;
+
+	@Test
+	public void armingReadsTheCurrentPageAndAwaitingPassesItToTheBrowser() {
+		PageTransitionDetector transition = new PageTransitionDetector(newDriver(), Duration.ofSeconds(5));
+		assertThat(transition.arm()).isTrue();
+		assertThat(transition.getArmedPageText()).isEqualTo("2");
+		assertThat(transition.awaitTransition()).isTrue();
+		assertThat(asyncCalls).hasSize(1);
+		// The mark token and the armed page number go to the browser
+		assertThat((String) asyncCalls.get(0)[2]).isNotEmpty();
+		assertThat(asyncCalls.get(0)[3]).isEqualTo("2");
+	}
+
+	@Test
+	public void checksAgainInTheNewDocumentWhenTheOldOneUnloads() {
+		unloadsBeforeResult = 2;
+		PageTransitionDetector transition = new PageTransitionDetector(newDriver(), Duration.ofSeconds(5));
+		transition.arm();
+		assertThat(transition.awaitTransition()).isTrue();
+		assertThat(asyncCalls).hasSize(3);
+		// Every check looks for the same mark
+		assertThat(asyncCalls.get(2)[2]).isEqualTo(asyncCalls.get(0)[2]);
+	}
+
+	@Test
+	public void waitsInShortSlicesUntilThePageChanges() {
+		slicesBeforeResult = 2;
+		PageTransitionDetector transition = new PageTransitionDetector(newDriver(), Duration.ofSeconds(5));
+		transition.arm();
+		assertThat(transition.awaitTransition()).isTrue();
+		assertThat(asyncCalls).hasSize(3);
+		for (Object[] call : asyncCalls) {
+			assertThat((Long) call[4]).isLessThanOrEqualTo(500L);
+		}
+	}
+
+	@Test
+	public void otherScriptErrorsAreNotRetried() {
+		scriptError = true;
+		PageTransitionDetector transition = new PageTransitionDetector(newDriver(), Duration.ofSeconds(5));
+		transition.arm();
+		assertThatThrownBy(transition::awaitTransition).isInstanceOf(JavascriptException.class);
+		assertThat(asyncCalls).hasSize(1);
+	}
+
+	@Test
+	public void awaitingWithoutArmingFails() {
+		PageTransitionDetector transition = new PageTransitionDetector(newDriver(), Duration.ofSeconds(5));
+		assertThatThrownBy(transition::awaitTransition).isInstanceOf(IllegalStateException.class);
+	}
+
+	private WebDriver newDriver() {
+		return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebDriver.class, JavascriptExecutor.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "executeScript":
+						return "2";
+					case "executeAsyncScript":
+						asyncCalls.add((Object[]) args[1]);
+						if (scriptError) {
+							throw new JavascriptException("javascript error: MutationObserver is not defined");
+						}
+						if (unloadsBeforeResult > 0) {
+							unloadsBeforeResult--;
+							throw new JavascriptException("javascript error: document unloaded while waiting for result");
+						}
+						if (slicesBeforeResult > 0) {
+							slicesBeforeResult--;
+							return Boolean.FALSE;
+						}
+						return Boolean.TRUE;
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+					}
+				});
+	}
+}
@@ -0,0 +1,48 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import pages.PaginationModel;
+
+/**
+ * Unit tests for building the PaginationModel from pager links.
+ */
+public class PaginationModelTest {
+	private static final String SEARCH_URL = "https://www.webstaurantstore.com/search/?searchval=table&page=2";
+
+	private final PaginationModel model = PaginationModel.fromLinks(SEARCH_URL,
+			Arrays.asList("previous page", "page 1", "current page, page 2", "page 3", "last page, page 12", "next page"),
+			Arrays.asList("https://www.webstaurantstore.com/search/?searchval=table&page=1",
+					"https://www.webstaurantstore.com/search/?searchval=table&page=1", "",
+					"https://www.webstaurantstore.com/search/?searchval=table&page=3",
+					"https://www.webstaurantstore.com/search/?searchval=table&page=12",
+					"https://www.webstaurantstore.com/search/?searchval=table&page=3"));
+
+	@Test
+	public void readsCurrentAndLastPageAndSortedPageNumbers() {
+		assertThat(model.getCurrentPage()).isEqualTo(2);
+		assertThat(model.getLastPage()).isEqualTo(12);
+		assertThat(model.getPageNumbers()).containsExactly(1, 2, 3, 12);
+	}
+
+	@Test
+	public void usesLinkedUrlOrBuildsOneForUnlinkedPages() {
+		assertThat(model.getPageUrl(12)).isEqualTo("https://www.webstaurantstore.com/search/?searchval=table&page=12");
+		// The current page is not a link, and page 7 is hidden behind the ellipsis
+		assertThat(model.getPageUrl(2)).isEqualTo(SEARCH_URL);
+		assertThat(model.getPageUrl(7)).isEqualTo("https://www.webstaurantstore.com/search/?searchval=table&page=7");
+	}
+
+	@Test
+	public void hasNoPageUrlOutsideThePager() {
+		assertThat(model.getPageUrl(0)).isNull();
+		assertThat(model.getPageUrl(13)).isNull();
+		PaginationModel singlePage = PaginationModel.fromLinks(SEARCH_URL, Arrays.<String>asList(), Arrays.<String>asList());
+		assertThat(singlePage.getPageNumbers()).isEmpty();
+		assertThat(singlePage.getPageUrl(1)).isNull();
+	}
+}
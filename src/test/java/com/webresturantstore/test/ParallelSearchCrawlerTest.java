@@ -0,0 +1,76 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pages.SearchPageLocators.PRODUCT_LISTING_CSS;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+
+import pages.ParallelSearchCrawler;
+import webutilities.UrlUtilities;
+
+/**
+ * Unit tests for crawling result pages in parallel sessions, using stub browsers that show fixed markup.
+ */
+public class ParallelSearchCrawlerTest {
+	private static final String SEARCH_URL = "https://example.test/search/?searchval=table";
+
+	private final Map<String, String> pages = new HashMap<>();
+	private final List<MarkupBrowser> browsers = new ArrayList<>();
+	private final UrlUtilities urlUtilities = new UrlUtilities();
+	private int lookupsBeforeListing = 0;
+
+	@Test
+	public void crawlsEveryPageAcrossSessionsInPageOrder() {
+		addPage(1, "Work Table", "Sink");
+		addPage(2, "Prep Table", "Shelf");
+		addPage(3, "Rack", "Dining Table");
+		ParallelSearchCrawler crawler = new ParallelSearchCrawler(this::newSession, 2);
+		assertThat(crawler.findAllTitlesMissingKeyword(SEARCH_URL, 3, "table")).containsExactly("Sink", "Shelf", "Rack");
+		assertThat(browsers).hasSize(2);
+		assertThat(browsers).allMatch(MarkupBrowser::hasQuit);
+	}
+
+	@Test
+	public void crawlsTheFirstPageWhenThereIsNoPager() {
+		addPage(1, "Work Table", "Sink");
+		ParallelSearchCrawler crawler = new ParallelSearchCrawler(this::newSession, 4);
+		assertThat(crawler.findAllTitlesMissingKeyword(SEARCH_URL, 0, "table")).containsExactly("Sink");
+		assertThat(browsers).hasSize(1);
+	}
+
+	@Test
+	public void ignoresTheCaseOfTheKeyword() {
+		addPage(1, "Work TABLE", "Sink");
+		ParallelSearchCrawler crawler = new ParallelSearchCrawler(this::newSession, 1);
+		assertThat(crawler.findAllTitlesMissingKeyword(SEARCH_URL, 1, "Table")).containsExactly("Sink");
+	}
+
+	@Test
+	public void readsEachPageOnceItsListingRendered() {
+		addPage(1, "Work Table", "Sink");
+		addPage(2, "Prep Table", "Shelf");
+		lookupsBeforeListing = 3;
+		ParallelSearchCrawler crawler = new ParallelSearchCrawler(this::newSession, 1);
+		assertThat(crawler.findAllTitlesMissingKeyword(SEARCH_URL, 2, "table")).containsExactly("Sink", "Shelf");
+	}
+
+	private void addPage(int page, String... titles) {
+		StringBuilder html = new StringBuilder("<html><body><div id='product_listing'>");
+		for (String title : titles) {
+			html.append("<div><span data-testid='itemDescription'>").append(title).append("</span></div>");
+		}
+		pages.put(urlUtilities.getResultPageUrl(SEARCH_URL, page), html.append("</div></body></html>").toString());
+	}
+
+	private synchronized WebDriver newSession() {
+		MarkupBrowser browser = new MarkupBrowser(pages, PRODUCT_LISTING_CSS, lookupsBeforeListing);
+		browsers.add(browser);
+		return browser.driver();
+	}
+}
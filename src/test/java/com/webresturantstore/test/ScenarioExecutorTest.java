@@ -0,0 +1,111 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import drivers.ScenarioExecutor;
+import drivers.WebDriverPool;
+import pages.SearchPageFactory;
+
+/**
+ * Unit tests for running scenarios concurrently on pooled sessions, using stub sessions.
+ */
+public class ScenarioExecutorTest {
+	private final List<StubSession> sessions = new ArrayList<>();
+
+	@Test(timeout = 10000)
+	public void runsScenariosConcurrentlyOnPooledSessions() {
+		CountDownLatch bothRunning = new CountDownLatch(2);
+		Function<SearchPageFactory, Boolean> scenario = searchPage -> {
+			bothRunning.countDown();
+			try {
+				return bothRunning.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		};
+		try (WebDriverPool pool = new WebDriverPool(this::newSession, 2, 10);
+				ScenarioExecutor executor = new ScenarioExecutor(pool, 5)) {
+			assertThat(executor.runAll(Arrays.asList(scenario, scenario))).containsExactly(true, true);
+			assertThat(sessions).hasSize(2);
+			// The sessions went back to the pool for the next scenarios
+			assertThat(sessions).noneMatch(session -> session.quit);
+			assertThat(executor.runAll(Arrays.asList(scenario, scenario))).containsExactly(true, true);
+			assertThat(sessions).hasSize(2);
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void discardsTheSessionOfAScenarioThatBrokeIt() {
+		Function<SearchPageFactory, Boolean> scenario = searchPage -> {
+			throw new WebDriverException("stub browser crashed");
+		};
+		try (WebDriverPool pool = new WebDriverPool(this::newSession, 1, 10);
+				ScenarioExecutor executor = new ScenarioExecutor(pool, 5)) {
+			assertThatThrownBy(() -> executor.runAll(Arrays.asList(scenario)))
+					.isInstanceOf(IllegalStateException.class).hasCauseInstanceOf(WebDriverException.class);
+			assertThat(sessions.get(0).quit).isTrue();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void closingWhenInterruptedStopsTheScenariosAndKeepsTheInterrupt() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		try (WebDriverPool pool = new WebDriverPool(this::newSession, 1, 10)) {
+			ScenarioExecutor executor = new ScenarioExecutor(pool, 5);
+			Future<Boolean> running = executor.submit(searchPage -> {
+				started.countDown();
+				try {
+					Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+					return false;
+				} catch (InterruptedException e) {
+					return true;
+				}
+			});
+			started.await();
+			Thread.currentThread().interrupt();
+			executor.close();
+			assertThat(Thread.interrupted()).isTrue();
+			assertThat(running.get()).isTrue();
+		}
+	}
+
+	private synchronized WebDriver newSession() {
+		StubSession session = new StubSession();
+		sessions.add(session);
+		return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { WebDriver.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getWindowHandle":
+						return "window";
+					case "quit":
+						session.quit = true;
+						return null;
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+					}
+				});
+	}
+
+	private static class StubSession {
+		volatile boolean quit;
+	}
+}
@@ -0,0 +1,60 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+
+import pages.SearchPageFactory;
+import webutilities.LatencyRecorder;
+import webutilities.UrlUtilities;
+
+/**
+ * Unit tests for the search page object, using a stub browser that shows fixed markup.
+ */
+public class SearchPageFactoryTest {
+	private static final String SEARCH_URL = "https://example.test/search/?searchval=table";
+
+	// A result set small enough to have no pager
+	private static final String SINGLE_PAGE_HTML = "<html><body>"
+			+ "<h1 class='page-header search--title'>table (2 results)</h1>"
+			+ "<div id='product_listing'>"
+			+ "<div><span data-testid='itemDescription'>Stainless Steel Work Table</span></div>"
+			+ "<div><span data-testid='itemDescription'>Stainless Steel Sink</span></div>"
+			+ "</div></body></html>";
+
+	@Test
+	public void auditsTheOnlyPageOfResultsWithoutPager() {
+		SearchPageFactory searchPage = new SearchPageFactory(openSinglePage());
+		assertThat(searchPage.returnSearchPageCount()).isZero();
+		assertThat(searchPage.findAllTitlesMissingKeyword("table")).containsExactly("Stainless Steel Sink");
+		assertThat(searchPage.hasTitlesMissingKeyword("table")).isTrue();
+	}
+
+	@Test
+	public void auditsTheOnlyPageOfResultsWithoutPagerFromSnapshots() {
+		SearchPageFactory searchPage = new SearchPageFactory(openSinglePage(), LatencyRecorder.DISABLED, true);
+		assertThat(searchPage.findAllTitlesMissingKeyword("table")).containsExactly("Stainless Steel Sink");
+	}
+
+	@Test
+	public void ignoresTheCaseOfTheKeywordInEveryCheck() {
+		SearchPageFactory searchPage = new SearchPageFactory(openSinglePage());
+		assertThat(searchPage.findAllTitlesMissingKeyword("TABLE")).containsExactly("Stainless Steel Sink");
+		assertThat(searchPage.findAllTitlesMissingKeyword("Table", this::openSinglePage, 1))
+				.containsExactly("Stainless Steel Sink");
+	}
+
+	private WebDriver openSinglePage() {
+		Map<String, String> pages = new HashMap<>();
+		pages.put(SEARCH_URL, SINGLE_PAGE_HTML);
+		// The same page as a parallel crawl addresses it
+		pages.put(new UrlUtilities().getResultPageUrl(SEARCH_URL, 1), SINGLE_PAGE_HTML);
+		WebDriver driver = new MarkupBrowser(pages).driver();
+		driver.get(SEARCH_URL);
+		return driver;
+	}
+}
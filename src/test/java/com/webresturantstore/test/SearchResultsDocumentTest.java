@@ -0,0 +1,57 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import pages.PaginationModel;
+import pages.SearchResultsDocument;
+
+/**
+ * Unit tests for parsing server-rendered search result markup.
+ */
+public class SearchResultsDocumentTest {
+	private static final String SEARCH_PAGE_HTML = "<html><body>"
+			+ "<h1 class='page-header search--title'>stainless steel table (1,234 results)</h1>"
+			+ "<div id='paging'><ul>"
+			+ "<li><a aria-label='current page, page 1' href='?page=1'>1</a></li>"
+			+ "<li><a aria-label='page 2' href='?page=2'>2</a></li>"
+			+ "<li><a aria-label='last page, page 21' href='?page=21'>21</a></li>"
+			+ "</ul></div>"
+			+ "<div id='product_listing'>"
+			+ "<div><span data-testid='itemDescription'>Stainless Steel Work Table</span></div>"
+			+ "<div><span data-testid='itemDescription'>Stainless Steel Sink</span></div>"
+			+ "</div></body></html>";
+
+	@Test
+	public void readsCountsAndTitlesFromMarkup() {
+		SearchResultsDocument document = new SearchResultsDocument(SEARCH_PAGE_HTML, "https://example.test/");
+		assertThat(document.isUsable()).isTrue();
+		assertThat(document.hasProductListing()).isTrue();
+		assertThat(document.returnSearchPageCount()).isEqualTo(21);
+		assertThat(document.returnCurrentSearchPageNumber()).isEqualTo(1);
+		assertThat(document.getAllProductTitles()).containsExactly("Stainless Steel Work Table", "Stainless Steel Sink");
+	}
+
+	@Test
+	public void readsItemsAndPagerFromMarkup() {
+		SearchResultsDocument document = new SearchResultsDocument(SEARCH_PAGE_HTML,
+				"https://example.test/search/?searchval=table");
+		assertThat(document.getPageItemCount()).isEqualTo(2);
+		assertThat(document.getSearchItemDescription(2)).isEqualTo("Stainless Steel Sink");
+		assertThat(document.getSearchItemDescription(3)).isEmpty();
+		PaginationModel pager = document.getPaginationModel();
+		assertThat(pager.getCurrentPage()).isEqualTo(1);
+		assertThat(pager.getLastPage()).isEqualTo(21);
+		assertThat(pager.getPageNumbers()).containsExactly(1, 2, 21);
+		assertThat(pager.getPageUrl(2)).isEqualTo("https://example.test/search/?page=2");
+	}
+
+	@Test
+	public void markupWithoutListingIsNotUsable() {
+		SearchResultsDocument document = new SearchResultsDocument("<html><body>Access denied</body></html>", "https://example.test/");
+		assertThat(document.isUsable()).isFalse();
+		assertThat(document.hasProductListing()).isFalse();
+		assertThat(document.returnSearchResultCount()).isEqualTo(0);
+	}
+}
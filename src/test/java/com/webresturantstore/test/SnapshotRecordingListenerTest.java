@@ -0,0 +1,113 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import drivers.SnapshotRecordingListener;
+import webutilities.SnapshotStore;
+
+/**
+ * Unit tests for recording the pages a session lands on, using a stub session
+ * whose page loads are driven by the test.
+ */
+public class SnapshotRecordingListenerTest {
+	private static final String BASE_URL = "https://example.test/";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private SnapshotStore store;
+	private SnapshotRecordingListener listener;
+	private String timeOrigin = "1";
+	private String url = BASE_URL + "search/?searchval=table";
+	private String readyState = "complete";
+
+	@Before
+	public void openStore() throws IOException {
+		store = SnapshotStore.open(folder.getRoot().toPath());
+		listener = new SnapshotRecordingListener(newDriver(), store, BASE_URL);
+	}
+
+	@After
+	public void closeStore() throws IOException {
+		store.close();
+	}
+
+	@Test
+	public void recordsAClickedPageOnceItsDocumentHasLoaded() {
+		listener.beforeClick(null);
+		// The click returned before the browser left the page
+		listener.afterAnyCall(null, null, null, null);
+		assertThat(store.size()).isZero();
+		loadPage("search/?searchval=table&page=2", "loading");
+		listener.afterAnyCall(null, null, null, null);
+		assertThat(store.size()).isZero();
+		readyState = "complete";
+		listener.afterAnyCall(null, null, null, null);
+		assertThat(body("/search/?searchval=table&page=2")).contains("2:complete");
+	}
+
+	@Test
+	public void recordsAParsedPageWhenTheNextNavigationLeavesIt() {
+		listener.beforeGet(null, BASE_URL + "cart");
+		loadPage("cart", "interactive");
+		listener.afterAnyCall(null, null, null, null);
+		assertThat(store.size()).isZero();
+		listener.beforeClick(null);
+		assertThat(body("/cart")).contains("2:interactive");
+	}
+
+	@Test
+	public void doesNotRecordAClickThatStaysOnThePage() {
+		listener.beforeClick(null);
+		listener.afterAnyCall(null, null, null, null);
+		listener.beforeQuit(null);
+		assertThat(store.size()).isZero();
+	}
+
+	private void loadPage(String path, String state) {
+		timeOrigin = String.valueOf(Integer.parseInt(timeOrigin) + 1);
+		url = BASE_URL + path;
+		readyState = state;
+	}
+
+	private String body(String key) {
+		SnapshotStore.Snapshot snapshot = store.get(key);
+		assertThat(snapshot).isNotNull();
+		return new String(snapshot.getBody(), StandardCharsets.UTF_8);
+	}
+
+	private WebDriver newDriver() {
+		return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebDriver.class, JavascriptExecutor.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getCurrentUrl":
+						return url;
+					case "executeScript":
+						if (((String) args[0]).contains("readyState")) {
+							return Arrays.asList(timeOrigin, url, readyState);
+						}
+						// The page capture
+						return "<html>" + timeOrigin + ":" + readyState + "</html>";
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+					}
+				});
+	}
+}
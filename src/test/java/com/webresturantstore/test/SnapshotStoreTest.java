@@ -0,0 +1,83 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import webutilities.SnapshotReplayServer;
+import webutilities.SnapshotStore;
+
+/**
+ * Unit tests for recording snapshots and replaying them over HTTP.
+ */
+public class SnapshotStoreTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void keepsLatestRecordingAcrossReopen() throws IOException {
+		Path directory = folder.getRoot().toPath();
+		try (SnapshotStore store = SnapshotStore.open(directory)) {
+			store.put("/search/?searchval=table", "text/html", bytes("first"));
+			store.put("/search/?searchval=table&page=2", "text/html", bytes("page two"));
+			store.put("/search/?searchval=table", "text/html", bytes("second"));
+			assertThat(text(store.get("/search/?searchval=table").getBody())).isEqualTo("second");
+		}
+		try (SnapshotStore store = SnapshotStore.open(directory)) {
+			assertThat(store.size()).isEqualTo(2);
+			assertThat(text(store.get("/search/?searchval=table&page=2").getBody())).isEqualTo("page two");
+			assertThat(store.get("/cart")).isNull();
+		}
+	}
+
+	@Test
+	public void keyIgnoresOriginAndFragment() {
+		assertThat(SnapshotStore.keyFor("https://www.webstaurantstore.com/search/?searchval=a%20b&page=3#top"))
+				.isEqualTo("/search/?searchval=a%20b&page=3");
+		assertThat(SnapshotStore.keyFor("https://www.webstaurantstore.com")).isEqualTo("/");
+	}
+
+	@Test
+	public void replayServerServesRecordedPages() throws IOException {
+		try (SnapshotStore store = SnapshotStore.open(folder.getRoot().toPath());
+				SnapshotReplayServer server = SnapshotReplayServer.start(store, 0)) {
+			store.put("/", "text/html; charset=utf-8", bytes("<html>home</html>"));
+			HttpURLConnection connection = (HttpURLConnection) URI.create(server.getBaseUrl()).toURL().openConnection();
+			assertThat(connection.getResponseCode()).isEqualTo(200);
+			assertThat(connection.getContentType()).isEqualTo("text/html; charset=utf-8");
+			try (InputStream body = connection.getInputStream()) {
+				assertThat(text(readFully(body))).isEqualTo("<html>home</html>");
+			}
+			HttpURLConnection missing = (HttpURLConnection) URI.create(server.getBaseUrl() + "cart").toURL().openConnection();
+			assertThat(missing.getResponseCode()).isEqualTo(404);
+		}
+	}
+
+	private static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String text(byte[] bytes) {
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static byte[] readFully(InputStream input) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = input.read(buffer)) != -1) {
+			output.write(buffer, 0, read);
+		}
+		return output.toByteArray();
+	}
+}
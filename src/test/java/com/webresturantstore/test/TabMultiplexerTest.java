@@ -0,0 +1,185 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import drivers.TabMultiplexer;
+
+/**
+ * Unit tests for running several sessions as tabs of shared browsers, using stub browsers.
+ */
+public class TabMultiplexerTest {
+	private final List<StubBrowser> browsers = new ArrayList<>();
+	private boolean loadsWithoutWaiting = false;
+
+	@Test
+	public void sendsEachCommandToItsOwnTab() {
+		try (TabMultiplexer tabs = new TabMultiplexer(this::newBrowser, 3)) {
+			WebDriver first = tabs.get();
+			WebDriver second = tabs.get();
+			WebDriver third = tabs.get();
+			assertThat(browsers).hasSize(1);
+			second.get("https://example.test/second");
+			first.get("https://example.test/first");
+			assertThat(third.getCurrentUrl()).isEqualTo("about:blank");
+			assertThat(second.getCurrentUrl()).isEqualTo("https://example.test/second");
+			assertThat(first.getCurrentUrl()).isEqualTo("https://example.test/first");
+			// Consecutive commands of one tab do not switch again
+			int switches = browsers.get(0).switches;
+			first.getTitle();
+			first.getTitle();
+			assertThat(browsers.get(0).switches).isEqualTo(switches);
+		}
+	}
+
+	@Test
+	public void startsAnotherBrowserWhenTheTabsAreFull() {
+		try (TabMultiplexer tabs = new TabMultiplexer(this::newBrowser, 2)) {
+			tabs.get();
+			tabs.get();
+			tabs.get();
+			assertThat(browsers).hasSize(2);
+			assertThat(tabs.getBrowserCount()).isEqualTo(2);
+		}
+		assertThat(browsers.get(0).quit).isTrue();
+		assertThat(browsers.get(1).quit).isTrue();
+	}
+
+	@Test
+	public void quittingATabClosesItAndTheLastTabQuitsTheBrowser() {
+		try (TabMultiplexer tabs = new TabMultiplexer(this::newBrowser, 2)) {
+			WebDriver first = tabs.get();
+			WebDriver second = tabs.get();
+			first.quit();
+			StubBrowser browser = browsers.get(0);
+			assertThat(browser.quit).isFalse();
+			assertThat(browser.pages).hasSize(1);
+			// The freed slot is reused before another browser is started
+			WebDriver third = tabs.get();
+			assertThat(browsers).hasSize(1);
+			second.quit();
+			third.quit();
+			assertThat(browser.quit).isTrue();
+			assertThat(tabs.getBrowserCount()).isZero();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void otherTabsWorkWhileAPageLoadsWithoutWaiting() throws InterruptedException {
+		loadsWithoutWaiting = true;
+		AtomicInteger setUpTabs = new AtomicInteger();
+		try (TabMultiplexer tabs = new TabMultiplexer(this::newBrowser, 2, driver -> setUpTabs.incrementAndGet())) {
+			WebDriver first = tabs.get();
+			WebDriver second = tabs.get();
+			assertThat(setUpTabs).hasValue(1);
+			StubBrowser browser = browsers.get(0);
+			Thread loader = new Thread(() -> first.get("https://example.test/slow"));
+			loader.start();
+			while (!"loading".equals(browser.states.get("tab0"))) {
+				Thread.sleep(10);
+			}
+			// The loading tab does not hold the browser, and this command finishes its page
+			second.getTitle();
+			loader.join();
+			assertThat(first.getCurrentUrl()).isEqualTo("https://example.test/slow");
+		}
+	}
+
+	private synchronized WebDriver newBrowser() {
+		StubBrowser browser = new StubBrowser();
+		browsers.add(browser);
+		WebDriver.Timeouts timeouts = (WebDriver.Timeouts) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebDriver.Timeouts.class }, (proxy, method, args) -> Duration.ofSeconds(5));
+		WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebDriver.Options.class }, (proxy, method, args) -> timeouts);
+		WebDriver.TargetLocator targetLocator = (WebDriver.TargetLocator) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] { WebDriver.TargetLocator.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "window":
+						browser.switches++;
+						browser.current = (String) args[0];
+						return browser.driver;
+					case "newWindow":
+						browser.current = "tab" + browser.nextTab++;
+						browser.pages.put(browser.current, "about:blank");
+						return browser.driver;
+					default:
+						return null;
+					}
+				});
+		Class<?>[] interfaces = loadsWithoutWaiting
+				? new Class<?>[] { WebDriver.class, JavascriptExecutor.class, HasCapabilities.class }
+				: new Class<?>[] { WebDriver.class };
+		browser.driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), interfaces,
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getWindowHandle":
+						return browser.current;
+					case "switchTo":
+						return targetLocator;
+					case "manage":
+						return options;
+					case "getCapabilities":
+						return new ImmutableCapabilities("pageLoadStrategy", "none");
+					case "executeScript":
+						// The time origin, URL and ready state of the current tab's document
+						return Arrays.asList("origin-" + browser.pages.get(browser.current),
+								browser.pages.get(browser.current), browser.states.getOrDefault(browser.current, "complete"));
+					case "get":
+						browser.pages.put(browser.current, (String) args[0]);
+						if (loadsWithoutWaiting) {
+							browser.states.put(browser.current, "loading");
+						}
+						return null;
+					case "getCurrentUrl":
+						return browser.pages.get(browser.current);
+					case "getTitle":
+						// Any other tab's command lets the loading pages finish
+						browser.states.replaceAll((tab, state) -> "interactive");
+						return browser.current;
+					case "close":
+						browser.pages.remove(browser.current);
+						return null;
+					case "quit":
+						browser.quit = true;
+						return null;
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+					}
+				});
+		return browser.driver;
+	}
+
+	private static class StubBrowser {
+		WebDriver driver;
+		String current = "tab0";
+		int nextTab = 1;
+		int switches = 0;
+		final Map<String, String> pages = new LinkedHashMap<>();
+		final Map<String, String> states = new ConcurrentHashMap<>();
+		volatile boolean quit;
+
+		StubBrowser() {
+			pages.put(current, "about:blank");
+		}
+	}
+}
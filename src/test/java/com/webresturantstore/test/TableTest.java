@@ -1,259 +1,417 @@
-package com.webresturantstore.test;
-
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
-import java.util.List;
-
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-import org.assertj.core.api.SoftAssertionError;
-import org.assertj.core.api.SoftAssertions;
-import org.junit.AfterClass;
-import org.junit.BeforeClass;
-import org.junit.FixMethodOrder;
-import org.junit.Rule;
-import org.junit.Test;
-import org.junit.rules.TestWatcher;
-import org.junit.runner.Description;
-import org.junit.runners.MethodSorters;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-
-import io.github.bonigarcia.wdm.WebDriverManager;
-import pages.SearchPageFactory;
-
-//This annotation ensures that the test methods in this class are executed in ascending order by name
-@FixMethodOrder(MethodSorters.NAME_ASCENDING)
-
-/**
- * This TableTest class performs the following test case;
- * 	1.	Go to https://www.webstaurantstore.com/
- *	2.	Search for 'stainless work table'.
- *	3.	Check the search result ensuring every product has the word 'Table' in its title.
- *  4.	Add the last of found items to Cart.
- *	5.	Empty Cart.
- *
- *The results of the test are logged in 2 seperate log files;
- *testoutput_* logs the junit test results with a PASSES or FAILS
- *tabletest-* logs the details of the tests
- *new logs are generated for each test run with the date and time appended to the file name.
- */
-public class TableTest {
- // Logger for this class
- private static final Logger logger = LogManager.getLogger(TableTest.class);
-  // StringBuilder to collect the results of the tests
- private static StringBuilder builder = new StringBuilder();
-  // WebDriver instance for browser automation
- private static WebDriver driver;
-  // Base URL for the web application
- private static String baseUrl;
-  // Page factory for the search page
- private static SearchPageFactory searchPage;
-  // SoftAssertions instance for soft assertions
- private SoftAssertions softAssertions = new SoftAssertions();
- private static int testNumber = 0;
- // Rule that defines a TestWatcher. This allows us to add logic that will be executed when a test succeeds or fails
- @Rule
- public TestWatcher watchman = new TestWatcher() {
-     // This method is called when a test fails
-     @Override
-     protected void failed(Throwable e, Description description) {
-         // Increment the test number
-         testNumber++;
-         // Append the test number, test description, exception, and "FAIL" to the builder
-         builder.append("Test ").append(testNumber).append(" -> FAILS\n").append(description).append(' ').append(e).append("\n");
-     }
-     // This method is called when a test succeeds
-     @Override
-     protected void succeeded(Description description) {
-         // Increment the test number
-         testNumber++;
-         // Append the test number, test description, and "OK" to the builder
-         builder.append("Test ").append(testNumber).append(" -> PASSES\n").append(description).append("\n");
-     }
- };
-
- 	// This method is executed before the first test method of the current class
-	// 1.	Go to https://www.webstaurantstore.com/
- @BeforeClass
- public static void setUp() {
-     // Set up Chrome WebDriver using WebDriverManager
-     WebDriverManager.chromedriver().setup();
-     driver = new ChromeDriver();
-     // Base URL for the web application
-     baseUrl = "https://www.webstaurantstore.com/";
-     // Initialize the SearchPageFactory
-     searchPage = new SearchPageFactory(driver);
-     // Set implicit wait timeout to 15 seconds
-     driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-     // Maximize the browser window
-     driver.manage().window().maximize();
-     // Navigate to the base URL
-     driver.get(baseUrl);
- }
-
-
-	/**
-	 * test1SearchForProductAndCheckMissingKeywords() is a test method 
-	 * that tests searching for a product and checking for missing keywords.
-	 * It uses soft assertions to allow the test to continue even if an 
-	 * assertion fails, and collects all failures to be reported at the 
-	 * end of the test.
-	 * 
-	 * 2.	Search for 'stainless work table'.
-	 * 3.	Check the search result ensuring every product has the word 'Table' in its title.
-	 */
- @Test
- public void test1SearchForProductAndCheckMissingKeywords() {
-     // Log the start of the test
-     logger.info("***Start of test1SearchForProductAndCheckMissingKeywords ***");
-     // Define the keyword to search for
-     String keyword = "table";
-     // Perform a search for the keyword
-     searchPage.searchForProduct("stainless steel table");
-     // Get the count of search results and log it
-     int pageCount = searchPage.returnSearchResultCount();
-     logger.info("Returned search result count -> {}", pageCount);
-     // Get the count of search result pages and log it
-     int searchResultsCount = searchPage.returnSearchPageCount();
-     logger.info("Page count -> {}", searchResultsCount);
-     // Find all titles in the search results that are missing the keyword
-     String[] actualMissingResults = searchPage.findAllTitlesMissingKeyword(keyword);
-     // Define the expected titles that are missing the keyword (none in this case)
-     String[] expectedTitlesMissingKeyword = new String[0];
-     // Log the expected and actual results
-     logger.info("Expected Result -> {}", Arrays.toString(expectedTitlesMissingKeyword));
-     logger.info("Actual Result -> {}", Arrays.toString(actualMissingResults));
-     // Log the number of titles that are missing the keyword
-     logger.info("Number of Titles that are missing the keyword '{}' -> {}", keyword, actualMissingResults.length);
-     // Log the current page number
-     logger.info("Page Number -> {}", searchPage.returnCurrentSearchPageNumber());
-     // Assert that all titles contain the keyword
-     softAssertions.assertThat(actualMissingResults).as("Check that all titles contain the keyword")
-             .isEqualTo(expectedTitlesMissingKeyword);
-     // Assert all soft assertions
-     try {
-         softAssertions.assertAll();
-     } catch (SoftAssertionError e) {
-         // If any soft assertions fail, log the error message and rethrow the exception
-         logger.error(e.getMessage());
-         throw e;
-     }
- }
-
-	/**
-	 * test2AddItemToCartAndVerifyCartOperations() is a test method 
-	 * that tests adding the last item to the cart and verifies cart empty operations. 
-	 * It uses soft assertions to allow the test to continue even if an 
-	 * assertion fails, and collects all failures to be reported at the 
-	 * end of the test.
-	 * 
-	 * 2.   Search for 'stainless work table'.
-	 * 4.	Add the last of found items to Cart.
-	 * 5.	Empty Cart.
-	 */
-	 @Test
-	    public void test2AddItemToCartAndVerifyCartOperations() {
-	        // Log the start of the test case
-	        logger.info("***Start of test2AddItemToCartAndVerifyCartOperations ***");  
-	        // Clear the SearchBox
-	        searchPage.clearSearchBox();
-	        // Search for a product
-	        searchPage.searchForProduct("stainless steel table");
-	        // Log the current page number
-	        logger.info("Before Page -> {}", searchPage.returnCurrentSearchPageNumber());
-	        // Get the page numbers
-	        List<Integer> pageNumbers = searchPage.getPageNumbers();
-	        // Log the page numbers
-	        logger.info("Page numbers: {}", pageNumbers);
-	        // Go to the result page
-	        searchPage.goToResultPage(pageNumbers.get(pageNumbers.size()-1));
-	        // Log the current page number
-	        logger.info("After Page -> {}", searchPage.returnCurrentSearchPageNumber());
-	        // Get the item count on the page
-	        int pageItemCount = searchPage.getPageItemCount();
-	        // Log the item count
-	        logger.info("Page item count -> {}", pageItemCount);
-	        // Get the Description of the given item from theSearch results
-	        String pageitemDescription = searchPage.getSearchItemDescription(pageItemCount);
-	        // Log the item description
-	        logger.info("Page item description -> {}", pageitemDescription);
-	        // Add an last item on the page to the cart
-	        searchPage.AddItemToCart(pageItemCount);
-	        // Log that the item has been added to the cart
-	        logger.info("Item Added to Cart complete");
-	        // Log that the cart is being opened
-	        logger.info("Opening Cart");
-	        // Go to the cart page
-	        searchPage.goToCartPage();
-	        // Get the Description of the first item in the cart (index 0 for item 1)
-	        String cartitemDescription = searchPage.getCartItemDescription(0);
-	        // Log the item description
-	        logger.info("Cart item description -> {}", cartitemDescription);
-	        // Assert that the cart is not empty
-	        softAssertions.assertThat(cartitemDescription).as("Check to see if expected item is in the cart").isEqualTo(pageitemDescription);
-	        // Check if the cart is not empty
-	        boolean cartNotEmpty = searchPage.isEmptyCartPresent();
-	        // Assert that the cart is not empty
-	        softAssertions.assertThat(cartNotEmpty).as("Check to see if the cart is not empty").isEqualTo(true);
-	        // Log whether the Empty Cart button is present
-	        logger.info("Is Empty Cart Button Present? -> {}", cartNotEmpty);
-	        // Log that the Empty Cart button is being clicked
-	        logger.info("Clicking Empty Cart");
-	        // Click the Empty Cart button
-	        searchPage.clickEmptyCart();
-	        // Log that the cart is being verified as empty
-	        logger.info("Verifying Cart is empty");
-	        // Verify that the cart is empty
-	        searchPage.emptyCartVerify();
-	        // Check if the cart is empty
-	        boolean cartIsEmpty = searchPage.isCartEmptyScreenPresent();
-	        // Log whether the Empty Cart screen is present
-	        logger.info("Is Empty Cart Screen present? -> {}", cartIsEmpty);
-	        // Assert that the cart is empty
-	        softAssertions.assertThat(cartIsEmpty).as("Check to see if the cart is empty").isEqualTo(true);
-	        // Try to assert all soft assertions
-	        try {
-	            softAssertions.assertAll();
-	        } catch (SoftAssertionError e) {
-	            // Print the default error message
-	            logger.error(e.getMessage());
-	            // Rethrow the error to fail the test to junit
-	            throw e;
-	        }
-	    }
-	 
-	// This method is executed once after all tests in the current class
-	 /**
-	  * afterClass() is a method that’s executed once after all tests in the current class. 
-	  * It checks if driver is not null, and if it’s not, it quits the WebDriver instance, 
-	  * closing the browser session. It then creates a DateTimeFormatter with the desired 
-	  * pattern, gets the current date and time, and formats the current date and time as a 
-	  * string. This string is then used to create a PrintWriter that writes to a log file (testoutput_*). 
-	  * The contents of builder are written to this log file. If an IOException is thrown 
-	  * (for example, if the file cannot be created, opened, or written to), 
-	  * it will be caught and handled.
-	  */
-	@AfterClass
-	public static void afterClass() throws IOException {
-		if (driver != null) {
-			driver.quit();
-			// Create a DateTimeFormatter with the desired pattern
-			DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
-			// Get the current date and time
-			LocalDateTime now = LocalDateTime.now();
-			// Format the current date and time as a string
-			String formattedNow = dtf.format(now);
-			// Try-with-resources statement for automatic resource management
-			try (PrintWriter logFile = new PrintWriter("logs\\testoutput_" + formattedNow + ".txt", "UTF-8")) {
-				// Write the contents of builder to the log file
-				logFile.write(builder.toString());
-			}
-			// IOException is thrown if the file cannot be created, opened, or written to
-		}
-	}
-}
+package com.webresturantstore.test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.assertj.core.api.SoftAssertionError;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.AssumptionViolatedException;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.openqa.selenium.WebDriver;
+
+import drivers.BrowserProfile;
+import drivers.ChromeSessionFactory;
+import drivers.CommandTimingListener;
+import drivers.SnapshotRecordingListener;
+import drivers.WebDriverPool;
+import pages.PageTimings;
+import pages.ResultItem;
+import pages.SearchPageFactory;
+import webutilities.LatencyRecorder;
+import webutilities.PageMetricsRecorder;
+import webutilities.SnapshotReplayServer;
+import webutilities.SnapshotStore;
+import webutilities.TestResultSink;
+
+/**
+ * This TableTest class performs the following test case;
+ * 	1.	Go to https://www.webstaurantstore.com/
+ *	2.	Search for 'stainless work table'.
+ *	3.	Check the search result ensuring every product has the word 'Table' in its title.
+ *  4.	Add the last of found items to Cart.
+ *	5.	Empty Cart.
+ *
+ *The results of the test are logged in 3 seperate log files;
+ *testoutput_* logs one JSON line per junit test as it finishes, with PASSES or FAILS, its timing
+ *and the browser's page timings of each navigation step it took
+ *tabletest-* logs the details of the tests
+ *latency_* records the latency of each page-object method and WebDriver command, and the
+ *percentiles of the browser's page timings (time to first byte, paints, resources) per navigation step
+ *new logs are generated for each test run with the date and time appended to the file name.
+ *
+ *Set -Dsnapshot.mode=record to save every page the run lands on into the snapshot store
+ *(-Dsnapshot.dir, default 'snapshots'), and -Dsnapshot.mode=replay to run against those
+ *pages from a local server instead of the live site.
+ *
+ *Each test borrows its own browser session from a pool and starts with no cookies or cart,
+ *so the tests do not depend on each other or on their order. -Dtabletest.sessions sets the
+ *pool size, and mvn test -Pparallel runs the tests on that many threads at once.
+ */
+public class TableTest {
+ // Logger for this class
+ private static final Logger logger = LogManager.getLogger(TableTest.class);
+  // Date and time appended to the log file names of this run, and the surefire fork number if there is one
+ private static final String RUN_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss").format(LocalDateTime.now())
+         + (System.getProperty("tabletest.fork", "").isEmpty() ? "" : "_" + System.getProperty("tabletest.fork"));
+  // Seconds a test waits for a free browser session
+ private static final long SESSION_BORROW_TIMEOUT_SECONDS = 120;
+  // Sink that writes the result of each test as it finishes
+ private static TestResultSink resultSink;
+  // Pool of browser sessions the tests borrow from
+ private static WebDriverPool sessionPool;
+  // Base URL for the web application
+ private static String baseUrl;
+  // WebDriver session of the running test
+ private WebDriver driver;
+  // Page factory for the search page of the running test
+ private SearchPageFactory searchPage;
+  // Snapshot store and replay server used in record and replay modes
+ private static SnapshotStore snapshotStore;
+ private static SnapshotReplayServer replayServer;
+  // Latencies of the page-object methods and of the WebDriver commands they send
+ private static LatencyRecorder pageLatency = new LatencyRecorder();
+ private static LatencyRecorder commandLatency = new LatencyRecorder();
+ // Browser performance figures of each navigation step; -Dpage.metrics=false skips reading them
+ private static PageMetricsRecorder pageMetrics = Boolean.parseBoolean(System.getProperty("page.metrics", "true"))
+         ? new PageMetricsRecorder() : PageMetricsRecorder.DISABLED;
+  // SoftAssertions instance for soft assertions
+ private SoftAssertions softAssertions = new SoftAssertions();
+ // Rule that defines a TestWatcher. This allows us to add logic that will be executed when a test succeeds or fails
+ @Rule
+ public TestWatcher watchman = new TestWatcher() {
+     // Start time of the running test
+     private long startMillis;
+     private long startNanos;
+     // This method is called when a test starts
+     @Override
+     protected void starting(Description description) {
+         startMillis = System.currentTimeMillis();
+         startNanos = System.nanoTime();
+     }
+     // This method is called when a test fails
+     @Override
+     protected void failed(Throwable e, Description description) {
+         writeResult(description, TestResultSink.FAILS, e);
+     }
+     // This method is called when a test succeeds
+     @Override
+     protected void succeeded(Description description) {
+         writeResult(description, TestResultSink.PASSES, null);
+     }
+     // This method is called when a test is skipped by a failed assumption
+     @Override
+     protected void skipped(AssumptionViolatedException e, Description description) {
+         writeResult(description, TestResultSink.SKIPPED, e);
+     }
+     // Write the test's result line to the results file
+     private void writeResult(Description description, String status, Throwable e) {
+         long durationMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+         // Attach the browser's timings of each navigation step the test took
+         Map<String, Object> details = new LinkedHashMap<>();
+         if (searchPage != null && !searchPage.getStepTimings().isEmpty()) {
+             List<Map<String, Object>> steps = new ArrayList<>();
+             for (PageTimings timings : searchPage.getStepTimings()) {
+                 steps.add(timings.toMap());
+             }
+             details.put("steps", steps);
+         }
+         try {
+             int testNumber = resultSink.record(description.toString(), status, startMillis, durationMs, e, details);
+             logger.info("Test {} -> {} in {} ms", testNumber, status, durationMs);
+         } catch (IOException ioe) {
+             // Log the exception
+             logger.error("An error occurred: ", ioe);
+         }
+     }
+ };
+
+ 	// This method is executed before the first test method of the current class
+ @BeforeClass
+ public static void setUp() throws IOException {
+     // Open the results file the tests append to as they finish
+     resultSink = TestResultSink.open(Paths.get("logs", "testoutput_" + RUN_TIMESTAMP + ".jsonl"));
+     // Base URL for the web application
+     baseUrl = "https://www.webstaurantstore.com/";
+     // Record the live pages or replay recorded ones, if requested
+     String snapshotMode = System.getProperty("snapshot.mode", "live");
+     boolean recording = snapshotMode.equals("record");
+     if (recording || snapshotMode.equals("replay")) {
+         snapshotStore = SnapshotStore.open(Paths.get(System.getProperty("snapshot.dir", "snapshots")));
+         if (!recording) {
+             replayServer = SnapshotReplayServer.start(snapshotStore, 0);
+             baseUrl = replayServer.getBaseUrl();
+         }
+         logger.info("Snapshot mode -> {}", snapshotMode);
+     }
+     // Start Chrome sessions with a 10 second implicit wait, cleared of cookies and cart between tests
+     ChromeSessionFactory chromeSessions = new ChromeSessionFactory(Duration.ofSeconds(10),
+             BrowserProfile.fromProperties(System.getProperties()));
+     logger.info("Browser profile -> {}", chromeSessions.getProfile());
+     String liveBaseUrl = baseUrl;
+     int sessions = Integer.getInteger("tabletest.sessions", 1);
+     sessionPool = new WebDriverPool(() -> {
+         WebDriver session = chromeSessions.get();
+         if (recording) {
+             session = SnapshotRecordingListener.record(session, snapshotStore, liveBaseUrl);
+         }
+         // Time every command sent to the browser
+         return CommandTimingListener.instrument(session, commandLatency);
+     }, sessions, Integer.MAX_VALUE, WebDriverPool::clearBrowserState);
+     // Start the sessions side by side before the first test needs one
+     sessionPool.warmUp();
+     logger.info("Browser sessions -> {}", sessions);
+ }
+
+	// This method is executed before each test method, on the test's thread
+	// 1.	Go to https://www.webstaurantstore.com/
+ @Before
+ public void openSession() throws InterruptedException {
+     // Borrow a session of our own, with no cookies or cart left by another test
+     driver = sessionPool.borrow(SESSION_BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+     // Initialize the SearchPageFactory; -Dpage.snapshotReads=true answers its reads from a capture of each page
+     searchPage = new SearchPageFactory(driver, pageLatency, Boolean.getBoolean("page.snapshotReads"), pageMetrics);
+     // Navigate to the base URL
+     driver.get(baseUrl);
+ }
+
+	// This method is executed after each test method; the pool clears the session before reusing it
+ @After
+ public void releaseSession() {
+     if (driver != null) {
+         sessionPool.release(driver);
+     }
+ }
+
+
+	/**
+	 * test1SearchForProductAndCheckMissingKeywords() is a test method 
+	 * that tests searching for a product and checking for missing keywords.
+	 * It uses soft assertions to allow the test to continue even if an 
+	 * assertion fails, and collects all failures to be reported at the 
+	 * end of the test.
+	 * 
+	 * 2.	Search for 'stainless work table'.
+	 * 3.	Check the search result ensuring every product has the word 'Table' in its title.
+	 */
+ @Test
+ public void test1SearchForProductAndCheckMissingKeywords() {
+     // Log the start of the test
+     logger.info("***Start of test1SearchForProductAndCheckMissingKeywords ***");
+     // Define the keyword to search for
+     String keyword = "table";
+     // Perform a search for the keyword
+     searchPage.searchForProduct("stainless steel table");
+     // Get the count of search results and log it
+     int pageCount = searchPage.returnSearchResultCount();
+     logger.info("Returned search result count -> {}", pageCount);
+     // Get the count of search result pages and log it
+     int searchResultsCount = searchPage.returnSearchPageCount();
+     logger.info("Page count -> {}", searchResultsCount);
+     // Find all titles in the search results that are missing the keyword
+     String[] actualMissingResults = searchPage.findAllTitlesMissingKeyword(keyword);
+     // Define the expected titles that are missing the keyword (none in this case)
+     String[] expectedTitlesMissingKeyword = new String[0];
+     // Log the expected and actual results (the arrays are only formatted if INFO is enabled)
+     logger.info("Expected Result -> {}", () -> Arrays.toString(expectedTitlesMissingKeyword));
+     logger.info("Actual Result -> {}", () -> Arrays.toString(actualMissingResults));
+     // Log the number of titles that are missing the keyword
+     logger.info("Number of Titles that are missing the keyword '{}' -> {}", keyword, actualMissingResults.length);
+     // Log the current page number
+     logger.info("Page Number -> {}", searchPage.returnCurrentSearchPageNumber());
+     // Assert that all titles contain the keyword
+     softAssertions.assertThat(actualMissingResults).as("Check that all titles contain the keyword")
+             .isEqualTo(expectedTitlesMissingKeyword);
+     // Assert all soft assertions
+     try {
+         softAssertions.assertAll();
+     } catch (SoftAssertionError e) {
+         // If any soft assertions fail, log the error message and rethrow the exception
+         logger.error(e.getMessage());
+         throw e;
+     }
+ }
+
+	/**
+	 * test2AddItemToCartAndVerifyCartOperations() is a test method 
+	 * that tests adding the last item to the cart and verifies cart empty operations. 
+	 * It uses soft assertions to allow the test to continue even if an 
+	 * assertion fails, and collects all failures to be reported at the 
+	 * end of the test.
+	 * 
+	 * 2.   Search for 'stainless work table'.
+	 * 4.	Add the last of found items to Cart.
+	 * 5.	Empty Cart.
+	 */
+	 @Test
+	    public void test2AddItemToCartAndVerifyCartOperations() {
+	        // Log the start of the test case
+	        logger.info("***Start of test2AddItemToCartAndVerifyCartOperations ***");  
+	        // Search for a product
+	        searchPage.searchForProduct("stainless steel table");
+	        // Log the current page number
+	        logger.info("Before Page -> {}", searchPage.returnCurrentSearchPageNumber());
+	        // Get the page numbers
+	        List<Integer> pageNumbers = searchPage.getPageNumbers();
+	        // Log the page numbers
+	        logger.info("Page numbers: {}", pageNumbers);
+	        // Go to the result page
+	        searchPage.goToResultPage(pageNumbers.get(pageNumbers.size()-1));
+	        // Log the current page number
+	        logger.info("After Page -> {}", searchPage.returnCurrentSearchPageNumber());
+	        // Get the item count on the page
+	        int pageItemCount = searchPage.getPageItemCount();
+	        // Log the item count
+	        logger.info("Page item count -> {}", pageItemCount);
+	        // Get the Description of the given item from theSearch results
+	        String pageitemDescription = searchPage.getSearchItemDescription(pageItemCount);
+	        // Log the item description
+	        logger.info("Page item description -> {}", pageitemDescription);
+	        // Add an last item on the page to the cart
+	        searchPage.AddItemToCart(pageItemCount);
+	        // Log that the item has been added to the cart
+	        logger.info("Item Added to Cart complete");
+	        // Log that the cart is being opened
+	        logger.info("Opening Cart");
+	        // Go to the cart page
+	        searchPage.goToCartPage();
+	        // Get the Description of the first item in the cart (index 0 for item 1)
+	        String cartitemDescription = searchPage.getCartItemDescription(0);
+	        // Log the item description
+	        logger.info("Cart item description -> {}", cartitemDescription);
+	        // Assert that the cart is not empty
+	        softAssertions.assertThat(cartitemDescription).as("Check to see if expected item is in the cart").isEqualTo(pageitemDescription);
+	        // Check if the cart is not empty
+	        boolean cartNotEmpty = searchPage.isEmptyCartPresent();
+	        // Assert that the cart is not empty
+	        softAssertions.assertThat(cartNotEmpty).as("Check to see if the cart is not empty").isEqualTo(true);
+	        // Log whether the Empty Cart button is present
+	        logger.info("Is Empty Cart Button Present? -> {}", cartNotEmpty);
+	        // Log that the Empty Cart button is being clicked
+	        logger.info("Clicking Empty Cart");
+	        // Click the Empty Cart button
+	        searchPage.clickEmptyCart();
+	        // Log that the cart is being verified as empty
+	        logger.info("Verifying Cart is empty");
+	        // Verify that the cart is empty
+	        searchPage.emptyCartVerify();
+	        // Check if the cart is empty
+	        boolean cartIsEmpty = searchPage.isCartEmptyScreenPresent();
+	        // Log whether the Empty Cart screen is present
+	        logger.info("Is Empty Cart Screen present? -> {}", cartIsEmpty);
+	        // Assert that the cart is empty
+	        softAssertions.assertThat(cartIsEmpty).as("Check to see if the cart is empty").isEqualTo(true);
+	        // Try to assert all soft assertions
+	        try {
+	            softAssertions.assertAll();
+	        } catch (SoftAssertionError e) {
+	            // Print the default error message
+	            logger.error(e.getMessage());
+	            // Rethrow the error to fail the test to junit
+	            throw e;
+	        }
+	    }
+
+	/**
+	 * test3AddItemsToCartInOneBatchAndVerifyCart() is a test method
+	 * that adds several items from the first and the last result page to the cart
+	 * in one batch per page, checks every cart line with one read of the cart and
+	 * empties the cart in one step.
+	 *
+	 * 2.   Search for 'stainless work table'.
+	 * 4.	Add items from several result pages to Cart.
+	 * 5.	Empty Cart.
+	 */
+	 @Test
+	    public void test3AddItemsToCartInOneBatchAndVerifyCart() {
+	        // Log the start of the test case
+	        logger.info("***Start of test3AddItemsToCartInOneBatchAndVerifyCart ***");
+	        // Search for a product
+	        searchPage.searchForProduct("stainless steel table");
+	        // Pick the first three items of the first page and the first item of the last page, or the fourth of a single page
+	        List<Integer> pageNumbers = searchPage.getPageNumbers();
+	        int lastPage = pageNumbers.isEmpty() ? 1 : pageNumbers.get(pageNumbers.size() - 1);
+	        List<ResultItem> items = Arrays.asList(new ResultItem(1, 1), new ResultItem(1, 2), new ResultItem(1, 3),
+	                lastPage == 1 ? new ResultItem(1, 4) : new ResultItem(lastPage, 1));
+	        // Add the items, one batch per page
+	        List<String> addedDescriptions = searchPage.addItemsToCart(items);
+	        // Log the added items
+	        logger.info("Added to cart -> {}", addedDescriptions);
+	        // Assert that every item was found on its page
+	        softAssertions.assertThat(addedDescriptions).as("Check that every item was added").hasSize(items.size());
+	        // Go to the cart page
+	        searchPage.goToCartPage();
+	        // Check every cart line with one read of the cart
+	        List<String> missingItems = searchPage.findMissingCartItems(addedDescriptions);
+	        // Log the items missing from the cart
+	        logger.info("Missing from cart -> {}", missingItems);
+	        // Assert that every added item is in the cart
+	        softAssertions.assertThat(missingItems).as("Check to see if every added item is in the cart").isEmpty();
+	        // Empty the cart and wait for the empty cart screen
+	        boolean cartIsEmpty = searchPage.emptyCart();
+	        // Log whether the Empty Cart screen is present
+	        logger.info("Is Empty Cart Screen present? -> {}", cartIsEmpty);
+	        // Assert that the cart is empty
+	        softAssertions.assertThat(cartIsEmpty).as("Check to see if the cart is empty").isEqualTo(true);
+	        // Try to assert all soft assertions
+	        try {
+	            softAssertions.assertAll();
+	        } catch (SoftAssertionError e) {
+	            // Print the default error message
+	            logger.error(e.getMessage());
+	            // Rethrow the error to fail the test to junit
+	            throw e;
+	        }
+	    }
+	 
+	// This method is executed once after all tests in the current class
+	 /**
+	  * afterClass() is a method that’s executed once after all tests in the current class. 
+	  * It closes the session pool, quitting the browser sessions, and writes the latency histograms to a log file (latency_*).
+	  * The test results are already in the testoutput_* log, so it only closes the result sink.
+	  * If an IOException is thrown (for example, if the file cannot be created, opened, or 
+	  * written to), it will be caught and handled.
+	  */
+	@AfterClass
+	public static void afterClass() throws IOException {
+		if (sessionPool != null) {
+			sessionPool.close();
+			// Write the latency histograms next to the test results
+			Map<String, Object> latency = new LinkedHashMap<>();
+			latency.put("roundTrips", commandLatency.getTotalCount());
+			latency.put("pageObjectMethods", pageLatency.toSummary());
+			latency.put("webDriverCommands", commandLatency.toSummary());
+			latency.put("pageMetrics", pageMetrics.toSummary());
+			LatencyRecorder.writeJson(Paths.get("logs", "latency_" + RUN_TIMESTAMP + ".json"), latency);
+			// IOException is thrown if the file cannot be created, opened, or written to
+		}
+		// Stop replaying and close the snapshot store
+		if (replayServer != null) {
+			replayServer.close();
+		}
+		if (snapshotStore != null) {
+			snapshotStore.close();
+		}
+		// Close the results file
+		if (resultSink != null) {
+			resultSink.close();
+		}
+	}
+}
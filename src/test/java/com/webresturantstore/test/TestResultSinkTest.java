@@ -0,0 +1,91 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openqa.selenium.json.Json;
+
+import webutilities.TestResultSink;
+
+/**
+ * Unit tests for the JSON Lines test result sink.
+ */
+public class TestResultSinkTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void writesOneLinePerResultAsItFinishes() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("logs").resolve("testoutput.jsonl");
+		try (TestResultSink sink = TestResultSink.open(file)) {
+			sink.record("test1(TableTest)", TestResultSink.PASSES, 0, 1200, null);
+			// The first record is on disk before the sink is closed
+			assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).hasSize(1);
+			sink.record("test2(TableTest)", TestResultSink.FAILS, 0, 300, new AssertionError("expected\nTable"));
+		}
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertThat(lines).hasSize(2);
+		Map<String, Object> failed = new Json().toType(lines.get(1), Json.MAP_TYPE);
+		assertThat(failed).containsEntry("testNumber", 2L).containsEntry("status", "FAILS")
+				.containsEntry("durationMs", 300L).containsEntry("error", "java.lang.AssertionError: expected\nTable");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void addsDetailsToTheRecord() throws IOException {
+		Path file = folder.getRoot().toPath().resolve("testoutput.jsonl");
+		Map<String, Object> step = new LinkedHashMap<>();
+		step.put("step", "searchForProduct");
+		step.put("ttfbMs", 180.5);
+		Map<String, Object> details = new LinkedHashMap<>();
+		details.put("steps", Collections.singletonList(step));
+		try (TestResultSink sink = TestResultSink.open(file)) {
+			sink.record("test1(TableTest)", TestResultSink.PASSES, 0, 1200, null, details);
+		}
+		Map<String, Object> record = new Json().toType(Files.readAllLines(file, StandardCharsets.UTF_8).get(0), Json.MAP_TYPE);
+		assertThat(record).containsEntry("status", "PASSES");
+		List<Map<String, Object>> steps = (List<Map<String, Object>>) record.get("steps");
+		assertThat(steps).hasSize(1);
+		assertThat(steps.get(0)).containsEntry("step", "searchForProduct").containsEntry("ttfbMs", 180.5);
+	}
+
+	@Test
+	public void numbersConcurrentResultsWithoutGaps() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("testoutput.jsonl");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try (TestResultSink sink = TestResultSink.open(file)) {
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				String test = "test" + i;
+				futures.add(executor.submit(() -> sink.record(test, TestResultSink.PASSES, 0, 1, null)));
+			}
+			for (Future<Integer> future : futures) {
+				future.get();
+			}
+			assertThat(sink.getCount()).isEqualTo(100);
+		} finally {
+			executor.shutdown();
+		}
+		List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+		assertThat(lines).hasSize(100);
+		for (int i = 0; i < lines.size(); i++) {
+			Map<String, Object> result = new Json().toType(lines.get(i), Json.MAP_TYPE);
+			assertThat(result).containsEntry("testNumber", (long) i + 1);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import webutilities.TextParsingUtilities;
+
+/**
+ * Unit tests for the TextParsingUtilities number parser.
+ */
+public class TextParsingUtilitiesTest {
+	private TextParsingUtilities textParsingUtilities = new TextParsingUtilities();
+
+	@Test
+	public void readsFirstNumberWithThousandsSeparators() {
+		assertThat(textParsingUtilities.getIntegerFromText("1,234 results")).isEqualTo(1234);
+		assertThat(textParsingUtilities.getIntegerFromText("last page, page 21")).isEqualTo(21);
+		assertThat(textParsingUtilities.getIntegerFromText("12,34")).isEqualTo(12);
+	}
+
+	@Test
+	public void reportsAbsentAndOverflowExplicitly() {
+		assertThat(textParsingUtilities.getIntegerFromText("no results")).isZero();
+		assertThat(textParsingUtilities.parseInt("", -1, -2)).isEqualTo(-1);
+		assertThat(textParsingUtilities.parseInt("3,000,000,000", -1, -2)).isEqualTo(-2);
+		assertThat(textParsingUtilities.parseLong("3,000,000,000", -1, -2)).isEqualTo(3000000000L);
+		assertThat(textParsingUtilities.parseLong("99999999999999999999", -1, -2)).isEqualTo(-2);
+		assertThat(textParsingUtilities.findInt("none").isPresent()).isFalse();
+		assertThat(textParsingUtilities.findLong("page 7").getAsLong()).isEqualTo(7L);
+	}
+
+	@Test
+	public void findsMissingTextsOneForOne() {
+		assertThat(textParsingUtilities.findMissingTexts(Arrays.asList("Work Table", "Sink", "Work Table", "Shelf"),
+				Arrays.asList(" Work Table ", "Shelf", "Prep Table"))).containsExactly("Sink", "Work Table");
+		assertThat(textParsingUtilities.findMissingTexts(Arrays.asList("Sink"), Arrays.asList("Sink", "Sink"))).isEmpty();
+	}
+
+	@Test
+	public void parsesBatchInOrder() {
+		assertThat(textParsingUtilities.parseInts(Arrays.asList("page 1", "none", "2,500"), -1, -2))
+				.containsExactly(1, -1, 2500);
+	}
+
+	@Test
+	public void keywordCheckIgnoresTheCaseOfKeywordAndTitle() {
+		List<String> missing = new ArrayList<>();
+		textParsingUtilities.addTitlesMissingKeyword(Arrays.asList("Stainless Steel Work TABLE", "Prep table", "Sink"),
+				"Table", missing);
+		assertThat(missing).containsExactly("Sink");
+	}
+}
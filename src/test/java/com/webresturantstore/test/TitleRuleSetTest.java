@@ -0,0 +1,40 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import webutilities.TitleRuleSet;
+
+/**
+ * Unit tests for single-pass title rule evaluation.
+ */
+public class TitleRuleSetTest {
+	private TitleRuleSet rules = TitleRuleSet.builder()
+			.require("table")
+			.forbid("sink")
+			.anyOf("stainless", "galvanized")
+			.build();
+
+	@Test
+	public void titlePassingEveryRuleHasNoViolations() {
+		TitleRuleSet.Matcher matcher = rules.matcher();
+		assertThat(matcher.passes("Regency 30\" x 60\" STAINLESS Steel Work Table")).isTrue();
+		assertThat(matcher.violations("Galvanized Table with Undershelf")).isEmpty();
+	}
+
+	@Test
+	public void reportsEachViolatedRule() {
+		TitleRuleSet.Matcher matcher = rules.matcher();
+		assertThat(matcher.violations("Wood Top Sink").toString())
+				.isEqualTo("[missing 'table', contains 'sink', missing any of [stainless, galvanized]]");
+	}
+
+	@Test
+	public void matchesOverlappingAndNonAsciiKeywords() {
+		TitleRuleSet overlapping = TitleRuleSet.builder().require("tables").require("able").require("crème").build();
+		TitleRuleSet.Matcher matcher = overlapping.matcher();
+		assertThat(matcher.passes("Dessert TABLES for CRÈME brûlée")).isTrue();
+		assertThat(matcher.violations("Dessert Table for creme").toString()).isEqualTo("[missing 'tables', missing 'crème']");
+	}
+}
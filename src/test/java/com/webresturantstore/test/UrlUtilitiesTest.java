@@ -0,0 +1,26 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import webutilities.UrlUtilities;
+
+/**
+ * Unit tests for the UrlUtilities page URL helpers.
+ */
+public class UrlUtilitiesTest {
+	private UrlUtilities urlUtilities = new UrlUtilities();
+
+	@Test
+	public void addsPageParameterToUrlWithoutQuery() {
+		assertThat(urlUtilities.getResultPageUrl("https://www.webstaurantstore.com/search/table.html", 3))
+				.isEqualTo("https://www.webstaurantstore.com/search/table.html?page=3");
+	}
+
+	@Test
+	public void replacesExistingPageParameterAndKeepsOthers() {
+		assertThat(urlUtilities.getResultPageUrl("https://example.test/search?searchval=table&page=2&sort=asc#top", 7))
+				.isEqualTo("https://example.test/search?searchval=table&sort=asc&page=7#top");
+	}
+}
@@ -0,0 +1,146 @@
+package com.webresturantstore.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+
+import drivers.WebDriverPool;
+
+/**
+ * Unit tests for WebDriverPool reuse, recycling and health checks, using stub sessions.
+ */
+public class WebDriverPoolTest {
+	private final List<StubSession> sessions = new ArrayList<>();
+	private int failingStarts = 0;
+
+	@Test
+	public void reusesSessionUntilMaxUsesThenRecyclesIt() throws InterruptedException {
+		try (WebDriverPool pool = new WebDriverPool(this::newSession, 1, 2)) {
+			WebDriver first = pool.borrow(1, TimeUnit.SECONDS);
+			pool.release(first);
+			assertThat(pool.borrow(1, TimeUnit.SECONDS)).isSameAs(first);
+			pool.release(first);
+			// The second release reached the use limit, so a new session is started
+			assertThat(sessions.get(0).quit).isTrue();
+			assertThat(pool.borrow(1, TimeUnit.SECONDS)).isNotSameAs(first);
+		}
+	}
+
+	@Test
+	public void replacesUnhealthySessionOnBorrow() throws InterruptedException {
+		try (WebDriverPool pool = new WebDriverPool(this::newSession, 1, 10)) {
+			WebDriver first = pool.borrow(1, TimeUnit.SECONDS);
+			pool.release(first);
+			sessions.get(0).broken = true;
+			assertThat(pool.borrow(1, TimeUnit.SECONDS)).isNotSameAs(first);
+			assertThat(sessions).hasSize(2);
+		}
+	}
+
+	@Test
+	public void resetsReleasedSessionAndDiscardsItIfResetFails() throws InterruptedException {
+		List<WebDriver> reset = new ArrayList<>();
+		try (WebDriverPool pool = new WebDriverPool(this::newSession, 1, 10, driver -> {
+			reset.add(driver);
+			if (sessions.get(0).broken) {
+				throw new NoSuchSessionException("stub session is gone");
+			}
+		})) {
+			WebDriver first = pool.borrow(1, TimeUnit.SECONDS);
+			pool.release(first);
+			assertThat(reset).containsExactly(first);
+			assertThat(pool.borrow(1, TimeUnit.SECONDS)).isSameAs(first);
+			sessions.get(0).broken = true;
+			pool.release(first);
+			assertThat(sessions.get(0).quit).isTrue();
+		}
+	}
+
+	@Test
+	public void waitingBorrowerTakesTheSlotOfAnInvalidatedSession() throws InterruptedException {
+		try (WebDriverPool pool = new WebDriverPool(this::newSession, 1, 10)) {
+			WebDriver first = pool.borrow(1, TimeUnit.SECONDS);
+			Thread invalidator = new Thread(() -> {
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				pool.invalidate(first);
+			});
+			invalidator.start();
+			long start = System.nanoTime();
+			WebDriver second = pool.borrow(10, TimeUnit.SECONDS);
+			invalidator.join();
+			assertThat(second).isNotSameAs(first);
+			// The freed slot is noticed long before the borrow timeout
+			assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(5);
+		}
+	}
+
+	@Test
+	public void warmUpStartsEverySession() {
+		try (WebDriverPool pool = new WebDriverPool(this::newSession, 3, 10)) {
+			pool.warmUp();
+			assertThat(sessions).hasSize(3);
+		}
+	}
+
+	@Test
+	public void failedWarmUpQuitsTheStartedSessionsAndFreesTheirSlots() throws InterruptedException {
+		failingStarts = 1;
+		try (WebDriverPool pool = new WebDriverPool(this::newSession, 3, 10)) {
+			assertThatThrownBy(pool::warmUp).isInstanceOf(IllegalStateException.class)
+					.hasRootCauseInstanceOf(SessionNotCreatedException.class);
+			assertThat(sessions).hasSize(2);
+			assertThat(sessions).allMatch(session -> session.quit);
+			// Every slot is free again
+			for (int i = 0; i < 3; i++) {
+				pool.borrow(1, TimeUnit.SECONDS);
+			}
+			assertThat(sessions).hasSize(5);
+		}
+	}
+
+	private synchronized WebDriver newSession() {
+		if (failingStarts > 0) {
+			failingStarts--;
+			throw new SessionNotCreatedException("stub browser did not start");
+		}
+		StubSession session = new StubSession();
+		sessions.add(session);
+		return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { WebDriver.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getWindowHandle":
+						if (session.broken) {
+							throw new NoSuchSessionException("stub session is gone");
+						}
+						return "window";
+					case "quit":
+						session.quit = true;
+						return null;
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						return null;
+					}
+				});
+	}
+
+	private static class StubSession {
+		volatile boolean broken;
+		volatile boolean quit;
+	}
+}